@@ -12,10 +12,21 @@ import com.yourplugin.rGG.managers.RegionTimerManager;
 import com.yourplugin.rGG.managers.HeightExpansionManager;
 import com.yourplugin.rGG.managers.FlagProtectionManager;
 import com.yourplugin.rGG.managers.ProtectRegionManager;
+import com.yourplugin.rGG.managers.VisualizationManager;
+import com.yourplugin.rGG.managers.PlayerNameCache;
+import com.yourplugin.rGG.managers.RegionEventBus;
+import com.yourplugin.rGG.managers.DeadlineScheduler;
+import com.yourplugin.rGG.managers.DataPersistenceService;
+import com.yourplugin.rGG.managers.DataStore;
+import com.yourplugin.rGG.managers.RecordStore;
+import com.yourplugin.rGG.managers.StorageBackend;
+import com.yourplugin.rGG.listeners.ChunkLifecycleListener;
+import com.yourplugin.rGG.listeners.PlayerNameListener;
 
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -34,6 +45,12 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
     private HeightExpansionManager heightExpansionManager;
     private FlagProtectionManager flagProtectionManager;
     private ProtectRegionManager protectRegionManager;
+    private VisualizationManager visualizationManager;
+    private PlayerNameCache playerNameCache;
+    private RegionEventBus regionEvents;
+    private DeadlineScheduler deadlineScheduler;
+    private DataPersistenceService persistenceService;
+    private StorageBackend storageBackend;
 
     // Логгер плагина
     private Logger logger;
@@ -224,10 +241,27 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
         logger.info("Инициализация менеджеров...");
 
         try {
+            // Сервис записи файлов данных нужен до менеджеров с хранилищами
+            persistenceService = new DataPersistenceService(this);
+            storageBackend = StorageBackend.create(this, getConfig().getString("storage.type", "yaml"));
+            logger.info("Хранилище данных: " + storageBackend.getType());
+
+            // Шина событий регионов нужна до менеджеров, которые на нее подписываются
+            regionEvents = new RegionEventBus(this);
+
+            // Кэш имен игроков нужен голограммам и меню
+            playerNameCache = new PlayerNameCache(this);
+
             // Инициализируем базовые менеджеры
             protectRegionManager = new ProtectRegionManager(this);
             logger.info("ProtectRegionManager инициализирован");
 
+            visualizationManager = new VisualizationManager(this);
+            logger.info("VisualizationManager инициализирован");
+
+            // Общий планировщик сроков нужен до менеджеров с таймерами
+            deadlineScheduler = new DeadlineScheduler(this);
+
             regionTimerManager = new RegionTimerManager(this);
             logger.info("RegionTimerManager инициализирован");
 
@@ -259,6 +293,9 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
     private void registerEventsAndCommands() {
         // Регистрируем этот класс как слушатель событий
         getServer().getPluginManager().registerEvents(this, this);
+        // Голограммы и границы регионов загружаются и выгружаются вместе с чанками
+        getServer().getPluginManager().registerEvents(new ChunkLifecycleListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerNameListener(this), this);
 
         logger.info("События и команды зарегистрированы");
     }
@@ -282,7 +319,7 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
         // Останавливаем остальные менеджеры
         if (flagProtectionManager != null) {
             try {
-                // flagProtectionManager.shutdown(); // Метод будет добавлен в FlagProtectionManager
+                flagProtectionManager.shutdown();
                 logger.info("FlagProtectionManager остановлен");
             } catch (Exception e) {
                 logger.warning("Ошибка при остановке FlagProtectionManager: " + e.getMessage());
@@ -291,7 +328,7 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
 
         if (heightExpansionManager != null) {
             try {
-                // heightExpansionManager.shutdown(); // Метод будет добавлен в HeightExpansionManager
+                heightExpansionManager.shutdown();
                 logger.info("HeightExpansionManager остановлен");
             } catch (Exception e) {
                 logger.warning("Ошибка при остановке HeightExpansionManager: " + e.getMessage());
@@ -300,22 +337,51 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
 
         if (regionTimerManager != null) {
             try {
-                // regionTimerManager.shutdown(); // Метод будет добавлен в RegionTimerManager
+                regionTimerManager.shutdown();
                 logger.info("RegionTimerManager остановлен");
             } catch (Exception e) {
                 logger.warning("Ошибка при остановке RegionTimerManager: " + e.getMessage());
             }
         }
 
+        if (deadlineScheduler != null) {
+            deadlineScheduler.shutdown();
+        }
+
+        if (visualizationManager != null) {
+            try {
+                visualizationManager.shutdown();
+            } catch (Exception e) {
+                logger.warning("Ошибка при остановке VisualizationManager: " + e.getMessage());
+            }
+        }
+
         if (protectRegionManager != null) {
             try {
-                // protectRegionManager.shutdown(); // Метод будет добавлен в ProtectRegionManager
-                logger.info("ProtectRegionManager остановлен");
+                protectRegionManager.shutdown();
             } catch (Exception e) {
                 logger.warning("Ошибка при остановке ProtectRegionManager: " + e.getMessage());
             }
         }
 
+        // Дожидаемся записи файлов данных (с ограничением по времени)
+        if (persistenceService != null) {
+            long timeout = getConfig().getLong("advanced.storage.shutdown-timeout-ms", 10000L);
+            if (persistenceService.drain(timeout)) {
+                logger.info("Файлы данных сохранены");
+            }
+            persistenceService = null;
+        }
+
+        if (storageBackend != null) {
+            storageBackend.close();
+            storageBackend = null;
+        }
+
+        if (regionEvents != null) {
+            regionEvents.clear();
+        }
+
         logger.info("Все менеджеры остановлены");
     }
 
@@ -361,6 +427,54 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
         return protectRegionManager;
     }
 
+    /**
+     * Получает шину событий изменения регионов
+     * @return RegionEventBus или null если не инициализирована
+     */
+    public RegionEventBus getRegionEvents() {
+        return regionEvents;
+    }
+
+    /**
+     * Получает кэш имен игроков
+     * @return PlayerNameCache или null если не инициализирован
+     */
+    public PlayerNameCache getPlayerNameCache() {
+        return playerNameCache;
+    }
+
+    /**
+     * Получает менеджер границ регионов
+     * @return VisualizationManager или null если не инициализирован
+     */
+    public VisualizationManager getVisualizationManager() {
+        return visualizationManager;
+    }
+
+    /**
+     * Получает сервис записи файлов данных
+     * @return DataPersistenceService или null если не инициализирован
+     */
+    public DataPersistenceService getPersistenceService() {
+        return persistenceService;
+    }
+
+    /**
+     * Получает бэкенд хранения данных
+     * @return StorageBackend или null если не инициализирован
+     */
+    public StorageBackend getStorageBackend() {
+        return storageBackend;
+    }
+
+    /**
+     * Получает общий планировщик сроков истечения
+     * @return DeadlineScheduler или null если не инициализирован
+     */
+    public DeadlineScheduler getDeadlineScheduler() {
+        return deadlineScheduler;
+    }
+
     // ===== ОБРАБОТКА КОМАНД =====
 
     @Override
@@ -414,6 +528,10 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
                 handleDebugCommand(sender, args);
                 break;
 
+            case "migrate":
+                handleMigrateCommand(sender, args);
+                break;
+
             default:
                 sender.sendMessage("§cНеизвестная команда. Используйте /rgp help для справки.");
                 break;
@@ -433,6 +551,112 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
         sender.sendMessage("§e/rgp info §7- Информация о плагине");
         sender.sendMessage("§e/rgp hologram <subcommand> §7- Управление голограммами");
         sender.sendMessage("§e/rgp debug <subcommand> §7- Отладочные команды");
+        sender.sendMessage("§e/rgp migrate <yaml|sqlite> §7- Перенести данные в другое хранилище");
+    }
+
+    /**
+     * Переносит все данные плагина в хранилище другого типа и сразу переключается на него.
+     * Менеджеры останавливаются на время переноса (как при /rgp reload), поэтому изменения
+     * не теряются: все сохраняется в текущее хранилище, копируется и проверяется по числу записей
+     * в заново открытом целевом хранилище. Только после проверки меняется storage.type.
+     * @param sender Отправитель команды
+     * @param args Аргументы команды
+     */
+    private void handleMigrateCommand(CommandSender sender, String[] args) {
+        if (args.length < 2 || !(args[1].equalsIgnoreCase("yaml") || args[1].equalsIgnoreCase("sqlite"))) {
+            sender.sendMessage("§cИспользование: /rgp migrate <yaml|sqlite>");
+            return;
+        }
+
+        if (storageBackend == null) {
+            sender.sendMessage("§cХранилище данных не инициализировано!");
+            return;
+        }
+
+        String sourceType = storageBackend.getType();
+        String targetType = args[1].toLowerCase();
+        if (targetType.equals(sourceType)) {
+            sender.sendMessage("§eДанные уже хранятся в " + targetType);
+            return;
+        }
+
+        sender.sendMessage("§eПеренос данных в " + targetType + "...");
+
+        // Останавливаем менеджеры: все изменения записываются в текущее хранилище,
+        // очередь записи дожидается. Без сервиса записи хранилища пишут синхронно
+        shutdownManagers();
+
+        try {
+            int total = copyStorage(sender, sourceType, targetType);
+            if (total < 0) {
+                sender.sendMessage("§cДанные не перенесены, используется прежнее хранилище " + sourceType + ". Подробности в консоли.");
+                return;
+            }
+
+            getConfig().set("storage.type", targetType);
+            saveConfig();
+
+            sender.sendMessage("§aПеренесено записей: " + total + ". Хранилище переключено на " + targetType);
+            logger.info("Данные перенесены в хранилище " + targetType + " (" + total + " записей)");
+
+        } catch (Exception e) {
+            sender.sendMessage("§cОшибка при переносе данных: " + e.getMessage());
+            logger.severe("Ошибка при переносе данных в " + targetType + ": " + e.getMessage());
+        } finally {
+            // Запускаем менеджеры на хранилище из storage.type (новом или прежнем при ошибке)
+            initializeManagers();
+        }
+    }
+
+    /**
+     * Копирует все виды данных между хранилищами (менеджеры должны быть остановлены)
+     * @return Количество перенесенных записей или -1, если целевое хранилище недоступно
+     *         или после переноса содержит не те же записи
+     */
+    private int copyStorage(CommandSender sender, String sourceType, String targetType) {
+        Map<DataStore, Integer> expected = new java.util.EnumMap<>(DataStore.class);
+        StorageBackend source = StorageBackend.create(this, sourceType);
+        StorageBackend target = StorageBackend.create(this, targetType);
+        try {
+            if (!source.getType().equals(sourceType) || !target.getType().equals(targetType)) {
+                logger.severe("Не удалось подключить хранилище " + sourceType + " или " + targetType);
+                return -1;
+            }
+
+            for (DataStore dataStore : DataStore.values()) {
+                RecordStore sourceStore = source.openStore(dataStore);
+                sourceStore.load();
+                Map<String, Map<String, Object>> records = sourceStore.snapshot();
+                RecordStore targetStore = target.openStore(dataStore);
+                targetStore.load();
+                targetStore.replaceAll(records);
+                expected.put(dataStore, records.size());
+            }
+        } finally {
+            source.close();
+            target.close();
+        }
+
+        // Ошибки записи только логируются - проверяем результат в заново открытом хранилище
+        StorageBackend written = StorageBackend.create(this, targetType);
+        try {
+            if (!written.getType().equals(targetType)) {
+                return -1;
+            }
+            int total = 0;
+            for (DataStore dataStore : DataStore.values()) {
+                int count = written.openStore(dataStore).size();
+                if (count != expected.get(dataStore)) {
+                    logger.severe("Перенос " + dataStore.name() + ": записано " + count + " из " + expected.get(dataStore));
+                    return -1;
+                }
+                total += count;
+                sender.sendMessage("§7- " + dataStore.name() + ": §f" + count);
+            }
+            return total;
+        } finally {
+            written.close();
+        }
     }
 
     /**
@@ -497,7 +721,7 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
         }
 
         if (args.length < 2) {
-            sender.sendMessage("§cИспользование: /rgp hologram <repair|info|stats|clear>");
+            sender.sendMessage("§cИспользование: /rgp hologram <repair|info|stats|clear|migrate>");
             return;
         }
 
@@ -532,8 +756,17 @@ public class RGProtectPlugin extends JavaPlugin implements Listener {
                 sender.sendMessage("§aВсе голограммы удалены!");
                 break;
 
+            case "migrate":
+                int migrated = hologramManager.migrateLegacyArmorStands(true);
+                if (migrated < 0) {
+                    sender.sendMessage("§cПеренос недоступен: hologram.renderer = armor_stand");
+                } else {
+                    sender.sendMessage("§aГолограмм переведено с ArmorStand: " + migrated);
+                }
+                break;
+
             default:
-                sender.sendMessage("§cНеизвестная подкоманда. Доступны: repair, info, stats, clear");
+                sender.sendMessage("§cНеизвестная подкоманда. Доступны: repair, info, stats, clear, migrate");
                 break;
         }
     }
@@ -124,7 +124,9 @@ public class RGProtectCommand implements CommandExecutor {
             sender.sendMessage(ChatColor.GRAY + "--- Статистика ---");
             sender.sendMessage(ChatColor.GRAY + "Голограммы: " + plugin.getHologramManager().getHologramCount());
             sender.sendMessage(ChatColor.GRAY + "Активные визуализации: " + plugin.getVisualizationManager().getActiveVisualizationCount());
-            sender.sendMessage(ChatColor.GRAY + "Регионы с границами: " + plugin.getVisualizationManager().getRegionBordersCount());
+            sender.sendMessage(ChatColor.GRAY + "Регионы с границами: " + plugin.getVisualizationManager().getRegionBordersCount() +
+                    " (режим " + plugin.getVisualizationManager().getBorderMode() + ", блоков в очереди записи: " +
+                    plugin.getVisualizationManager().getPendingBorderBlocks() + ")");
 
             if (plugin.getEconomy() != null) {
                 sender.sendMessage(ChatColor.GRAY + "Экономика: " + plugin.getEconomy().getName());
@@ -316,9 +318,8 @@ public class RGProtectCommand implements CommandExecutor {
             Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
             if (regionManager != null) {
                 try {
-                    java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-                    @SuppressWarnings("unchecked")
-                    java.util.Map<String, ProtectedRegion> regions = (java.util.Map<String, ProtectedRegion>) getRegionsMethod.invoke(regionManager);
+                    java.util.Map<String, ProtectedRegion> regions =
+                            plugin.getProtectRegionManager().getWorldGuardGateway().getRegionManager(world).getRegions();
 
                     sender.sendMessage(ChatColor.YELLOW + "Проверяем " + regions.size() + " регионов в мире " + world.getName() + ":");
 
@@ -543,9 +544,8 @@ public class RGProtectCommand implements CommandExecutor {
             Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
             if (regionManager != null) {
                 try {
-                    java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-                    @SuppressWarnings("unchecked")
-                    java.util.Map<String, ProtectedRegion> regions = (java.util.Map<String, ProtectedRegion>) getRegionsMethod.invoke(regionManager);
+                    java.util.Map<String, ProtectedRegion> regions =
+                            plugin.getProtectRegionManager().getWorldGuardGateway().getRegionManager(world).getRegions();
 
                     sender.sendMessage(ChatColor.YELLOW + "Регионы в мире " + world.getName() + ": " + regions.size());
 
@@ -687,15 +687,12 @@ public class RGProtectCommand implements CommandExecutor {
             com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion testRegion =
                     new com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion("test", min, max);
 
-            // Получаем все регионы
-            java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-            @SuppressWarnings("unchecked")
-            java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
-                    (java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion>)
-                            getRegionsMethod.invoke(regionManager);
+            // Получаем пересекающиеся регионы через индекс WorldGuard
+            java.util.List<com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
+                    plugin.getProtectRegionManager().getWorldGuardGateway().getIntersectingRegions(world, testRegion);
 
             int conflictCount = 0;
-            for (com.sk89q.worldguard.protection.regions.ProtectedRegion existingRegion : regions.values()) {
+            for (com.sk89q.worldguard.protection.regions.ProtectedRegion existingRegion : regions) {
                 if (hasIntersection(testRegion, existingRegion)) {
                     String ownerName = getOwnerName(existingRegion);
                     player.sendMessage(ChatColor.RED + "     • Регион " + existingRegion.getId() +
@@ -726,16 +723,13 @@ public class RGProtectCommand implements CommandExecutor {
         }
 
         try {
-            java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-            @SuppressWarnings("unchecked")
-            java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
-                    (java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion>)
-                            getRegionsMethod.invoke(regionManager);
+            java.util.Collection<com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
+                    plugin.getProtectRegionManager().getWorldGuardGateway().getRegions(world);
 
             int nearbyCount = 0;
             int radius = 50; // Радиус поиска
 
-            for (com.sk89q.worldguard.protection.regions.ProtectedRegion region : regions.values()) {
+            for (com.sk89q.worldguard.protection.regions.ProtectedRegion region : regions) {
                 // Вычисляем расстояние до региона
                 int regionCenterX = (region.getMinimumPoint().x() + region.getMaximumPoint().x()) / 2;
                 int regionCenterZ = (region.getMinimumPoint().z() + region.getMaximumPoint().z()) / 2;
@@ -779,7 +773,7 @@ public class RGProtectCommand implements CommandExecutor {
     private String getOwnerName(com.sk89q.worldguard.protection.regions.ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             java.util.UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Неизвестно";
         }
         if (!region.getOwners().getPlayers().isEmpty()) {
@@ -65,20 +65,26 @@ public class BlockBreakListener implements Listener {
     }
 
     private boolean isRegionBorderBlock(Location location) {
+        // Физические границы с загруженными оригиналами - одно обращение к индексу позиций
+        if (plugin.getVisualizationManager().getBorderRegionAt(location) != null) {
+            return true;
+        }
+
         // Находим ближайший регион
         ProtectedRegion region = plugin.getProtectRegionManager().getRegionAt(location);
         if (region == null) {
             // Если прямо в этой позиции региона нет, проверяем окружающие блоки
             // так как границы могут быть размещены рядом с регионом
-            for (int dx = -1; dx <= 1; dx++) {
+            Location checkLoc = location.clone();
+            for (int dx = -1; dx <= 1 && region == null; dx++) {
                 for (int dz = -1; dz <= 1; dz++) {
-                    Location checkLoc = location.clone().add(dx, 0, dz);
+                    checkLoc.setX(location.getX() + dx);
+                    checkLoc.setZ(location.getZ() + dz);
                     region = plugin.getProtectRegionManager().getRegionAt(checkLoc);
                     if (region != null) {
                         break;
                     }
                 }
-                if (region != null) break;
             }
         }
 
@@ -86,11 +92,9 @@ public class BlockBreakListener implements Listener {
             return false;
         }
 
-        // Проверяем, есть ли этот блок в сохраненных границах региона
+        // Границы региона известны, но этой позиции в индексе нет - это не граница
         String regionId = region.getId();
         if (plugin.getVisualizationManager().hasRegionBorders(regionId)) {
-            // Если у нас есть информация о границах этого региона,
-            // проверяем через VisualizationManager
             return checkIfLocationIsStoredBorder(location, regionId);
         }
 
@@ -102,8 +106,6 @@ public class BlockBreakListener implements Listener {
      * Проверяет, является ли локация сохраненной границей региона
      */
     private boolean checkIfLocationIsStoredBorder(Location location, String regionId) {
-        // Получаем информацию о сохраненных границах из VisualizationManager
-        // Это требует добавления публичного метода в VisualizationManager
         return plugin.getVisualizationManager().isLocationBorderBlock(location, regionId);
     }
 
@@ -332,10 +334,10 @@ public class BlockBreakListener implements Listener {
     }
 
     private String getRegionOwnerName(ProtectedRegion region) {
-        // Сначала пробуем получить по UUID
+        // Сначала пробуем получить по UUID (имя записывается в лор блока - нужно настоящее, не заглушка)
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             java.util.UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().resolveNow(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
@@ -349,15 +351,10 @@ public class BlockBreakListener implements Listener {
 
     private void removeRegionFromWorldGuard(Location location, ProtectedRegion region) {
         try {
-            Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(location.getWorld());
-            if (regionManager != null) {
-                // Удаляем регион через рефлексию
-                java.lang.reflect.Method removeRegionMethod = regionManager.getClass().getMethod("removeRegion", String.class);
-                removeRegionMethod.invoke(regionManager, region.getId());
-
+            com.yourplugin.rGG.managers.WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+            if (gateway.removeRegion(location.getWorld(), region.getId())) {
                 // Сохраняем изменения
-                java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-                saveMethod.invoke(regionManager);
+                gateway.save(location.getWorld());
             }
         } catch (Exception e) {
             plugin.getLogger().severe("Ошибка при удалении региона: " + e.getMessage());
@@ -199,12 +199,6 @@ public class BlockPlaceListener implements Listener {
 
         // Ищем конкретные пересекающиеся регионы
         try {
-            java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-            @SuppressWarnings("unchecked")
-            java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
-                    (java.util.Map<String, com.sk89q.worldguard.protection.regions.ProtectedRegion>)
-                            getRegionsMethod.invoke(regionManager);
-
             // Создаем тестовый регион
             int radiusX = (sizeX - 1) / 2;
             int radiusY = (sizeY - 1) / 2;
@@ -218,10 +212,14 @@ public class BlockPlaceListener implements Listener {
             com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion testRegion =
                     new com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion("test", min, max);
 
+            // Пересекающиеся регионы через индекс WorldGuard
+            java.util.List<com.sk89q.worldguard.protection.regions.ProtectedRegion> regions =
+                    plugin.getProtectRegionManager().getWorldGuardGateway().getIntersectingRegions(world, testRegion);
+
             java.util.List<String> conflictingRegions = new java.util.ArrayList<>();
             java.util.List<String> conflictingOwners = new java.util.ArrayList<>();
 
-            for (com.sk89q.worldguard.protection.regions.ProtectedRegion existingRegion : regions.values()) {
+            for (com.sk89q.worldguard.protection.regions.ProtectedRegion existingRegion : regions) {
                 if (hasRegionIntersection(testRegion, existingRegion)) {
                     String ownerName = getRegionOwnerName(existingRegion);
 
@@ -355,7 +353,7 @@ public class BlockPlaceListener implements Listener {
     private String getRegionOwnerName(com.sk89q.worldguard.protection.regions.ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Неизвестно";
         }
         if (!region.getOwners().getPlayers().isEmpty()) {
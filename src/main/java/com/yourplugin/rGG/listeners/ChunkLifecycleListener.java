@@ -0,0 +1,92 @@
+package com.yourplugin.rGG.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+import com.yourplugin.rGG.managers.HologramManager;
+import com.yourplugin.rGG.managers.VisualizationManager;
+
+/**
+ * Загрузка и выгрузка голограмм и границ регионов вместе с чанками и мирами
+ */
+public class ChunkLifecycleListener implements Listener {
+
+    private final RGProtectPlugin plugin;
+
+    public ChunkLifecycleListener(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        try {
+            VisualizationManager visualizationManager = plugin.getVisualizationManager();
+            if (visualizationManager != null) {
+                visualizationManager.onChunkLoad(event.getChunk());
+            }
+
+            HologramManager hologramManager = plugin.getHologramManager();
+            if (hologramManager != null) {
+                hologramManager.onChunkLoad(event.getChunk());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при загрузке чанка " + event.getChunk().getX() + "," +
+                    event.getChunk().getZ() + ": " + e.getMessage());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        try {
+            HologramManager hologramManager = plugin.getHologramManager();
+            if (hologramManager != null) {
+                hologramManager.onChunkUnload(event.getChunk());
+            }
+
+            VisualizationManager visualizationManager = plugin.getVisualizationManager();
+            if (visualizationManager != null) {
+                visualizationManager.onChunkUnload(event.getChunk());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при выгрузке чанка " + event.getChunk().getX() + "," +
+                    event.getChunk().getZ() + ": " + e.getMessage());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        try {
+            VisualizationManager visualizationManager = plugin.getVisualizationManager();
+            if (visualizationManager != null) {
+                visualizationManager.onWorldLoad(event.getWorld());
+            }
+
+            HologramManager hologramManager = plugin.getHologramManager();
+            if (hologramManager != null) {
+                hologramManager.onWorldLoad(event.getWorld());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при загрузке мира " + event.getWorld().getName() + ": " + e.getMessage());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        HologramManager hologramManager = plugin.getHologramManager();
+        if (hologramManager == null || event.getEntities().isEmpty()) {
+            return;
+        }
+
+        try {
+            hologramManager.onEntitiesLoad(event.getEntities());
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при проверке сущностей голограмм: " + e.getMessage());
+        }
+    }
+}
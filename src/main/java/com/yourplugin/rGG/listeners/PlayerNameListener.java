@@ -0,0 +1,29 @@
+package com.yourplugin.rGG.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+import com.yourplugin.rGG.managers.PlayerNameCache;
+
+/**
+ * Заполняет кэш имен игроков при входе на сервер
+ */
+public class PlayerNameListener implements Listener {
+
+    private final RGProtectPlugin plugin;
+
+    public PlayerNameListener(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        PlayerNameCache cache = plugin.getPlayerNameCache();
+        if (cache != null) {
+            cache.remember(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+        }
+    }
+}
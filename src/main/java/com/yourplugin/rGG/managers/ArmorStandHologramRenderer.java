@@ -0,0 +1,200 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Location;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Голограммы из невидимых ArmorStand: одна сущность на строку
+ */
+public class ArmorStandHologramRenderer implements HologramRenderer {
+
+    private static final double LINE_SPACING = 0.25;
+
+    private final RGProtectPlugin plugin;
+
+    public ArmorStandHologramRenderer(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String getType() {
+        return "armor_stand";
+    }
+
+    @Override
+    public RenderedHologram spawn(String regionId, Location location, List<String> lines) {
+        List<ArmorStand> stands = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            ArmorStand stand = spawnLine(location.clone().add(0, -i * LINE_SPACING, 0), lines.get(i));
+            if (stand != null) {
+                HologramRenderer.tag(plugin, stand, regionId, i);
+                stands.add(stand);
+            }
+        }
+
+        return stands.isEmpty() ? null : new ArmorStandHologram(stands);
+    }
+
+    /**
+     * Раскладывает найденные ArmorStand по меткам строк: на каждую строку остается одна стойка,
+     * дубликаты и стойки с неверным индексом удаляются, недостающие строки создаются
+     */
+    @Override
+    public RenderedHologram adopt(Location location, List<Entity> entities, List<String> lines) {
+        ArmorStand[] byLine = new ArmorStand[lines.size()];
+        String regionId = null;
+
+        for (Entity entity : entities) {
+            int line = HologramRenderer.getTaggedLine(plugin, entity);
+            if (entity instanceof ArmorStand && !entity.isDead() && line >= 0 && line < byLine.length && byLine[line] == null) {
+                byLine[line] = (ArmorStand) entity;
+                regionId = HologramRenderer.getTaggedRegion(plugin, entity);
+            } else if (!entity.isDead()) {
+                entity.remove();
+            }
+        }
+
+        if (regionId == null) {
+            return null;
+        }
+
+        List<ArmorStand> stands = new ArrayList<>();
+        for (int i = 0; i < byLine.length; i++) {
+            ArmorStand stand = byLine[i];
+            if (stand == null) {
+                stand = spawnLine(location.clone().add(0, -i * LINE_SPACING, 0), lines.get(i));
+                if (stand == null) {
+                    continue;
+                }
+                HologramRenderer.tag(plugin, stand, regionId, i);
+            } else {
+                stand.setCustomName(lines.get(i));
+                stand.setPersistent(false);
+            }
+            stands.add(stand);
+        }
+
+        return stands.isEmpty() ? null : new ArmorStandHologram(stands);
+    }
+
+    /**
+     * Создает одну строку голограммы
+     * @param location Позиция строки
+     * @param text Текст строки
+     * @return ArmorStand или null при ошибке
+     */
+    private ArmorStand spawnLine(Location location, String text) {
+        try {
+            if (location.getWorld() == null) {
+                plugin.getLogger().warning("Мир для голограммы равен null");
+                return null;
+            }
+
+            ArmorStand armorStand = (ArmorStand) location.getWorld().spawnEntity(location, EntityType.ARMOR_STAND);
+
+            // Настраиваем ArmorStand как голограмму
+            armorStand.setVisible(false);
+            armorStand.setGravity(false);
+            armorStand.setCanPickupItems(false);
+            armorStand.setCustomName(text);
+            armorStand.setCustomNameVisible(true);
+            armorStand.setInvulnerable(true);
+            armorStand.setMarker(true);
+            armorStand.setSmall(true);
+
+            // Убираем руки чтобы они не мешали
+            armorStand.setArms(false);
+            armorStand.setBasePlate(false);
+
+            return armorStand;
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Ошибка при создании строки голограммы: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static class ArmorStandHologram implements RenderedHologram {
+
+        private final List<ArmorStand> stands;
+
+        ArmorStandHologram(List<ArmorStand> stands) {
+            this.stands = stands;
+        }
+
+        @Override
+        public void setLine(int index, String text) {
+            if (index < 0 || index >= stands.size()) {
+                return;
+            }
+            ArmorStand stand = stands.get(index);
+            if (stand != null && !stand.isDead()) {
+                stand.setCustomName(text);
+            }
+        }
+
+        @Override
+        public int getLineCount() {
+            return stands.size();
+        }
+
+        @Override
+        public int getEntityCount() {
+            return stands.size();
+        }
+
+        @Override
+        public boolean isValid() {
+            for (ArmorStand stand : stands) {
+                if (stand == null || stand.isDead()) {
+                    return false;
+                }
+            }
+            return !stands.isEmpty();
+        }
+
+        @Override
+        public void setVisible(boolean visible) {
+            for (ArmorStand stand : stands) {
+                if (stand != null && !stand.isDead()) {
+                    stand.setCustomNameVisible(visible);
+                }
+            }
+        }
+
+        @Override
+        public boolean isVisible() {
+            ArmorStand first = stands.isEmpty() ? null : stands.get(0);
+            return first != null && !first.isDead() && first.isCustomNameVisible();
+        }
+
+        @Override
+        public boolean hasEntity(UUID entityId) {
+            for (ArmorStand stand : stands) {
+                if (stand != null && stand.getUniqueId().equals(entityId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void remove() {
+            for (ArmorStand stand : stands) {
+                if (stand != null && !stand.isDead()) {
+                    stand.remove();
+                }
+            }
+            stands.clear();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yourplugin.rGG.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Общая палитра состояний блоков: каждое различное BlockData хранится один раз,
+ * а оригинальные блоки границ ссылаются на него по индексу.
+ *
+ * Палитра только растет и ограничена числом различных состояний блоков на границах.
+ * Индексы действительны только до перезапуска - в хранилище пишутся строки состояний.
+ */
+public class BlockStatePalette {
+
+    private final List<BlockData> states = new ArrayList<>();
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * Индекс состояния блока, при необходимости добавляет его в палитру
+     */
+    public synchronized int indexOf(BlockData data) {
+        String key = data.getAsString();
+        Integer index = indices.get(key);
+        if (index == null) {
+            index = states.size();
+            states.add(data.clone());
+            indices.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Индекс состояния блока по строке вида minecraft:oak_stairs[facing=north,...]
+     * @return Индекс или -1 если состояние не распознано (например, блок удален в новой версии)
+     */
+    public synchronized int indexOf(String state) {
+        Integer index = indices.get(state);
+        if (index != null) {
+            return index;
+        }
+        try {
+            return indexOf(Bukkit.createBlockData(state));
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Состояние блока по индексу (копия - BlockData изменяемый)
+     */
+    public synchronized BlockData get(int index) {
+        return states.get(index).clone();
+    }
+
+    /**
+     * Строка состояния блока по индексу
+     */
+    public synchronized String getAsString(int index) {
+        return states.get(index).getAsString();
+    }
+
+    /**
+     * Количество различных состояний
+     */
+    public synchronized int size() {
+        return states.size();
+    }
+}
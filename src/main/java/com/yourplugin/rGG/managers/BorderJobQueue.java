@@ -0,0 +1,330 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Очередь записи блоков физических границ.
+ *
+ * Установка и восстановление границ не выполняются за один вызов: блоки задания
+ * сгруппированы по чанкам и записываются пачками (чанк за чанком), пока не исчерпан
+ * бюджет времени тика (visualization.physical-borders.jobs.tick-budget-us). За тик
+ * записывается хотя бы один чанк. Незавершенную установку границ региона можно отменить,
+ * например при изменении размера региона во время задания.
+ *
+ * Между поиском позиций и записью блок могут изменить (игрок, другой плагин). Такой блок
+ * не перезаписывается: задание установки сообщает пропущенные позиции, чтобы их убрали из оригиналов.
+ */
+public class BorderJobQueue {
+
+    private final RGProtectPlugin plugin;
+    private final long budgetNanos;
+
+    private final Deque<Job> jobs = new ArrayDeque<>();
+    // Мир -> позиция -> состояние, которое вернет еще не выполненное восстановление
+    private final Map<String, Map<Long, BlockData>> pendingRestores = new HashMap<>();
+
+    private final BukkitTask task;
+
+    public BorderJobQueue(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.budgetNanos = Math.max(1L, plugin.getConfig().getLong("visualization.physical-borders.jobs.tick-budget-us", 1000L)) * 1000L;
+
+        this.task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    tick();
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Ошибка в задаче записи границ: " + e.getMessage());
+                    if (plugin.getConfig().getBoolean("debug.log-stack-traces", false)) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Ставит в очередь установку блоков границы. Блок записывается, только если на его месте
+     * все еще ожидаемый оригинал (или уже блок границы)
+     * @param positions Упакованные позиции ({@link BorderOriginals#pack})
+     * @param expected Ожидаемый тип блока для positions[i]
+     * @param data Блок границы
+     * @param onSkipped Получает позиции, где блок изменился и граница не поставлена (может быть null)
+     */
+    public void submitPlace(String regionId, World world, long[] positions, Material[] expected, BlockData data,
+                            Consumer<long[]> onSkipped) {
+        BlockData[] states = new BlockData[positions.length];
+        Arrays.fill(states, data);
+        Job job = new Job(regionId, false, world.getName(), positions, states, expected, data.getMaterial(), null);
+        job.onSkipped = onSkipped;
+        enqueue(job);
+    }
+
+    /**
+     * Ставит в очередь восстановление оригинальных блоков. Блок восстанавливается,
+     * только если на его месте все еще блок границы
+     * @param borderMaterial Материал границы
+     * @param onComplete Вызывается после восстановления всех блоков (может быть null)
+     */
+    public void submitRestore(String regionId, BorderOriginals originals, Material borderMaterial, Runnable onComplete) {
+        long[] positions = new long[originals.size()];
+        BlockData[] states = new BlockData[originals.size()];
+        for (int i = 0; i < originals.size(); i++) {
+            positions[i] = originals.getPosition(i);
+            states[i] = originals.getBlockData(i);
+        }
+
+        Job job = new Job(regionId, true, originals.getWorldName(), positions, states, null, borderMaterial, onComplete);
+        Map<Long, BlockData> worldRestores = pendingRestores.computeIfAbsent(job.worldName, k -> new HashMap<>());
+        for (int i = 0; i < job.positions.length; i++) {
+            worldRestores.put(job.positions[i], job.states[i]);
+        }
+        enqueue(job);
+    }
+
+    /**
+     * Состояние, которое вернет еще не выполненное восстановление в этой позиции.
+     * Новая граница должна считать его оригиналом, а не блок прежней границы
+     * @return Состояние или null, если восстановление в этой позиции не ожидается
+     */
+    public BlockData getPendingRestore(String worldName, long position) {
+        Map<Long, BlockData> worldRestores = pendingRestores.get(worldName);
+        BlockData data = worldRestores != null ? worldRestores.get(position) : null;
+        return data != null ? data.clone() : null;
+    }
+
+    /**
+     * Типы блоков, которые вернут еще не выполненные восстановления в указанных чанках.
+     * Поиск новой границы должен видеть эти блоки, а не блоки прежней границы
+     * @param chunkKeys Ключи чанков
+     * @return Позиция -> тип блока
+     */
+    public Map<Long, Material> getPendingRestoreTypes(String worldName, Set<Long> chunkKeys) {
+        Map<Long, Material> types = new HashMap<>();
+        Map<Long, BlockData> worldRestores = pendingRestores.get(worldName);
+        if (worldRestores == null) {
+            return types;
+        }
+        for (Map.Entry<Long, BlockData> entry : worldRestores.entrySet()) {
+            if (chunkKeys.contains(chunkOf(entry.getKey()))) {
+                types.put(entry.getKey(), entry.getValue().getMaterial());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Отменяет незавершенную установку границ региона (восстановление не отменяется)
+     */
+    public void cancel(String regionId) {
+        for (Job job : jobs) {
+            if (!job.restore && job.regionId.equals(regionId)) {
+                job.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Количество блоков, ожидающих записи
+     */
+    public int getPendingBlocks() {
+        int pending = 0;
+        for (Job job : jobs) {
+            if (!job.cancelled) {
+                pending += job.positions.length - job.cursor;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Выполняет все задания без ограничения по времени и останавливает очередь
+     */
+    public void shutdown() {
+        task.cancel();
+        while (!jobs.isEmpty()) {
+            Job job = jobs.peek();
+            while (!job.cancelled && job.cursor < job.positions.length) {
+                applyChunkBatch(job);
+            }
+            finish(jobs.poll());
+        }
+        pendingRestores.clear();
+    }
+
+    private void enqueue(Job job) {
+        if (job.positions.length == 0) {
+            if (job.onComplete != null) {
+                job.onComplete.run();
+            }
+            return;
+        }
+        jobs.add(job);
+    }
+
+    private void tick() {
+        long deadline = System.nanoTime() + budgetNanos;
+        while (!jobs.isEmpty()) {
+            Job job = jobs.peek();
+            if (job.cancelled || job.cursor >= job.positions.length) {
+                finish(jobs.poll());
+                continue;
+            }
+
+            applyChunkBatch(job);
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Записывает блоки задания, лежащие в очередном чанке
+     */
+    private void applyChunkBatch(Job job) {
+        World world = plugin.getServer().getWorld(job.worldName);
+        if (world == null) {
+            plugin.getLogger().warning("Мир " + job.worldName + " для границ региона " + job.regionId + " не загружен");
+            job.cancelled = true;
+            return;
+        }
+
+        long chunk = chunkOf(job.positions[job.cursor]);
+        Map<Long, BlockData> worldRestores = job.restore ? pendingRestores.get(job.worldName) : null;
+
+        while (job.cursor < job.positions.length && chunkOf(job.positions[job.cursor]) == chunk) {
+            int index = job.cursor++;
+            long position = job.positions[index];
+            BlockData data = job.states[index];
+
+            try {
+                Block block = world.getBlockAt(BorderOriginals.unpackX(position), BorderOriginals.unpackY(position),
+                        BorderOriginals.unpackZ(position));
+                if (job.restore) {
+                    if (worldRestores != null) {
+                        worldRestores.remove(position, data);
+                    }
+                    // Проверяем что блок все еще является границей
+                    if (block.getType() == job.borderMaterial) {
+                        block.setBlockData(data, false);
+                    }
+                } else {
+                    Material current = block.getType();
+                    if (current == job.expected[index] || current == job.borderMaterial) {
+                        block.setBlockData(data);
+                    } else {
+                        job.skip(position);
+                    }
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при записи блока границы региона " + job.regionId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void finish(Job job) {
+        if (!job.restore) {
+            if (job.skippedCount > 0 && job.onSkipped != null && !job.cancelled) {
+                try {
+                    job.onSkipped.accept(Arrays.copyOf(job.skipped, job.skippedCount));
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Ошибка при обновлении оригиналов границ региона " + job.regionId + ": " + e.getMessage());
+                }
+            }
+            return;
+        }
+
+        // Позиции, которые не были записаны (мир выгружен), больше не ожидают восстановления
+        Map<Long, BlockData> worldRestores = pendingRestores.get(job.worldName);
+        if (worldRestores != null) {
+            for (int i = job.cursor; i < job.positions.length; i++) {
+                worldRestores.remove(job.positions[i], job.states[i]);
+            }
+            if (worldRestores.isEmpty()) {
+                pendingRestores.remove(job.worldName);
+            }
+        }
+        if (job.onComplete != null && !job.cancelled) {
+            try {
+                job.onComplete.run();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при завершении восстановления границ региона " + job.regionId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static long chunkOf(long position) {
+        return ((long) (BorderOriginals.unpackX(position) >> 4) << 32) | ((BorderOriginals.unpackZ(position) >> 4) & 0xFFFFFFFFL);
+    }
+
+    private static final class Job {
+
+        private final String regionId;
+        private final boolean restore;
+        private final String worldName;
+        // Позиции отсортированы по чанкам, states[i] - состояние для positions[i]
+        private final long[] positions;
+        private final BlockData[] states;
+        // Только для установки: ожидаемый тип блока для positions[i]
+        private final Material[] expected;
+        private final Material borderMaterial;
+        private final Runnable onComplete;
+        private Consumer<long[]> onSkipped;
+        private long[] skipped;
+        private int skippedCount;
+        private int cursor;
+        private boolean cancelled;
+
+        Job(String regionId, boolean restore, String worldName, long[] positions, BlockData[] states,
+            Material[] expected, Material borderMaterial, Runnable onComplete) {
+            this.regionId = regionId;
+            this.restore = restore;
+            this.worldName = worldName;
+            this.borderMaterial = borderMaterial;
+            this.onComplete = onComplete;
+
+            // Сортировка по чанкам, чтобы запись шла пачками по одному чанку
+            Integer[] order = new Integer[positions.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(chunkOf(positions[a]), chunkOf(positions[b])));
+
+            this.positions = new long[positions.length];
+            this.states = new BlockData[positions.length];
+            this.expected = expected != null ? new Material[positions.length] : null;
+            for (int i = 0; i < order.length; i++) {
+                this.positions[i] = positions[order[i]];
+                this.states[i] = states[order[i]];
+                if (expected != null) {
+                    this.expected[i] = expected[order[i]];
+                }
+            }
+        }
+
+        void skip(long position) {
+            if (skipped == null) {
+                skipped = new long[16];
+            } else if (skippedCount == skipped.length) {
+                skipped = Arrays.copyOf(skipped, skippedCount * 2);
+            }
+            skipped[skippedCount++] = position;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.yourplugin.rGG.managers;
+
+import org.bukkit.block.data.BlockData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Оригинальные блоки физических границ одного региона.
+ *
+ * Позиции хранятся упакованными в long (отсортированный массив), состояния - индексами
+ * в общей {@link BlockStatePalette}. Сохраняется полное BlockData, поэтому плиты, ступени,
+ * слои снега и заполненность водой восстанавливаются точно. Для хранилища данные
+ * кодируются в сжатый двоичный вид (Base64): позиции и локальная палитра строк состояний.
+ *
+ * Объект неизменяем.
+ */
+public final class BorderOriginals {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final String worldName;
+    private final long[] positions;
+    private final int[] states;
+    private final BlockStatePalette palette;
+
+    private BorderOriginals(String worldName, long[] positions, int[] states, BlockStatePalette palette) {
+        this.worldName = worldName;
+        this.positions = positions;
+        this.states = states;
+        this.palette = palette;
+    }
+
+    /**
+     * Упаковывает координаты блока в long (x и z по 26 бит, y 12 бит)
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    public static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    public static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    /**
+     * Упакованная позиция i-го блока
+     */
+    public long getPosition(int i) {
+        return positions[i];
+    }
+
+    /**
+     * Оригинальное состояние i-го блока
+     */
+    public BlockData getBlockData(int i) {
+        return palette.get(states[i]);
+    }
+
+    /**
+     * Есть ли в границе блок с такими координатами
+     */
+    public boolean contains(int x, int y, int z) {
+        return Arrays.binarySearch(positions, pack(x, y, z)) >= 0;
+    }
+
+    /**
+     * Копия без указанных позиций (например, блоков, измененных до установки границы)
+     * @param removed Упакованные позиции
+     */
+    public BorderOriginals without(long[] removed) {
+        long[] sortedRemoved = removed.clone();
+        Arrays.sort(sortedRemoved);
+
+        long[] keptPositions = new long[positions.length];
+        int[] keptStates = new int[states.length];
+        int kept = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (Arrays.binarySearch(sortedRemoved, positions[i]) < 0) {
+                keptPositions[kept] = positions[i];
+                keptStates[kept] = states[i];
+                kept++;
+            }
+        }
+        return new BorderOriginals(worldName, Arrays.copyOf(keptPositions, kept), Arrays.copyOf(keptStates, kept), palette);
+    }
+
+    /**
+     * Ключи чанков, в которых лежат блоки границы
+     */
+    public Set<Long> getChunkKeys() {
+        Set<Long> chunks = new HashSet<>();
+        for (long position : positions) {
+            chunks.add(((long) (unpackX(position) >> 4) << 32) | ((unpackZ(position) >> 4) & 0xFFFFFFFFL));
+        }
+        return chunks;
+    }
+
+    /**
+     * Кодирует блоки в сжатый двоичный вид для хранилища
+     */
+    public String encode() throws IOException {
+        // Локальная палитра: индексы общей палитры не переживают перезапуск
+        Map<Integer, Integer> local = new HashMap<>();
+        int[] localStates = new int[states.length];
+        for (int i = 0; i < states.length; i++) {
+            Integer index = local.get(states[i]);
+            if (index == null) {
+                index = local.size();
+                local.put(states[i], index);
+            }
+            localStates[i] = index;
+        }
+        String[] localPalette = new String[local.size()];
+        for (Map.Entry<Integer, Integer> entry : local.entrySet()) {
+            localPalette[entry.getValue()] = palette.getAsString(entry.getKey());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(localPalette.length);
+            for (String state : localPalette) {
+                out.writeUTF(state);
+            }
+            out.writeInt(positions.length);
+            long previous = 0;
+            for (int i = 0; i < positions.length; i++) {
+                // Позиции отсортированы - разности небольшие и хорошо сжимаются
+                out.writeLong(positions[i] - previous);
+                previous = positions[i];
+                out.writeInt(localStates[i]);
+            }
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Разбирает блоки, закодированные {@link #encode()}
+     * @throws IOException Данные повреждены или неизвестной версии
+     */
+    public static BorderOriginals decode(String worldName, String encoded, BlockStatePalette palette) throws IOException {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("некорректный Base64");
+        }
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("неизвестная версия формата " + version);
+            }
+
+            int paletteSize = in.readInt();
+            int[] globalIndex = new int[paletteSize];
+            for (int i = 0; i < paletteSize; i++) {
+                globalIndex[i] = palette.indexOf(in.readUTF());
+            }
+
+            int count = in.readInt();
+            Builder builder = new Builder(worldName, palette);
+            long position = 0;
+            for (int i = 0; i < count; i++) {
+                position += in.readLong();
+                int state = in.readInt();
+                // Нераспознанные состояния пропускаются - такие блоки не восстанавливаются
+                if (state >= 0 && state < paletteSize && globalIndex[state] >= 0) {
+                    builder.add(position, globalIndex[state]);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Сборка оригинальных блоков границы
+     */
+    public static final class Builder {
+
+        private final String worldName;
+        private final BlockStatePalette palette;
+        private final Map<Long, Integer> blocks = new HashMap<>();
+
+        public Builder(String worldName, BlockStatePalette palette) {
+            this.worldName = worldName;
+            this.palette = palette;
+        }
+
+        public Builder add(int x, int y, int z, BlockData data) {
+            blocks.put(pack(x, y, z), palette.indexOf(data));
+            return this;
+        }
+
+        private void add(long position, int state) {
+            blocks.put(position, state);
+        }
+
+        public BorderOriginals build() {
+            long[] positions = new long[blocks.size()];
+            int i = 0;
+            for (long position : blocks.keySet()) {
+                positions[i++] = position;
+            }
+            Arrays.sort(positions);
+
+            int[] states = new int[positions.length];
+            for (i = 0; i < positions.length; i++) {
+                states[i] = blocks.get(positions[i]);
+            }
+            return new BorderOriginals(worldName, positions, states, palette);
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Поиск позиций блоков границы по снимкам чанков.
+ *
+ * В основном потоке снимаются ChunkSnapshot (с картой высот) только тех чанков, через
+ * которые проходит периметр региона, и читаются настройки. Сам поиск земли и видимости
+ * выполняется в асинхронном потоке по снимкам, в основной поток возвращаются только
+ * итоговые позиции (упакованные {@link BorderOriginals#pack}).
+ *
+ * Поверх снимков накладываются блоки, которые вернут еще не выполненные восстановления
+ * прежней границы: иначе при пересоздании границ в том же тике поиск встанет на старую шерсть.
+ */
+public class BorderPlacementSearch {
+
+    private final RGProtectPlugin plugin;
+    private final Map<Long, ChunkSnapshot> snapshots;
+    // Упакованная позиция -> тип блока после ожидающего восстановления
+    private final Map<Long, Material> overlay;
+    // Колонны (x, z), в которых есть наложенные блоки
+    private final Set<Long> overlayColumns = new HashSet<>();
+    private final int minHeight;
+    private final int maxHeight;
+
+    // Настройки читаются в основном потоке
+    private final String strategy;
+    private final int maxDepthSearch;
+    private final int maxHeightSearch;
+    private final int visibilityHeightSearch;
+    private final boolean replaceVegetation;
+    private final boolean logPlacement;
+    private final boolean verboseSearch;
+
+    private BorderPlacementSearch(RGProtectPlugin plugin, World world, Map<Long, ChunkSnapshot> snapshots,
+                                  Map<Long, Material> overlay) {
+        this.plugin = plugin;
+        this.snapshots = snapshots;
+        this.overlay = overlay;
+        for (long position : overlay.keySet()) {
+            overlayColumns.add(chunkKey(BorderOriginals.unpackX(position), BorderOriginals.unpackZ(position)));
+        }
+        this.minHeight = world.getMinHeight();
+        this.maxHeight = world.getMaxHeight();
+
+        this.strategy = plugin.getConfig().getString("visualization.physical-borders.placement.strategy", "surface_contact");
+        this.maxDepthSearch = plugin.getConfig().getInt("visualization.physical-borders.placement.max_depth_search", 20);
+        this.maxHeightSearch = plugin.getConfig().getInt("visualization.physical-borders.placement.max_height_search", 10);
+        this.visibilityHeightSearch = plugin.getConfig().getInt("visualization.physical-borders.placement.max_height_search", 20);
+        this.replaceVegetation = plugin.getConfig().getBoolean("visualization.physical-borders.placement.replace_vegetation", true);
+        this.logPlacement = plugin.getConfig().getBoolean("debug.log-border-placement", false);
+        this.verboseSearch = plugin.getConfig().getBoolean("debug.verbose-border-search", false);
+    }
+
+    /**
+     * Снимает чанки периметра региона (и центральной колонны, если нужен поиск блока привата).
+     * Вызывается в основном потоке
+     * @param borderJobs Очередь записи границ: ожидающие восстановления накладываются на снимки
+     */
+    public static BorderPlacementSearch capture(RGProtectPlugin plugin, World world, int minX, int maxX, int minZ, int maxZ,
+                                                boolean includeCenter, BorderJobQueue borderJobs) {
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            snapshot(world, snapshots, chunkX, minZ >> 4);
+            snapshot(world, snapshots, chunkX, maxZ >> 4);
+        }
+        for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+            snapshot(world, snapshots, minX >> 4, chunkZ);
+            snapshot(world, snapshots, maxX >> 4, chunkZ);
+        }
+        if (includeCenter) {
+            snapshot(world, snapshots, ((minX + maxX) / 2) >> 4, ((minZ + maxZ) / 2) >> 4);
+        }
+        return new BorderPlacementSearch(plugin, world, snapshots,
+                borderJobs.getPendingRestoreTypes(world.getName(), snapshots.keySet()));
+    }
+
+    private static void snapshot(World world, Map<Long, ChunkSnapshot> snapshots, int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        if (!snapshots.containsKey(key)) {
+            snapshots.put(key, world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false));
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    private Material getType(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) {
+            return Material.VOID_AIR;
+        }
+        if (!overlay.isEmpty()) {
+            Material pending = overlay.get(BorderOriginals.pack(x, y, z));
+            if (pending != null) {
+                return pending;
+            }
+        }
+        ChunkSnapshot snapshot = snapshots.get(chunkKey(x >> 4, z >> 4));
+        return snapshot != null ? snapshot.getBlockType(x & 15, y, z & 15) : Material.VOID_AIR;
+    }
+
+    private int getHighestBlockYAt(int x, int z) {
+        ChunkSnapshot snapshot = snapshots.get(chunkKey(x >> 4, z >> 4));
+        if (snapshot == null) {
+            return minHeight;
+        }
+        int y = snapshot.getHighestBlockYAt(x & 15, z & 15);
+        // Карта высот учитывает блоки прежней границы - опускаемся до блока, который останется после восстановления
+        if (overlayColumns.contains(chunkKey(x, z))) {
+            while (y > minHeight && getType(x, y, z).isAir()) {
+                y--;
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Ищет блок привата в центральной колонне региона
+     * @return Y блока привата или -1
+     */
+    public int findPrivateBlockY(int centerX, int centerZ, String regionId, Material protectMaterial) {
+        plugin.getLogger().info("DEBUG FIND PRIVATE: Ищем блок привата (" + protectMaterial + ") в центральной колонне X=" + centerX + " Z=" + centerZ);
+
+        // Ищем блок привата от поверхности земли вниз до бедрока
+        int highestY = getHighestBlockYAt(centerX, centerZ);
+
+        // Начинаем поиск с поверхности и идем вниз
+        for (int y = highestY; y >= minHeight; y--) {
+            if (getType(centerX, y, centerZ) == protectMaterial) {
+                plugin.getLogger().info("DEBUG FIND PRIVATE: ✅ Найден блок привата в Y=" + y);
+                return y;
+            }
+        }
+
+        // Если не нашли вниз, ищем вверх от поверхности
+        for (int y = highestY + 1; y <= maxHeight - 1; y++) {
+            if (getType(centerX, y, centerZ) == protectMaterial) {
+                plugin.getLogger().info("DEBUG FIND PRIVATE: ✅ Найден блок привата в Y=" + y + " (выше поверхности)");
+                return y;
+            }
+        }
+
+        plugin.getLogger().warning("DEBUG FIND PRIVATE: ❌ Блок привата не найден в центральной колонне региона " + regionId);
+        return -1;
+    }
+
+    /**
+     * Поверхность земли в колонне (по карте высот снимка)
+     */
+    public int getSurfaceY(int x, int z) {
+        return getHighestBlockYAt(x, z);
+    }
+
+    /**
+     * Позиции блоков границы по стратегии размещения
+     */
+    public Set<Long> findBorderPositions(int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        if ("visibility_based".equals(strategy)) {
+            // Размещение с приоритетом видимости НО с проверкой земли
+            return getBorderLocationsWithVisibilityButOnGround(minX, maxX, minZ, maxZ, (minY + maxY) / 2);
+        }
+        if ("below_center".equals(strategy)) {
+            // Создаем границы на уровне центра региона
+            int centerY = (minY + maxY) / 2;
+            if (logPlacement) {
+                plugin.getLogger().info("DEBUG: Центральный уровень Y для границ: " + centerY);
+            }
+            return generateSimpleBorderLocations(minX, maxX, minZ, maxZ, centerY);
+        }
+        // используем поиск земли
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG: Используется умная стратегия размещения");
+        }
+        return getBorderLocationsWithSmartPlacement(minX, maxX, minY, maxY, minZ, maxZ);
+    }
+
+    /**
+     * Генерация позиций границ с приоритетом видимости НО с проверкой земли
+     */
+    private Set<Long> getBorderLocationsWithVisibilityButOnGround(int minX, int maxX, int minZ, int maxZ, int centerY) {
+        Set<Long> locations = new LinkedHashSet<>();
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG VISIBILITY: Генерация видимых границ с проверкой земли для центра Y=" + centerY);
+        }
+
+        // Северная и южная стороны
+        for (int x = minX; x <= maxX; x++) {
+            locations.add(findVisibleBorderLocationWithGroundCheck(x, centerY, minZ));
+            locations.add(findVisibleBorderLocationWithGroundCheck(x, centerY, maxZ));
+        }
+
+        // Западная и восточная стороны, исключаем углы
+        for (int z = minZ + 1; z < maxZ; z++) {
+            locations.add(findVisibleBorderLocationWithGroundCheck(minX, centerY, z));
+            locations.add(findVisibleBorderLocationWithGroundCheck(maxX, centerY, z));
+        }
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG VISIBILITY: Итого найдено " + locations.size() + " позиций с проверкой земли");
+        }
+
+        return locations;
+    }
+
+    /**
+     * Поиск видимой позиции для границы с проверкой земли
+     */
+    private long findVisibleBorderLocationWithGroundCheck(int x, int centerY, int z) {
+        // ПРИОРИТЕТ 1: Пробуем на 1 блок ниже центра
+        int preferredY = centerY - 1;
+
+        if (verboseSearch) {
+            plugin.getLogger().info("DEBUG VISIBILITY: Проверяем приоритетную позицию X=" + x + " Y=" + preferredY + " Z=" + z);
+        }
+
+        // Проверяем что под блоком есть земля
+        if (isBorderVisible(x, preferredY, z) && isSolidBlock(getType(x, preferredY - 1, z))) {
+            if (verboseSearch) {
+                plugin.getLogger().info("DEBUG VISIBILITY: ✅ Позиция видима И НА ЗЕМЛЕ, размещаем в Y=" + preferredY);
+            }
+            return BorderOriginals.pack(x, preferredY, z);
+        }
+
+        // ПРИОРИТЕТ 2: Ищем ближайшую позицию НА ЗЕМЛЕ
+        // Сначала ищем вниз - ближе к земле
+        for (int y = preferredY - 1; y >= Math.max(centerY - visibilityHeightSearch, minHeight); y--) {
+            if (isSolidBlock(getType(x, y, z))) {
+                if (verboseSearch) {
+                    plugin.getLogger().info("DEBUG VISIBILITY: ✅ Найдена земля НИЖЕ в Y=" + y + ", размещаем границу в Y=" + (y + 1));
+                }
+                return BorderOriginals.pack(x, y + 1, z);
+            }
+        }
+
+        // Потом ищем вверх
+        for (int y = centerY; y <= Math.min(centerY + visibilityHeightSearch, maxHeight - 1); y++) {
+            if (isSolidBlock(getType(x, y, z))) {
+                if (verboseSearch) {
+                    plugin.getLogger().info("DEBUG VISIBILITY: ✅ Найдена земля ВЫШЕ в Y=" + y + ", размещаем границу в Y=" + (y + 1));
+                }
+                return BorderOriginals.pack(x, y + 1, z);
+            }
+        }
+
+        // КРАЙНИЙ СЛУЧАЙ: Используем оригинальную позицию
+        if (verboseSearch) {
+            plugin.getLogger().warning("DEBUG VISIBILITY: ⚠️ Не найдена земля, используем оригинальную позицию Y=" + centerY);
+        }
+        return BorderOriginals.pack(x, centerY, z);
+    }
+
+    /**
+     * Проверка видимости блока границы
+     */
+    private boolean isBorderVisible(int x, int y, int z) {
+        Material borderBlock = getType(x, y, z);
+        Material blockAbove = getType(x, y + 1, z);
+
+        // Проверяем, что позиция для границы подходящая (воздух или заменяемая растительность)
+        boolean canPlaceBorder = isAirOrReplaceable(borderBlock) || isReplaceableVegetation(borderBlock);
+
+        // Проверяем, что блок будет виден (над ним воздух или прозрачный блок)
+        boolean isVisible = isTransparentOrAir(blockAbove);
+
+        if (verboseSearch) {
+            plugin.getLogger().info("DEBUG VISIBILITY: Y=" + y + " можно разместить=" + canPlaceBorder + " видимо=" + isVisible + " (блок: " + borderBlock + ", сверху: " + blockAbove + ")");
+        }
+
+        return canPlaceBorder && isVisible;
+    }
+
+    /**
+     * ПРОСТОЙ метод генерации позиций границ - прямоугольник на одном уровне
+     */
+    private Set<Long> generateSimpleBorderLocations(int minX, int maxX, int minZ, int maxZ, int y) {
+        Set<Long> locations = new LinkedHashSet<>();
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG: Генерация простых границ на уровне Y=" + y);
+            plugin.getLogger().info("DEBUG: Прямоугольник от X=" + minX + " до X=" + maxX + ", от Z=" + minZ + " до Z=" + maxZ);
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            locations.add(BorderOriginals.pack(x, y, minZ));
+            locations.add(BorderOriginals.pack(x, y, maxZ));
+        }
+        for (int z = minZ + 1; z < maxZ; z++) {
+            locations.add(BorderOriginals.pack(minX, y, z));
+            locations.add(BorderOriginals.pack(maxX, y, z));
+        }
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG: Итого сгенерировано " + locations.size() + " позиций границ");
+        }
+        return locations;
+    }
+
+    /**
+     * УМНЫЙ метод генерации позиций границ с поиском земли
+     */
+    private Set<Long> getBorderLocationsWithSmartPlacement(int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        Set<Long> locations = new LinkedHashSet<>();
+
+        // Получаем координаты центрального блока
+        int centerX = (minX + maxX) / 2;
+        int centerY = (minY + maxY) / 2;
+        int centerZ = (minZ + maxZ) / 2;
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG BORDERS: Центральный блок (блок привата): " + centerX + "," + centerY + "," + centerZ);
+            plugin.getLogger().info("DEBUG BORDERS: Умное размещение границ: приоритет Y=" + (centerY - 1) + ", резерв - поиск земли");
+        }
+
+        // Северная и южная стороны (по оси Z)
+        for (int x = minX; x <= maxX; x++) {
+            locations.add(findOptimalBorderLocation(x, centerY, minZ));
+            locations.add(findOptimalBorderLocation(x, centerY, maxZ));
+        }
+
+        // Западная и восточная стороны (по оси X), исключаем углы
+        for (int z = minZ + 1; z < maxZ; z++) {
+            locations.add(findOptimalBorderLocation(minX, centerY, z));
+            locations.add(findOptimalBorderLocation(maxX, centerY, z));
+        }
+
+        if (logPlacement) {
+            plugin.getLogger().info("DEBUG BORDERS: Подготовлено " + locations.size() + " позиций для умного размещения границ");
+        }
+
+        return locations;
+    }
+
+    private long findOptimalBorderLocation(int x, int centerY, int z) {
+        if (verboseSearch) {
+            plugin.getLogger().info("DEBUG BORDERS: Поиск позиции для границы в X=" + x + " Z=" + z + " центр на Y=" + centerY);
+        }
+
+        if ("below_center".equals(strategy)) {
+            // Простая стратегия - всегда на 1 блок ниже центра
+            return BorderOriginals.pack(x, centerY - 1, z);
+        }
+
+        // Умная стратегия - всегда на земле
+        return findGroundBasedBorderLocation(x, centerY, z);
+    }
+
+    /**
+     * УМНЫЙ метод для размещения границ с гарантией контакта с землей
+     */
+    private long findGroundBasedBorderLocation(int x, int centerY, int z) {
+        // ПРИОРИТЕТ 1: Пытаемся поставить на 1 блок ниже центра (если есть опора)
+        int preferredY = centerY - 1;
+        Material preferredBlock = getType(x, preferredY, z);
+        Material belowPreferred = getType(x, preferredY - 1, z);
+
+        if (verboseSearch) {
+            plugin.getLogger().info("DEBUG BORDERS: Приоритет 1 - проверяем Y=" + preferredY + " тип: " + preferredBlock + ", снизу: " + belowPreferred);
+        }
+
+        // Если позиция подходит И есть опора снизу
+        if (canHoldBorder(preferredBlock) && isSolidBlock(belowPreferred)) {
+            if (verboseSearch) {
+                plugin.getLogger().info("DEBUG BORDERS: ✅ Приоритет 1 - размещаем в Y=" + preferredY + " (есть опора снизу)");
+            }
+            return BorderOriginals.pack(x, preferredY, z);
+        }
+
+        // ПРИОРИТЕТ 2: Ищем ближайшую твердую поверхность (сначала вниз, потом вверх)
+        for (int y = preferredY - 1; y >= Math.max(preferredY - maxDepthSearch, minHeight); y--) {
+            // Если найден твердый блок (земля) И сверху можно поставить границу
+            if (isSolidBlock(getType(x, y, z)) && canHoldBorder(getType(x, y + 1, z))) {
+                if (verboseSearch) {
+                    plugin.getLogger().info("DEBUG BORDERS: ✅ Найдена поверхность земли в Y=" + y + ", размещаем границу в Y=" + (y + 1));
+                }
+                return BorderOriginals.pack(x, y + 1, z);
+            }
+        }
+
+        for (int y = preferredY; y <= Math.min(centerY + maxHeightSearch, maxHeight - 1); y++) {
+            if (isSolidBlock(getType(x, y, z)) && canHoldBorder(getType(x, y + 1, z))) {
+                if (verboseSearch) {
+                    plugin.getLogger().info("DEBUG BORDERS: ✅ Найдена поверхность земли в Y=" + y + ", размещаем границу в Y=" + (y + 1));
+                }
+                return BorderOriginals.pack(x, y + 1, z);
+            }
+        }
+
+        // КРАЙНИЙ СЛУЧАЙ: Расширенный поиск вниз до бедрока
+        for (int y = preferredY - maxDepthSearch - 1; y >= minHeight; y--) {
+            if (isSolidBlock(getType(x, y, z))) {
+                if (verboseSearch) {
+                    plugin.getLogger().info("DEBUG BORDERS: ✅ Расширенный поиск - найдена поверхность в Y=" + y + ", размещаем границу в Y=" + (y + 1));
+                }
+                return BorderOriginals.pack(x, y + 1, z);
+            }
+        }
+
+        // КРИТИЧЕСКИЙ СЛУЧАЙ: Если вообще ничего не найдено, ставим на уровне мира
+        int emergencyY = getHighestBlockYAt(x, z) + 1;
+        if (verboseSearch) {
+            plugin.getLogger().warning("DEBUG BORDERS: ⚠️ КРИТИЧЕСКИЙ СЛУЧАЙ - используем высшую точку мира Y=" + emergencyY);
+        }
+        return BorderOriginals.pack(x, emergencyY, z);
+    }
+
+    private boolean canHoldBorder(Material type) {
+        return isAirOrReplaceable(type) || (replaceVegetation && isReplaceableVegetation(type));
+    }
+
+    // ===== КЛАССИФИКАЦИЯ БЛОКОВ (по материалу, безопасно вне основного потока) =====
+
+    /**
+     * Проверка прозрачности блока
+     */
+    static boolean isTransparentOrAir(Material type) {
+        // Воздух и жидкости - прозрачные
+        if (type == Material.AIR ||
+                type == Material.CAVE_AIR ||
+                type == Material.VOID_AIR ||
+                type == Material.WATER ||
+                type == Material.LAVA) {
+            return true;
+        }
+
+        // Растения и нетвердые блоки - прозрачные
+        if (isVegetation(type) ||
+                isGrass(type) ||
+                isFlower(type) ||
+                type.toString().contains("GLASS") ||
+                type.toString().contains("LEAVES") ||
+                type == Material.SNOW ||
+                type == Material.TORCH ||
+                type == Material.REDSTONE_TORCH ||
+                type == Material.LEVER ||
+                type == Material.STONE_BUTTON ||
+                type == Material.OAK_BUTTON ||
+                type == Material.TRIPWIRE_HOOK ||
+                type == Material.STRING) {
+            return true;
+        }
+
+        // Дополнительные прозрачные блоки
+        String typeName = type.toString();
+        return typeName.contains("SIGN") ||
+                typeName.contains("BANNER") ||
+                typeName.contains("CARPET") ||
+                typeName.contains("PRESSURE_PLATE") ||
+                typeName.contains("RAIL") ||
+                typeName.equals("LADDER") ||
+                typeName.equals("VINE") ||
+                typeName.equals("COBWEB") ||
+                typeName.equals("BARRIER");
+    }
+
+    /**
+     * Метод для определения цветов и декоративных растений
+     */
+    static boolean isFlower(Material type) {
+        String typeName = type.toString();
+
+        // Прямые проверки для известных цветов
+        if (typeName.equals("DANDELION") ||
+                typeName.equals("POPPY") ||
+                typeName.equals("BLUE_ORCHID") ||
+                typeName.equals("ALLIUM") ||
+                typeName.equals("AZURE_BLUET") ||
+                typeName.equals("OXEYE_DAISY") ||
+                typeName.equals("CORNFLOWER") ||
+                typeName.equals("LILY_OF_THE_VALLEY")) {
+            return true;
+        }
+
+        // Проверки по строковому названию для совместимости
+        return typeName.contains("FLOWER") ||
+                typeName.contains("TULIP") ||
+                typeName.contains("ROSE") ||
+                typeName.contains("ORCHID") ||
+                typeName.equals("SUNFLOWER") ||
+                typeName.equals("LILAC") ||
+                typeName.equals("PEONY") ||
+                typeName.equals("ROSE_BUSH") ||
+                // Дополнительные декоративные растения
+                typeName.contains("MUSHROOM") ||
+                typeName.equals("BROWN_MUSHROOM") ||
+                typeName.equals("RED_MUSHROOM");
+    }
+
+    /**
+     * Универсальный метод для определения всей заменяемой растительности
+     */
+    static boolean isReplaceableVegetation(Material type) {
+        return isGrass(type) || isFlower(type) || isVegetation(type);
+    }
+
+    /**
+     * Метод для определения травы
+     */
+    static boolean isGrass(Material type) {
+        String typeName = type.toString();
+
+        // Основные проверки для травы
+        if (type == Material.TALL_GRASS) {
+            return true;
+        }
+
+        // Проверяем по строковому названию для совместимости с разными версиями
+        if (typeName.equals("GRASS") ||           // Для старых версий
+                typeName.equals("SHORT_GRASS")) {     // Для новых версий Minecraft 1.20+
+            return true;
+        }
+
+        // Дополнительная проверка для случаев, когда материал называется по-другому
+        return typeName.contains("GRASS") &&
+                !typeName.contains("BLOCK") &&
+                !typeName.contains("PATH") &&
+                !typeName.contains("STAINED");
+    }
+
+    /**
+     * Метод для определения растительности
+     */
+    static boolean isVegetation(Material type) {
+        String typeName = type.toString();
+
+        // Прямые проверки для известных материалов
+        if (type == Material.FERN ||
+                type == Material.LARGE_FERN ||
+                type == Material.DEAD_BUSH ||
+                type == Material.SEAGRASS ||
+                type == Material.TALL_SEAGRASS ||
+                type == Material.KELP ||
+                type == Material.KELP_PLANT) {
+            return true;
+        }
+
+        // Проверки по строковому названию для совместимости
+        return typeName.contains("SAPLING") ||
+                typeName.contains("VINE") ||
+                typeName.equals("WHEAT") ||
+                typeName.equals("CARROTS") ||
+                typeName.equals("POTATOES") ||
+                typeName.equals("BEETROOTS");
+    }
+
+    /**
+     * Проверяет, является ли блок воздухом или заменяемым
+     */
+    static boolean isAirOrReplaceable(Material type) {
+        return type == Material.AIR ||
+                type == Material.CAVE_AIR ||
+                type == Material.VOID_AIR ||
+                type == Material.WATER ||
+                type == Material.LAVA ||
+                type == Material.FERN ||
+                type == Material.LARGE_FERN ||
+                type == Material.DEAD_BUSH ||
+                type == Material.SEAGRASS ||
+                type == Material.TALL_SEAGRASS ||
+                type == Material.KELP ||
+                type == Material.KELP_PLANT;
+    }
+
+    /**
+     * Улучшенный метод проверки твердого блока
+     */
+    static boolean isSolidBlock(Material type) {
+        // Исключаем жидкости и нетвердые блоки
+        if (type == Material.AIR ||
+                type == Material.CAVE_AIR ||
+                type == Material.VOID_AIR ||
+                type == Material.WATER ||
+                type == Material.LAVA) {
+            return false;
+        }
+
+        // Исключаем растения и другие нетвердые блоки
+        if (type.toString().contains("SAPLING") ||
+                type.toString().contains("FLOWER") ||
+                type.toString().contains("GRASS") ||
+                type.toString().contains("FERN") ||
+                type == Material.DEAD_BUSH ||
+                type == Material.SEAGRASS ||
+                type == Material.TALL_SEAGRASS ||
+                type == Material.KELP ||
+                type == Material.KELP_PLANT ||
+                type == Material.TORCH ||
+                type == Material.REDSTONE_TORCH ||
+                type == Material.LEVER ||
+                type == Material.STONE_BUTTON ||
+                type == Material.OAK_BUTTON ||
+                type == Material.SNOW ||
+                type == Material.POWDER_SNOW) {
+            return false;
+        }
+
+        // Все остальное считаем твердым (включая землю, камень, бедрок и т.д.)
+        return true;
+    }
+}
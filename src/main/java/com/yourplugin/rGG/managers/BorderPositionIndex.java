@@ -0,0 +1,165 @@
+package com.yourplugin.rGG.managers;
+
+/**
+ * Индекс блоков физических границ одного мира: упакованная позиция блока
+ * ({@link BorderOriginals#pack}) -> ID региона.
+ *
+ * Хэш-таблица с открытой адресацией на массивах long[] и String[]: без упаковки ключей
+ * в Long и без объекта записи на каждый блок (около 16 байт на блок при заполнении 3/4).
+ * Строки ID регионов общие для всех блоков региона. Проверка "это блок границы" -
+ * одно обращение к таблице.
+ *
+ * Класс не потокобезопасен: все изменения и запросы выполняются в основном потоке сервера.
+ */
+public class BorderPositionIndex {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    // null - свободная ячейка
+    private String[] regions = new String[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Добавляет позиции границы региона (позиция другого региона перезаписывается)
+     */
+    public void addAll(BorderOriginals blocks, String regionId) {
+        for (int i = 0; i < blocks.size(); i++) {
+            put(blocks.getPosition(i), regionId);
+        }
+    }
+
+    /**
+     * Удаляет позиции границы региона (позиции, занятые уже другим регионом, остаются)
+     */
+    public void removeAll(BorderOriginals blocks, String regionId) {
+        for (int i = 0; i < blocks.size(); i++) {
+            remove(blocks.getPosition(i), regionId);
+        }
+        if (capacityFor(size) < keys.length) {
+            resize(capacityFor(size));
+        }
+    }
+
+    /**
+     * @return ID региона, которому принадлежит блок границы, или null
+     */
+    public String get(long position) {
+        int mask = keys.length - 1;
+        int slot = slot(position, mask);
+        while (regions[slot] != null) {
+            if (keys[slot] == position) {
+                return regions[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ===== ХЭШ-ТАБЛИЦА =====
+
+    private void put(long position, String regionId) {
+        int mask = keys.length - 1;
+        int slot = slot(position, mask);
+        while (regions[slot] != null) {
+            if (keys[slot] == position) {
+                regions[slot] = regionId;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+            insert(keys, regions, position, regionId);
+        } else {
+            keys[slot] = position;
+            regions[slot] = regionId;
+        }
+        size++;
+    }
+
+    /**
+     * Удаляет позицию со сдвигом следующих записей цепочки
+     */
+    private void remove(long position, String regionId) {
+        int mask = keys.length - 1;
+        int slot = slot(position, mask);
+        while (regions[slot] != null && keys[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        if (regions[slot] == null || !regions[slot].equals(regionId)) {
+            return;
+        }
+
+        regions[slot] = null;
+        keys[slot] = 0L;
+        size--;
+
+        int next = (slot + 1) & mask;
+        while (regions[next] != null) {
+            long nextKey = keys[next];
+            String nextRegion = regions[next];
+            regions[next] = null;
+            keys[next] = 0L;
+            insert(keys, regions, nextKey, nextRegion);
+            next = (next + 1) & mask;
+        }
+    }
+
+    /**
+     * Емкость для указанного числа записей: степень двойки, заполнение не больше 3/4
+     * (таблица сжимается, когда после удаления заполнено меньше 1/4)
+     */
+    private int capacityFor(int entries) {
+        int capacity = keys.length;
+        while (capacity > MIN_CAPACITY && entries * 4 < capacity) {
+            capacity >>= 1;
+        }
+        return capacity;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static void insert(long[] targetKeys, String[] targetRegions, long key, String regionId) {
+        int mask = targetKeys.length - 1;
+        int slot = slot(key, mask);
+        while (targetRegions[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        targetKeys[slot] = key;
+        targetRegions[slot] = regionId;
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        String[] newRegions = new String[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (regions[i] != null) {
+                insert(newKeys, newRegions, keys[i], regions[i]);
+            }
+        }
+        keys = newKeys;
+        regions = newRegions;
+    }
+
+    /**
+     * Полностью очищает индекс
+     */
+    public void clear() {
+        keys = new long[MIN_CAPACITY];
+        regions = new String[MIN_CAPACITY];
+        size = 0;
+    }
+}
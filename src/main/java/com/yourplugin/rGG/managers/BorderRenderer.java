@@ -0,0 +1,87 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Set;
+
+/**
+ * Способ показа границ регионов.
+ *
+ * Реализации: {@link PhysicalBorderRenderer} (блоки ставятся в мир, оригиналы сохраняются
+ * и восстанавливаются, как раньше), {@link ClientBorderRenderer} (блоки отправляются только
+ * клиентам владельца и участников поблизости) и {@link DisplayBorderRenderer} (сущности BlockDisplay).
+ * Два последних режима не меняют мир: им не нужны оригинальные блоки и проход восстановления.
+ * Тип выбирается параметром visualization.physical-borders.mode в config.yml.
+ */
+public interface BorderRenderer {
+
+    /**
+     * Название типа рендерера (как в config.yml)
+     */
+    String getType();
+
+    /**
+     * Показывает границы региона (прежние границы региона уже убраны)
+     * @param regionId ID региона
+     * @param world Мир региона
+     * @param locations Позиции блоков границы
+     * @param material Материал границы
+     */
+    void show(String regionId, World world, Set<Location> locations, Material material);
+
+    /**
+     * Убирает границы региона
+     */
+    void hide(String regionId);
+
+    /**
+     * Показаны ли границы региона
+     */
+    boolean isShown(String regionId);
+
+    /**
+     * Регионы с показанными границами
+     */
+    Set<String> getShownRegions();
+
+    /**
+     * Чанк загружен
+     */
+    default void onChunkLoad(Chunk chunk) {
+    }
+
+    /**
+     * Чанк выгружается
+     */
+    default void onChunkUnload(Chunk chunk) {
+    }
+
+    /**
+     * Останавливает фоновые задачи рендерера. Показанные границы не восстанавливаются
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Создает рендерер по типу
+     * @param type "physical", "client" или "display"
+     * @return Рендерер; при неизвестном типе - physical
+     */
+    static BorderRenderer create(RGProtectPlugin plugin, VisualizationManager manager, String type) {
+        if ("client".equalsIgnoreCase(type)) {
+            return new ClientBorderRenderer(plugin);
+        }
+        if ("display".equalsIgnoreCase(type)) {
+            return new DisplayBorderRenderer(plugin);
+        }
+        if (!"physical".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("Неизвестный режим границ " + type + ". Используется physical");
+        }
+        return new PhysicalBorderRenderer(manager);
+    }
+}
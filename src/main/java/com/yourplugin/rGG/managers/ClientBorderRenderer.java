@@ -0,0 +1,219 @@
+package com.yourplugin.rGG.managers;
+
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Границы на стороне клиента: блоки границы отправляются через sendBlockChange только
+ * владельцу и участникам региона в пределах visualization.physical-borders.client.view-distance.
+ *
+ * Мир не меняется: нет оригинальных блоков, обновлений света и физики, а после остановки
+ * сервера в мире не остается блоков границ. Когда игрок уходит или границы убираются,
+ * ему отправляются настоящие блоки.
+ */
+public class ClientBorderRenderer implements BorderRenderer {
+
+    private final RGProtectPlugin plugin;
+    private final double viewDistance;
+
+    private final Map<String, ClientBorder> borders = new HashMap<>();
+
+    private final BukkitTask trackerTask;
+
+    public ClientBorderRenderer(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.viewDistance = Math.max(1.0, plugin.getConfig().getDouble("visualization.physical-borders.client.view-distance", 64.0));
+
+        int interval = Math.max(1, plugin.getConfig().getInt("visualization.physical-borders.client.check-interval", 20));
+        this.trackerTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    updateViewers();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Ошибка при обновлении зрителей границ: " + e.getMessage());
+                }
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    @Override
+    public String getType() {
+        return "client";
+    }
+
+    @Override
+    public void show(String regionId, World world, Set<Location> locations, Material material) {
+        hide(regionId);
+        borders.put(regionId, new ClientBorder(regionId, world, locations, material.createBlockData()));
+    }
+
+    @Override
+    public void hide(String regionId) {
+        ClientBorder border = borders.remove(regionId);
+        if (border != null) {
+            for (UUID viewer : border.viewers) {
+                Player player = plugin.getServer().getPlayer(viewer);
+                // Зритель в другом мире уже не видит эти блоки - отправка наложила бы их на его мир
+                if (player != null && player.getWorld().getName().equals(border.worldName)) {
+                    border.revert(player);
+                }
+            }
+            border.viewers.clear();
+        }
+    }
+
+    @Override
+    public boolean isShown(String regionId) {
+        return borders.containsKey(regionId);
+    }
+
+    @Override
+    public Set<String> getShownRegions() {
+        return new HashSet<>(borders.keySet());
+    }
+
+    /**
+     * Загруженный заново чанк отправляется клиентам с настоящими блоками -
+     * границы в нем будут отправлены зрителям повторно при следующей проверке
+     */
+    @Override
+    public void onChunkLoad(Chunk chunk) {
+        String worldName = chunk.getWorld().getName();
+        for (ClientBorder border : borders.values()) {
+            if (border.worldName.equals(worldName) && border.touches(chunk.getX(), chunk.getZ())) {
+                border.viewers.clear();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        trackerTask.cancel();
+        for (String regionId : new ArrayList<>(borders.keySet())) {
+            hide(regionId);
+        }
+    }
+
+    /**
+     * Отправляет границы владельцам и участникам, подошедшим к региону, и убирает у ушедших
+     */
+    private void updateViewers() {
+        for (ClientBorder border : borders.values()) {
+            World world = plugin.getServer().getWorld(border.worldName);
+            if (world == null) {
+                continue;
+            }
+
+            ProtectedRegion region = plugin.getProtectRegionManager().getWorldGuardGateway().getRegion(world, border.regionId);
+            Set<UUID> current = new HashSet<>();
+
+            if (region != null) {
+                for (Player player : world.getPlayers()) {
+                    if (border.distanceSquared(player.getLocation()) > viewDistance * viewDistance) {
+                        continue;
+                    }
+                    if (!plugin.getProtectRegionManager().hasAccess(region, player)) {
+                        continue;
+                    }
+
+                    current.add(player.getUniqueId());
+                    if (border.viewers.add(player.getUniqueId())) {
+                        border.send(player);
+                    }
+                }
+            }
+
+            for (UUID viewer : new ArrayList<>(border.viewers)) {
+                if (!current.contains(viewer)) {
+                    Player player = plugin.getServer().getPlayer(viewer);
+                    if (player != null && player.getWorld().equals(world)) {
+                        border.revert(player);
+                    }
+                    border.viewers.remove(viewer);
+                }
+            }
+        }
+    }
+
+    private static class ClientBorder {
+
+        private final String regionId;
+        private final String worldName;
+        private final List<Location> locations;
+        private final BlockData blockData;
+        private final int minX;
+        private final int maxX;
+        private final int minZ;
+        private final int maxZ;
+        private final Set<UUID> viewers = new HashSet<>();
+
+        ClientBorder(String regionId, World world, Set<Location> locations, BlockData blockData) {
+            this.regionId = regionId;
+            this.worldName = world.getName();
+            this.locations = new ArrayList<>(locations);
+            this.blockData = blockData;
+
+            int lowX = Integer.MAX_VALUE, highX = Integer.MIN_VALUE, lowZ = Integer.MAX_VALUE, highZ = Integer.MIN_VALUE;
+            for (Location loc : locations) {
+                lowX = Math.min(lowX, loc.getBlockX());
+                highX = Math.max(highX, loc.getBlockX());
+                lowZ = Math.min(lowZ, loc.getBlockZ());
+                highZ = Math.max(highZ, loc.getBlockZ());
+            }
+            this.minX = lowX;
+            this.maxX = highX;
+            this.minZ = lowZ;
+            this.maxZ = highZ;
+        }
+
+        /**
+         * Квадрат расстояния по горизонтали от игрока до прямоугольника границы (0 внутри)
+         */
+        double distanceSquared(Location location) {
+            double dx = Math.max(0, Math.max(minX - location.getX(), location.getX() - (maxX + 1)));
+            double dz = Math.max(0, Math.max(minZ - location.getZ(), location.getZ() - (maxZ + 1)));
+            return dx * dx + dz * dz;
+        }
+
+        boolean touches(int chunkX, int chunkZ) {
+            return chunkX >= minX >> 4 && chunkX <= maxX >> 4 && chunkZ >= minZ >> 4 && chunkZ <= maxZ >> 4;
+        }
+
+        void send(Player player) {
+            for (Location loc : locations) {
+                player.sendBlockChange(loc, blockData);
+            }
+        }
+
+        /**
+         * Отправляет игроку настоящие блоки мира границы (только в загруженных чанках -
+         * чтение не загружает чанк). Игрок должен находиться в мире границы
+         */
+        void revert(Player player) {
+            for (Location loc : locations) {
+                World world = loc.getWorld();
+                if (world != null && world.isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
+                    player.sendBlockChange(loc, loc.getBlock().getBlockData());
+                }
+            }
+        }
+    }
+}
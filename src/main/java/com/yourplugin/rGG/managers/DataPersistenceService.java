@@ -0,0 +1,157 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронная и устойчивая к сбоям запись файлов данных плагина.
+ *
+ * Содержимое готовится в основном потоке (снимок состояния), а запись выполняется
+ * в отдельном потоке: во временный файл, с fsync, затем атомарным переименованием
+ * поверх целевого файла. Аварийная остановка во время записи оставляет прежний файл целым.
+ *
+ * Запись идет в одном потоке, поэтому записи одного файла выполняются по порядку.
+ * При остановке плагина очередь дожидается с ограничением по времени.
+ */
+public class DataPersistenceService {
+
+    private final RGProtectPlugin plugin;
+    private final ExecutorService executor;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    public DataPersistenceService(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RGProtect-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ставит файл в очередь на атомарную запись
+     * @param target Целевой файл
+     * @param content Содержимое (подготовлено в основном потоке)
+     * @param callback Вызывается в потоке записи: true если файл записан
+     */
+    public void writeAsync(File target, String content, Consumer<Boolean> callback) {
+        pendingWrites.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                boolean success = writeAtomically(plugin, target, content);
+                pendingWrites.decrementAndGet();
+                if (callback != null) {
+                    callback.accept(success);
+                }
+            });
+        } catch (Exception e) {
+            // Сервис уже остановлен - пишем синхронно, чтобы не потерять данные
+            pendingWrites.decrementAndGet();
+            boolean success = writeAtomically(plugin, target, content);
+            if (callback != null) {
+                callback.accept(success);
+            }
+        }
+    }
+
+    /**
+     * Ставит задачу хранения (например запись в базу данных) в ту же очередь, что и запись файлов
+     */
+    public void submit(Runnable task) {
+        pendingWrites.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pendingWrites.decrementAndGet();
+                }
+            });
+        } catch (Exception e) {
+            // Сервис уже остановлен - выполняем синхронно
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+    }
+
+    /**
+     * Синхронная атомарная запись файла: временный файл + fsync + переименование
+     * @return true если файл записан
+     */
+    public static boolean writeAtomically(RGProtectPlugin plugin, File target, String content) {
+        Path targetPath = target.toPath();
+        Path tempPath = targetPath.resolveSibling(target.getName() + ".tmp");
+
+        try {
+            Files.createDirectories(targetPath.getParent());
+
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось записать файл " + target.getName() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Количество записей в очереди
+     */
+    public int getPendingCount() {
+        return pendingWrites.get();
+    }
+
+    /**
+     * Дожидается завершения всех записей и останавливает поток записи
+     * @param timeoutMillis Максимальное время ожидания
+     * @return true если все записи завершены
+     */
+    public boolean drain(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Незаписанные изменения остаются в журналах и будут проиграны при следующем запуске
+        plugin.getLogger().warning("Не все файлы данных записаны за " + timeoutMillis + " мс (в очереди: " +
+                pendingWrites.get() + ")");
+        executor.shutdownNow();
+        return false;
+    }
+}
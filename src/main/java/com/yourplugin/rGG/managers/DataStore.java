@@ -0,0 +1,45 @@
+package com.yourplugin.rGG.managers;
+
+/**
+ * Виды данных плагина и их расположение в YAML-хранилище
+ */
+public enum DataStore {
+
+    TIMERS("region-timers.yml", "timers", 1),
+    FLAGS("region-flags.yml", "flags", 2),
+    HEIGHT_EXPANSIONS("height-expansions.yml", "expansions", 1),
+    BORDERS_STATE("borders-state.yml", "regions", 1),
+    HOLOGRAMS("holograms.yml", "holograms", 1),
+    BORDER_ORIGINALS("border-originals.yml", "borders", 1);
+
+    private final String fileName;
+    private final String rootSection;
+    private final int keyDepth;
+
+    DataStore(String fileName, String rootSection, int keyDepth) {
+        this.fileName = fileName;
+        this.rootSection = rootSection;
+        this.keyDepth = keyDepth;
+    }
+
+    /**
+     * Имя YAML-файла в папке плагина
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Корневая секция YAML-файла
+     */
+    public String getRootSection() {
+        return rootSection;
+    }
+
+    /**
+     * Глубина ключа в YAML: 1 для "timers.<region>", 2 для "flags.<region>.<flag>"
+     */
+    public int getKeyDepth() {
+        return keyDepth;
+    }
+}
@@ -0,0 +1,178 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Общий планировщик сроков истечения (таймеры регионов, временные флаги, расширения по высоте).
+ *
+ * Менеджеры регистрируют срок по ключу и отменяют его при удалении/продлении.
+ * Сроки хранятся в min-куче по времени истечения, поэтому каждую секунду проверяется
+ * только вершина кучи: стоимость тика зависит от количества реально истекших сроков,
+ * а не от общего количества таймеров.
+ *
+ * Все вызовы выполняются в основном потоке сервера.
+ */
+public class DeadlineScheduler {
+
+    private final RGProtectPlugin plugin;
+
+    // Куча сроков (отмененные записи удаляются лениво)
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>();
+
+    // Актуальный срок для каждого ключа
+    private final Map<String, Deadline> activeDeadlines = new HashMap<>();
+
+    private BukkitTask tickTask;
+    private long sequence;
+
+    /**
+     * Срок истечения
+     */
+    private static final class Deadline implements Comparable<Deadline> {
+        final String key;
+        final long time;
+        final long order;
+        final Runnable action;
+
+        Deadline(String key, long time, long order, Runnable action) {
+            this.key = key;
+            this.time = time;
+            this.order = order;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    public DeadlineScheduler(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        startTickTask();
+    }
+
+    /**
+     * Регистрирует срок. Если срок с таким ключом уже есть, он заменяется.
+     * @param key Уникальный ключ (например "timer:regionId")
+     * @param time Время истечения в миллисекундах
+     * @param action Действие, выполняемое при истечении (в основном потоке)
+     */
+    public void schedule(String key, long time, Runnable action) {
+        Deadline deadline = new Deadline(key, time, sequence++, action);
+        activeDeadlines.put(key, deadline);
+        queue.add(deadline);
+        compactIfNeeded();
+    }
+
+    /**
+     * Отменяет срок по ключу
+     */
+    public void cancel(String key) {
+        if (activeDeadlines.remove(key) != null) {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Отменяет все сроки, ключ которых начинается с префикса
+     */
+    public void cancelByPrefix(String prefix) {
+        activeDeadlines.keySet().removeIf(key -> key.startsWith(prefix));
+        compactIfNeeded();
+    }
+
+    /**
+     * Проверяет, зарегистрирован ли срок
+     */
+    public boolean isScheduled(String key) {
+        return activeDeadlines.containsKey(key);
+    }
+
+    /**
+     * Количество активных сроков
+     */
+    public int size() {
+        return activeDeadlines.size();
+    }
+
+    private void startTickTask() {
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                runDueDeadlines(System.currentTimeMillis());
+            }
+        }.runTaskTimer(plugin, 20L, 20L); // Каждую секунду
+    }
+
+    /**
+     * Выполняет все истекшие сроки
+     */
+    private void runDueDeadlines(long now) {
+        List<Deadline> due = null;
+
+        while (!queue.isEmpty() && queue.peek().time <= now) {
+            Deadline deadline = queue.poll();
+            // Пропускаем отмененные и замененные записи
+            if (activeDeadlines.get(deadline.key) != deadline) {
+                continue;
+            }
+            activeDeadlines.remove(deadline.key);
+
+            if (due == null) {
+                due = new ArrayList<>();
+            }
+            due.add(deadline);
+        }
+
+        if (due == null) {
+            return;
+        }
+
+        // Действия выполняются после выборки - они могут регистрировать новые сроки
+        for (Deadline deadline : due) {
+            try {
+                deadline.action.run();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Ошибка при обработке срока " + deadline.key + ": " + e.getMessage());
+                if (plugin.getConfig().getBoolean("debug.log-stack-traces", false)) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Перестраивает кучу, если отмененных записей стало больше, чем активных
+     */
+    private void compactIfNeeded() {
+        if (queue.size() <= 64 || queue.size() <= activeDeadlines.size() * 2) {
+            return;
+        }
+
+        queue.clear();
+        queue.addAll(activeDeadlines.values());
+    }
+
+    /**
+     * Останавливает планировщик
+     */
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        queue.clear();
+        activeDeadlines.clear();
+    }
+}
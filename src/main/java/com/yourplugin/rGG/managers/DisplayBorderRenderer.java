@@ -0,0 +1,195 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Границы из сущностей BlockDisplay: блок границы показывается сущностью на месте блока,
+ * сам мир не меняется.
+ *
+ * Сущности не сохраняются в чанк (setPersistent(false)): они создаются только в загруженных
+ * чанках, создаются заново при загрузке чанка и исчезают вместе с ним. После остановки
+ * сервера в мире не остается ни блоков, ни сущностей границ.
+ */
+public class DisplayBorderRenderer implements BorderRenderer {
+
+    private final RGProtectPlugin plugin;
+    private final NamespacedKey borderKey;
+
+    private final Map<String, DisplayBorder> borders = new HashMap<>();
+    // Мир -> ключ чанка -> регионы с границами в этом чанке
+    private final Map<String, Map<Long, Set<String>>> chunkIndex = new HashMap<>();
+
+    public DisplayBorderRenderer(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.borderKey = new NamespacedKey(plugin, "border-region");
+    }
+
+    @Override
+    public String getType() {
+        return "display";
+    }
+
+    @Override
+    public void show(String regionId, World world, Set<Location> locations, Material material) {
+        hide(regionId);
+
+        DisplayBorder border = new DisplayBorder(world.getName(), material.createBlockData());
+        for (Location loc : locations) {
+            border.blocks.computeIfAbsent(chunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4), k -> new ArrayList<>())
+                    .add(loc.clone());
+        }
+        borders.put(regionId, border);
+
+        Map<Long, Set<String>> worldIndex = chunkIndex.computeIfAbsent(border.worldName, k -> new HashMap<>());
+        for (long chunk : border.blocks.keySet()) {
+            worldIndex.computeIfAbsent(chunk, k -> new HashSet<>()).add(regionId);
+            if (world.isChunkLoaded((int) (chunk >> 32), (int) chunk)) {
+                spawnChunk(regionId, border, world, chunk);
+            }
+        }
+    }
+
+    @Override
+    public void hide(String regionId) {
+        DisplayBorder border = borders.remove(regionId);
+        if (border == null) {
+            return;
+        }
+
+        for (List<BlockDisplay> displays : border.spawned.values()) {
+            for (BlockDisplay display : displays) {
+                if (!display.isDead()) {
+                    display.remove();
+                }
+            }
+        }
+        border.spawned.clear();
+
+        Map<Long, Set<String>> worldIndex = chunkIndex.get(border.worldName);
+        if (worldIndex != null) {
+            for (long chunk : border.blocks.keySet()) {
+                Set<String> regions = worldIndex.get(chunk);
+                if (regions != null) {
+                    regions.remove(regionId);
+                    if (regions.isEmpty()) {
+                        worldIndex.remove(chunk);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isShown(String regionId) {
+        return borders.containsKey(regionId);
+    }
+
+    @Override
+    public Set<String> getShownRegions() {
+        return new HashSet<>(borders.keySet());
+    }
+
+    @Override
+    public void onChunkLoad(Chunk chunk) {
+        long key = chunkKey(chunk.getX(), chunk.getZ());
+        for (String regionId : getRegionsInChunk(chunk, key)) {
+            DisplayBorder border = borders.get(regionId);
+            if (border != null) {
+                spawnChunk(regionId, border, chunk.getWorld(), key);
+            }
+        }
+    }
+
+    /**
+     * Несохраняемые сущности исчезают вместе с чанком - забываем ссылки на них
+     */
+    @Override
+    public void onChunkUnload(Chunk chunk) {
+        long key = chunkKey(chunk.getX(), chunk.getZ());
+        for (String regionId : getRegionsInChunk(chunk, key)) {
+            DisplayBorder border = borders.get(regionId);
+            if (border != null) {
+                border.spawned.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (String regionId : new ArrayList<>(borders.keySet())) {
+            hide(regionId);
+        }
+        chunkIndex.clear();
+    }
+
+    private Set<String> getRegionsInChunk(Chunk chunk, long key) {
+        Map<Long, Set<String>> worldIndex = chunkIndex.get(chunk.getWorld().getName());
+        Set<String> regions = worldIndex != null ? worldIndex.get(key) : null;
+        return regions != null ? new HashSet<>(regions) : java.util.Collections.emptySet();
+    }
+
+    private void spawnChunk(String regionId, DisplayBorder border, World world, long chunk) {
+        List<BlockDisplay> existing = border.spawned.get(chunk);
+        if (existing != null) {
+            boolean alive = true;
+            for (BlockDisplay display : existing) {
+                alive &= !display.isDead();
+            }
+            if (alive) {
+                return;
+            }
+            for (BlockDisplay display : existing) {
+                display.remove();
+            }
+        }
+
+        List<BlockDisplay> displays = new ArrayList<>();
+        for (Location loc : border.blocks.getOrDefault(chunk, java.util.Collections.emptyList())) {
+            try {
+                displays.add(world.spawn(new Location(world, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()),
+                        BlockDisplay.class, display -> {
+                            display.setPersistent(false);
+                            display.setBlock(border.blockData);
+                            display.getPersistentDataContainer().set(borderKey, PersistentDataType.STRING, regionId);
+                        }));
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при создании блока границы региона " + regionId + ": " + e.getMessage());
+            }
+        }
+        border.spawned.put(chunk, displays);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static class DisplayBorder {
+
+        private final String worldName;
+        private final BlockData blockData;
+        // Ключ чанка -> позиции блоков границы / созданные сущности
+        private final Map<Long, List<Location>> blocks = new HashMap<>();
+        private final Map<Long, List<BlockDisplay>> spawned = new HashMap<>();
+
+        DisplayBorder(String worldName, BlockData blockData) {
+            this.worldName = worldName;
+            this.blockData = blockData;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Загрузка записей со сроком истечения окнами (таймеры, флаги, расширения по высоте).
+ *
+ * При запуске из хранилища читаются только записи, истекающие в ближайшее окно
+ * (storage.preload-window-minutes), выборкой по индексу срока. Каждые полокна выборка
+ * повторяется для следующего окна, поэтому срок регистрируется в планировщике минимум
+ * за полокна до истечения. Остальные записи менеджеры читают по ключу при обращении.
+ */
+public class ExpirationPreloader {
+
+    private final RGProtectPlugin plugin;
+    private final RecordStore store;
+    private final BiConsumer<String, Map<String, Object>> loader;
+    private final long windowMillis;
+
+    private BukkitTask task;
+
+    /**
+     * @param loader Загружает запись в менеджер (запись, уже загруженная ранее, пропускается менеджером)
+     */
+    public ExpirationPreloader(RGProtectPlugin plugin, RecordStore store, BiConsumer<String, Map<String, Object>> loader) {
+        this.plugin = plugin;
+        this.store = store;
+        this.loader = loader;
+        this.windowMillis = Math.max(2L, plugin.getConfig().getLong("storage.preload-window-minutes", 120L)) * 60_000L;
+    }
+
+    /**
+     * Загружает первое окно и запускает продвижение окна
+     * @return Количество загруженных записей
+     */
+    public int start() {
+        int loaded = loadWindow();
+
+        long periodTicks = windowMillis / 2 / 50;
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    loadWindow();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Ошибка при загрузке истекающих записей: " + e.getMessage());
+                }
+            }
+        }.runTaskTimer(plugin, periodTicks, periodTicks);
+        return loaded;
+    }
+
+    private int loadWindow() {
+        Map<String, Map<String, Object>> records = store.findExpiringBefore(System.currentTimeMillis() + windowMillis);
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            loader.accept(record.getKey(), record.getValue());
+        }
+        return records.size();
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
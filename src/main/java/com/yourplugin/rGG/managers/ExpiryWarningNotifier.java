@@ -0,0 +1,159 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Предупреждения о скором истечении (таймеры регионов, расширения по высоте).
+ *
+ * Для каждого срока заранее вычисляются моменты предупреждений (срок минус порог)
+ * и регистрируются в общем DeadlineScheduler - предупреждение срабатывает только когда наступает.
+ * Предупреждения одного владельца, сработавшие в один тик, объединяются в одно сообщение.
+ */
+public class ExpiryWarningNotifier {
+
+    /**
+     * Одно предупреждение
+     */
+    public static final class Warning {
+        public final String regionId;
+        public final String timeLeft;
+
+        Warning(String regionId, String timeLeft) {
+            this.regionId = regionId;
+            this.timeLeft = timeLeft;
+        }
+    }
+
+    /**
+     * Отправка предупреждений владельцу (одно или несколько за раз)
+     */
+    public interface Renderer {
+        void send(Player owner, List<Warning> warnings);
+    }
+
+    private final RGProtectPlugin plugin;
+    private final String keyPrefix;
+    private final long[] thresholdSeconds;
+    private final Function<String, String> ownerResolver;
+    private final Renderer renderer;
+
+    // Владелец -> предупреждения, ожидающие отправки в этом тике
+    private final Map<String, List<Warning>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    /**
+     * @param keyPrefix Префикс ключей в DeadlineScheduler (например "timer-warn:")
+     * @param thresholdSeconds Пороги предупреждений в секундах до истечения
+     * @param ownerResolver ID региона -> имя владельца (или null)
+     * @param renderer Отправка сообщений владельцу
+     */
+    public ExpiryWarningNotifier(RGProtectPlugin plugin, String keyPrefix, long[] thresholdSeconds,
+                                 Function<String, String> ownerResolver, Renderer renderer) {
+        this.plugin = plugin;
+        this.keyPrefix = keyPrefix;
+        this.thresholdSeconds = thresholdSeconds;
+        this.ownerResolver = ownerResolver;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Читает пороги предупреждений из конфига
+     * @param path Путь к списку секунд
+     * @param defaults Значения по умолчанию
+     */
+    public static long[] readThresholds(RGProtectPlugin plugin, String path, long... defaults) {
+        List<Integer> configured = plugin.getConfig().getIntegerList(path);
+        if (configured.isEmpty()) {
+            return defaults;
+        }
+
+        long[] result = new long[configured.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = configured.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Регистрирует (или переносит) предупреждения для срока.
+     * Пороги, которые уже прошли, пропускаются.
+     */
+    public void schedule(String regionId, long expirationTime) {
+        DeadlineScheduler scheduler = plugin.getDeadlineScheduler();
+        long now = System.currentTimeMillis();
+
+        for (long threshold : thresholdSeconds) {
+            String key = warningKey(regionId, threshold);
+            long warnAt = expirationTime - threshold * 1000L;
+
+            if (warnAt <= now) {
+                scheduler.cancel(key);
+                continue;
+            }
+
+            String timeLeft = formatThreshold(threshold);
+            scheduler.schedule(key, warnAt, () -> queue(regionId, timeLeft));
+        }
+    }
+
+    /**
+     * Отменяет все предупреждения срока
+     */
+    public void cancel(String regionId) {
+        DeadlineScheduler scheduler = plugin.getDeadlineScheduler();
+        for (long threshold : thresholdSeconds) {
+            scheduler.cancel(warningKey(regionId, threshold));
+        }
+    }
+
+    /**
+     * Отменяет все предупреждения этого уведомителя
+     */
+    public void cancelAll() {
+        plugin.getDeadlineScheduler().cancelByPrefix(keyPrefix);
+        pending.clear();
+    }
+
+    private void queue(String regionId, String timeLeft) {
+        String ownerName = ownerResolver.apply(regionId);
+        if (ownerName == null) {
+            return;
+        }
+
+        pending.computeIfAbsent(ownerName, name -> new ArrayList<>()).add(new Warning(regionId, timeLeft));
+
+        // Все предупреждения этого тика отправляются одним проходом
+        if (!flushScheduled) {
+            flushScheduled = true;
+            plugin.getServer().getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+
+        for (Map.Entry<String, List<Warning>> entry : pending.entrySet()) {
+            Player owner = plugin.getServer().getPlayer(entry.getKey());
+            if (owner != null && owner.isOnline()) {
+                renderer.send(owner, entry.getValue());
+            }
+        }
+        pending.clear();
+    }
+
+    private String warningKey(String regionId, long threshold) {
+        return keyPrefix + regionId + ":" + threshold;
+    }
+
+    private static String formatThreshold(long seconds) {
+        return seconds >= 60 ? (seconds / 60) + " минут" : seconds + " секунд";
+    }
+}
@@ -3,10 +3,6 @@ package com.yourplugin.rGG.managers;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import com.sk89q.worldguard.protection.flags.Flag;
 import com.sk89q.worldguard.protection.flags.StateFlag;
@@ -14,8 +10,6 @@ import com.sk89q.worldguard.protection.flags.Flags;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.yourplugin.rGG.RGProtectPlugin;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
@@ -23,93 +17,102 @@ import java.util.regex.Matcher;
 
 public class FlagProtectionManager {
 
+    // Префикс ключей сроков в общем планировщике
+    private static final String EXPIRATION_KEY_PREFIX = "flag:";
+
     private final RGProtectPlugin plugin;
     // Хранение активных флагов с временем истечения
     private final Map<String, Map<String, Long>> regionFlags; // regionId -> flagName -> expirationTime
     // Хранение оригинальных значений флагов для восстановления
     private final Map<String, Map<String, Object>> originalFlagValues; // regionId -> flagName -> originalValue
-    // Задача обновления флагов
-    private BukkitTask flagTask;
-    // Файл для сохранения флагов
-    private File flagsFile;
-    private FileConfiguration flagsConfig;
+    // Хранилище флагов (region-flags.yml + журнал изменений), ключ "регион.флаг"
+    private RecordStore flagsStore;
+    // Загрузка флагов, истекающих в ближайшее окно
+    private ExpirationPreloader preloader;
+    // Регионы, все флаги которых уже прочитаны из хранилища
+    private final Set<String> loadedRegions = ConcurrentHashMap.newKeySet();
 
     public FlagProtectionManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         this.regionFlags = new ConcurrentHashMap<>();
         this.originalFlagValues = new ConcurrentHashMap<>();
 
-        // Загружаем сохраненные флаги
+        // Загружаем сохраненные флаги (сроки истечения регистрируются в общем планировщике)
         loadFlags();
-
-        // Запускаем задачу проверки флагов
-        startFlagTask();
     }
 
     /**
-     * Загрузка сохраненных флагов из файла
+     * Загрузка сохраненных флагов: при запуске только истекающие в ближайшее окно,
+     * флаги остальных регионов читаются из хранилища при обращении к региону
      */
     private void loadFlags() {
-        flagsFile = new File(plugin.getDataFolder(), "region-flags.yml");
+        flagsStore = plugin.getStorageBackend().openStore(DataStore.FLAGS);
+        preloader = new ExpirationPreloader(plugin, flagsStore, this::loadFlag);
+        int loaded = preloader.start();
+        plugin.getLogger().info("Загружено флагов, истекающих в ближайшее окно: " + loaded);
+    }
 
-        if (!flagsFile.exists()) {
-            try {
-                if (flagsFile.createNewFile()) {
-                    plugin.getLogger().info("Создан файл region-flags.yml");
-                }
-            } catch (IOException e) {
-                plugin.getLogger().warning("Не удалось создать файл region-flags.yml: " + e.getMessage());
-            }
+    /**
+     * Загружает флаг из записи хранилища, если он еще не в памяти
+     * @param key Ключ "регион.флаг"
+     */
+    private void loadFlag(String key, Map<String, Object> fields) {
+        int separator = key.indexOf('.');
+        if (separator <= 0) {
+            return;
         }
 
-        flagsConfig = YamlConfiguration.loadConfiguration(flagsFile);
-
-        // Загружаем все сохраненные флаги
-        if (flagsConfig.contains("flags")) {
-            for (String regionId : flagsConfig.getConfigurationSection("flags").getKeys(false)) {
-                Map<String, Long> flagMap = new HashMap<>();
-                Map<String, Object> originalMap = new HashMap<>();
+        String regionId = key.substring(0, separator);
+        String flagName = key.substring(separator + 1);
+        Map<String, Long> flags = regionFlags.get(regionId);
+        if (flags != null && flags.containsKey(flagName)) {
+            return;
+        }
 
-                for (String flagName : flagsConfig.getConfigurationSection("flags." + regionId).getKeys(false)) {
-                    long expirationTime = flagsConfig.getLong("flags." + regionId + "." + flagName + ".expiration");
-                    String originalValue = flagsConfig.getString("flags." + regionId + "." + flagName + ".original", "ALLOW");
+        long expirationTime = RecordStore.getLong(fields, "expiration", 0L);
+        String originalValue = RecordStore.getString(fields, "original", "ALLOW");
 
-                    flagMap.put(flagName, expirationTime);
-                    originalMap.put(flagName, originalValue);
+        regionFlags.computeIfAbsent(regionId, id -> new HashMap<>()).put(flagName, expirationTime);
+        originalFlagValues.computeIfAbsent(regionId, id -> new HashMap<>()).put(flagName, originalValue);
+        scheduleExpiration(regionId, flagName, expirationTime);
 
-                    plugin.getLogger().info("Загружен флаг " + flagName + " для региона " + regionId +
-                            ", истекает: " + new Date(expirationTime));
-                }
+        plugin.getLogger().info("Загружен флаг " + flagName + " для региона " + regionId +
+                ", истекает: " + new Date(expirationTime));
+    }
 
-                regionFlags.put(regionId, flagMap);
-                originalFlagValues.put(regionId, originalMap);
-            }
+    /**
+     * Читает из хранилища все флаги региона (один раз), включая истекающие за окном загрузки
+     */
+    private void ensureRegionFlagsLoaded(String regionId) {
+        if (regionId == null || !loadedRegions.add(regionId)) {
+            return;
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : flagsStore.findByKeyPrefix(regionId + ".").entrySet()) {
+            loadFlag(entry.getKey(), entry.getValue());
         }
     }
 
     /**
-     * Сохранение флагов в файл
+     * Сохранение одного флага (одна запись в журнал)
      */
-    private void saveFlags() {
-        for (Map.Entry<String, Map<String, Long>> regionEntry : regionFlags.entrySet()) {
-            String regionId = regionEntry.getKey();
-            Map<String, Object> originalValues = originalFlagValues.get(regionId);
-
-            for (Map.Entry<String, Long> flagEntry : regionEntry.getValue().entrySet()) {
-                String flagName = flagEntry.getKey();
-                Long expirationTime = flagEntry.getValue();
-                Object originalValue = originalValues != null ? originalValues.get(flagName) : "ALLOW";
-
-                flagsConfig.set("flags." + regionId + "." + flagName + ".expiration", expirationTime);
-                flagsConfig.set("flags." + regionId + "." + flagName + ".original", originalValue.toString());
-            }
+    private void saveFlag(String regionId, String flagName) {
+        Map<String, Long> flags = regionFlags.get(regionId);
+        Long expirationTime = flags != null ? flags.get(flagName) : null;
+        if (expirationTime == null) {
+            return;
         }
 
-        try {
-            flagsConfig.save(flagsFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Не удалось сохранить флаги: " + e.getMessage());
+        Map<String, Object> originalValues = originalFlagValues.get(regionId);
+        Object originalValue = originalValues != null ? originalValues.get(flagName) : null;
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("expiration", expirationTime);
+        fields.put("original", originalValue != null ? originalValue.toString() : "ALLOW");
+        org.bukkit.World world = plugin.getProtectRegionManager().findWorldForRegion(regionId);
+        if (world != null) {
+            fields.put("world", world.getName());
         }
+        flagsStore.put(regionId + "." + flagName, fields);
     }
 
     /**
@@ -134,6 +137,9 @@ public class FlagProtectionManager {
         }
 
         try {
+            // Оригинальные значения уже активных флагов могут быть еще не прочитаны из хранилища
+            ensureRegionFlagsLoaded(regionId);
+
             // Сохраняем оригинальное значение флага если еще не сохранено
             if (!originalFlagValues.containsKey(regionId)) {
                 originalFlagValues.put(regionId, new HashMap<>());
@@ -159,8 +165,10 @@ public class FlagProtectionManager {
                 regionFlags.put(regionId, new HashMap<>());
             }
             regionFlags.get(regionId).put(flagName, expirationTime);
+            scheduleExpiration(regionId, flagName, expirationTime);
 
-            saveFlags();
+            saveFlag(regionId, flagName);
+            plugin.getRegionEvents().fire(RegionEvent.Type.FLAG_CHANGED, regionId);
 
             plugin.getLogger().info("Активирован флаг " + flagName + " для региона " + regionId +
                     " на " + formatTime(durationSeconds));
@@ -336,6 +344,7 @@ public class FlagProtectionManager {
      * Получение оставшегося времени флага
      */
     public long getRemainingTime(String regionId, String flagName) {
+        ensureRegionFlagsLoaded(regionId);
         Map<String, Long> flags = regionFlags.get(regionId);
         if (flags == null || !flags.containsKey(flagName)) {
             return -1;
@@ -365,41 +374,15 @@ public class FlagProtectionManager {
     }
 
     /**
-     * Запуск задачи проверки истекших флагов
+     * Регистрирует (или переносит) срок истечения флага в общем планировщике
      */
-    private void startFlagTask() {
-        flagTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                checkExpiredFlags();
-            }
-        }.runTaskTimer(plugin, 20L, 20L); // Каждую секунду
+    private void scheduleExpiration(String regionId, String flagName, long expirationTime) {
+        plugin.getDeadlineScheduler().schedule(expirationKey(regionId, flagName), expirationTime,
+                () -> handleExpiredFlag(regionId, flagName));
     }
 
-    /**
-     * Проверка истекших флагов
-     */
-    private void checkExpiredFlags() {
-        Set<String> regionsToProcess = new HashSet<>(regionFlags.keySet());
-
-        for (String regionId : regionsToProcess) {
-            Map<String, Long> flags = regionFlags.get(regionId);
-            if (flags == null) continue;
-
-            Set<String> flagsToRemove = new HashSet<>();
-            long currentTime = System.currentTimeMillis();
-
-            for (Map.Entry<String, Long> flagEntry : flags.entrySet()) {
-                if (currentTime >= flagEntry.getValue()) {
-                    flagsToRemove.add(flagEntry.getKey());
-                }
-            }
-
-            // Удаляем истекшие флаги
-            for (String flagName : flagsToRemove) {
-                handleExpiredFlag(regionId, flagName);
-            }
-        }
+    private static String expirationKey(String regionId, String flagName) {
+        return EXPIRATION_KEY_PREFIX + regionId + ":" + flagName;
     }
 
     /**
@@ -477,6 +460,7 @@ public class FlagProtectionManager {
                 regionFlags.remove(regionId);
             }
         }
+        plugin.getDeadlineScheduler().cancel(expirationKey(regionId, flagName));
 
         Map<String, Object> originalValues = originalFlagValues.get(regionId);
         if (originalValues != null) {
@@ -486,45 +470,32 @@ public class FlagProtectionManager {
             }
         }
 
-        // Очищаем из конфига
-        flagsConfig.set("flags." + regionId + "." + flagName, null);
-        saveFlags();
+        // Удаляем из хранилища
+        flagsStore.remove(regionId + "." + flagName);
+        plugin.getRegionEvents().fire(RegionEvent.Type.FLAG_CHANGED, regionId);
     }
 
     /**
      * Остановка менеджера
      */
     public void shutdown() {
-        if (flagTask != null) {
-            flagTask.cancel();
+        if (preloader != null) {
+            preloader.shutdown();
         }
-        saveFlags();
+        plugin.getDeadlineScheduler().cancelByPrefix(EXPIRATION_KEY_PREFIX);
+        flagsStore.close();
     }
 
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return region;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 
     private String getRegionOwnerName(ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
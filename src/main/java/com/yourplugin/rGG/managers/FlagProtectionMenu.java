@@ -593,17 +593,6 @@ public class FlagProtectionMenu {
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                com.sk89q.worldguard.protection.managers.RegionManager regionManager =
-                        plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    return regionManager.getRegion(regionId);
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 }
\ No newline at end of file
@@ -3,47 +3,43 @@ package com.yourplugin.rGG.managers;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.yourplugin.rGG.RGProtectPlugin;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class HeightExpansionManager {
 
+    // Префикс ключей сроков в общем планировщике
+    private static final String EXPIRATION_KEY_PREFIX = "height:";
+    private static final String WARNING_KEY_PREFIX = "height-warn:";
+
     private final RGProtectPlugin plugin;
     // Хранение времени истечения расширения для каждого региона
     private final Map<String, Long> regionExpansionTimes;
     // Хранение оригинальных границ регионов
     private final Map<String, RegionBounds> originalBounds;
-    // Хранение последних уведомлений для каждого региона
-    private final Map<String, Set<Integer>> sentNotifications;
-    // Задача обновления таймеров
-    private BukkitTask timerTask;
-    // Файл для сохранения данных расширений
-    private File expansionFile;
-    private FileConfiguration expansionConfig;
+    // Предупреждения о скором истечении
+    private final ExpiryWarningNotifier warningNotifier;
+    // Хранилище расширений (height-expansions.yml + журнал изменений)
+    private RecordStore expansionStore;
+    // Загрузка расширений, истекающих в ближайшее окно
+    private ExpirationPreloader preloader;
 
     public HeightExpansionManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         this.regionExpansionTimes = new ConcurrentHashMap<>();
         this.originalBounds = new ConcurrentHashMap<>();
-        this.sentNotifications = new ConcurrentHashMap<>();
+        this.warningNotifier = new ExpiryWarningNotifier(plugin, WARNING_KEY_PREFIX,
+                ExpiryWarningNotifier.readThresholds(plugin, "height-expansion.warning-seconds", 1800, 600, 300, 60),
+                this::findOwnerName, this::sendExpirationWarnings);
 
-        // Загружаем сохраненные расширения
+        // Загружаем сохраненные расширения (сроки и предупреждения регистрируются в общем планировщике)
         loadExpansions();
-
-        // Запускаем задачу проверки таймеров
-        startTimerTask();
     }
 
     /**
@@ -60,63 +56,71 @@ public class HeightExpansionManager {
     }
 
     /**
-     * Загрузка сохраненных расширений из файла
+     * Загрузка сохраненных расширений: при запуске только истекающие в ближайшее окно,
+     * остальные читаются из хранилища при обращении к расширению региона
      */
     private void loadExpansions() {
-        expansionFile = new File(plugin.getDataFolder(), "height-expansions.yml");
+        expansionStore = plugin.getStorageBackend().openStore(DataStore.HEIGHT_EXPANSIONS);
+        preloader = new ExpirationPreloader(plugin, expansionStore, this::loadExpansion);
+        int loaded = preloader.start();
+        plugin.getLogger().info("Загружено расширений по высоте, истекающих в ближайшее окно: " + loaded);
+    }
 
-        if (!expansionFile.exists()) {
-            try {
-                if (expansionFile.createNewFile()) {
-                    plugin.getLogger().info("Создан файл height-expansions.yml");
-                }
-            } catch (IOException e) {
-                plugin.getLogger().warning("Не удалось создать файл height-expansions.yml: " + e.getMessage());
-            }
+    /**
+     * Загружает расширение из записи хранилища, если оно еще не в памяти
+     */
+    private void loadExpansion(String regionId, Map<String, Object> fields) {
+        if (regionExpansionTimes.containsKey(regionId)) {
+            return;
         }
 
-        expansionConfig = YamlConfiguration.loadConfiguration(expansionFile);
+        long expirationTime = RecordStore.getLong(fields, "expiration", 0L);
+        int originalMinY = RecordStore.getInt(fields, "original-min-y", 0);
+        int originalMaxY = RecordStore.getInt(fields, "original-max-y", 0);
 
-        // Загружаем все сохраненные расширения
-        if (expansionConfig.contains("expansions")) {
-            org.bukkit.configuration.ConfigurationSection section = expansionConfig.getConfigurationSection("expansions");
-            if (section != null) {
-                for (String regionId : section.getKeys(false)) {
-                    long expirationTime = expansionConfig.getLong("expansions." + regionId + ".expiration");
-                    int originalMinY = expansionConfig.getInt("expansions." + regionId + ".original-min-y");
-                    int originalMaxY = expansionConfig.getInt("expansions." + regionId + ".original-max-y");
+        originalBounds.put(regionId, new RegionBounds(originalMinY, originalMaxY));
+        regionExpansionTimes.put(regionId, expirationTime);
+        scheduleExpiration(regionId, expirationTime);
 
-                    regionExpansionTimes.put(regionId, expirationTime);
-                    originalBounds.put(regionId, new RegionBounds(originalMinY, originalMaxY));
-                    sentNotifications.put(regionId, new HashSet<>());
+        plugin.getLogger().info("Загружено временное расширение для региона " + regionId +
+                ", истекает: " + new Date(expirationTime));
+    }
 
-                    plugin.getLogger().info("Загружено временное расширение для региона " + regionId +
-                            ", истекает: " + new Date(expirationTime));
-                }
+    /**
+     * Время истечения расширения региона (расширение вне окна загрузки читается из хранилища)
+     * @return Время или null если расширения нет
+     */
+    private Long getExpansionExpiration(String regionId) {
+        Long expiration = regionExpansionTimes.get(regionId);
+        if (expiration == null && regionId != null) {
+            Map<String, Object> fields = expansionStore.get(regionId);
+            if (fields != null) {
+                loadExpansion(regionId, fields);
+                expiration = regionExpansionTimes.get(regionId);
             }
         }
+        return expiration;
     }
 
     /**
-     * Сохранение расширений в файл
+     * Сохранение расширения региона (одна запись в журнал)
      */
-    private void saveExpansions() {
-        for (Map.Entry<String, Long> entry : regionExpansionTimes.entrySet()) {
-            final String regionId = entry.getKey();
-            RegionBounds bounds = originalBounds.get(regionId);
-
-            if (bounds != null) {
-                expansionConfig.set("expansions." + regionId + ".expiration", entry.getValue());
-                expansionConfig.set("expansions." + regionId + ".original-min-y", bounds.minY);
-                expansionConfig.set("expansions." + regionId + ".original-max-y", bounds.maxY);
-            }
+    private void saveExpansion(String regionId) {
+        Long expirationTime = regionExpansionTimes.get(regionId);
+        RegionBounds bounds = originalBounds.get(regionId);
+        if (expirationTime == null || bounds == null) {
+            return;
         }
 
-        try {
-            expansionConfig.save(expansionFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Не удалось сохранить расширения: " + e.getMessage());
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("expiration", expirationTime);
+        fields.put("original-min-y", bounds.minY);
+        fields.put("original-max-y", bounds.maxY);
+        org.bukkit.World world = findWorldForRegion(regionId);
+        if (world != null) {
+            fields.put("world", world.getName());
         }
+        expansionStore.put(regionId, fields);
     }
 
     /**
@@ -150,6 +154,9 @@ public class HeightExpansionManager {
 
         plugin.getLogger().info("Мир найден: " + world.getName());
 
+        // Оригинальные границы активного расширения могут быть еще не прочитаны из хранилища
+        getExpansionExpiration(regionId);
+
         // Сохраняем оригинальные границы ДО изменения региона
         if (!originalBounds.containsKey(regionId)) {
             RegionBounds bounds = new RegionBounds(
@@ -196,9 +203,10 @@ public class HeightExpansionManager {
         }
 
         regionExpansionTimes.put(regionId, expirationTime);
-        sentNotifications.put(regionId, new HashSet<>());
+        scheduleExpiration(regionId, expirationTime);
 
-        saveExpansions();
+        saveExpansion(regionId);
+        plugin.getRegionEvents().fire(RegionEvent.Type.RESIZED, regionId, world, updatedRegion);
 
         plugin.getLogger().info("Активировано временное расширение по высоте для региона " + regionId +
                 " на " + formatSecondsToTime(seconds));
@@ -236,6 +244,9 @@ public class HeightExpansionManager {
 
         plugin.getLogger().info("Мир найден: " + world.getName());
 
+        // Оригинальные границы активного расширения могут быть еще не прочитаны из хранилища
+        getExpansionExpiration(regionId);
+
         // КРИТИЧЕСКОЕ ИСПРАВЛЕНИЕ: Сохраняем оригинальные границы ДО изменения региона
         if (!originalBounds.containsKey(regionId)) {
             RegionBounds bounds = new RegionBounds(
@@ -282,9 +293,10 @@ public class HeightExpansionManager {
         }
 
         regionExpansionTimes.put(regionId, expirationTime);
-        sentNotifications.put(regionId, new HashSet<>());
+        scheduleExpiration(regionId, expirationTime);
 
-        saveExpansions();
+        saveExpansion(regionId);
+        plugin.getRegionEvents().fire(RegionEvent.Type.RESIZED, regionId, world, updatedRegion);
         plugin.getLogger().info("Данные расширения сохранены");
 
         // ИСПРАВЛЕНИЕ: Границы НЕ ТРОГАЕМ, они должны остаться на месте!
@@ -326,9 +338,8 @@ public class HeightExpansionManager {
             BlockVector3 newMin = BlockVector3.at(minX, minY, minZ);
             BlockVector3 newMax = BlockVector3.at(maxX, maxY, maxZ);
 
-            // Получаем RegionManager для обновления региона
-            Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-            if (regionManager == null) {
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+            if (gateway.getRegionManager(world) == null) {
                 plugin.getLogger().severe("RegionManager не найден для мира " + world.getName());
                 return false;
             }
@@ -342,50 +353,20 @@ public class HeightExpansionManager {
             newRegion.setFlags(region.getFlags());
             newRegion.setPriority(region.getPriority());
 
-            try {
-                // АТОМАРНАЯ замена региона
-                java.lang.reflect.Method removeRegionMethod = regionManager.getClass()
-                        .getMethod("removeRegion", String.class);
-                java.lang.reflect.Method addRegionMethod = regionManager.getClass()
-                        .getMethod("addRegion", ProtectedRegion.class);
-                java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-
-                // Удаляем старый регион
-                removeRegionMethod.invoke(regionManager, region.getId());
-                plugin.getLogger().info("Старый регион удален для замены");
-
-                // Добавляем новый регион с расширенной высотой
-                addRegionMethod.invoke(regionManager, newRegion);
-                plugin.getLogger().info("Новый регион с расширенной высотой добавлен");
-
-                // Сохраняем изменения
-                saveMethod.invoke(regionManager);
-                plugin.getLogger().info("Изменения сохранены");
-
-                plugin.getLogger().info("Регион " + region.getId() + " БЕЗОПАСНО расширен по высоте: " + minY + " -> " + maxY);
-                plugin.getLogger().info("X/Z границы сохранены: X=" + minX + "->" + maxX + ", Z=" + minZ + "->" + maxZ);
-                return true;
-
-            } catch (Exception e) {
-                plugin.getLogger().severe("Ошибка при замене региона: " + e.getMessage());
-                e.printStackTrace();
-
-                // Пытаемся восстановить оригинальный регион
-                try {
-                    java.lang.reflect.Method addRegionMethod = regionManager.getClass()
-                            .getMethod("addRegion", ProtectedRegion.class);
-                    addRegionMethod.invoke(regionManager, region);
-
-                    java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-                    saveMethod.invoke(regionManager);
-
-                    plugin.getLogger().info("Оригинальный регион восстановлен после ошибки");
-                } catch (Exception restoreEx) {
-                    plugin.getLogger().severe("КРИТИЧЕСКАЯ ОШИБКА: Не удалось восстановить оригинальный регион: " + restoreEx.getMessage());
-                }
-
+            // АТОМАРНАЯ замена региона (при ошибке шлюз возвращает оригинальный регион)
+            if (!gateway.redefineRegion(world, region, newRegion)) {
+                gateway.save(world);
                 return false;
             }
+            plugin.getLogger().info("Новый регион с расширенной высотой добавлен");
+
+            // Сохраняем изменения
+            gateway.save(world);
+            plugin.getLogger().info("Изменения сохранены");
+
+            plugin.getLogger().info("Регион " + region.getId() + " БЕЗОПАСНО расширен по высоте: " + minY + " -> " + maxY);
+            plugin.getLogger().info("X/Z границы сохранены: X=" + minX + "->" + maxX + ", Z=" + minZ + "->" + maxZ);
+            return true;
 
         } catch (Exception e) {
             plugin.getLogger().severe("Ошибка при безопасном расширении региона: " + e.getMessage());
@@ -414,10 +395,9 @@ public class HeightExpansionManager {
 
             // Очищаем данные расширения для несуществующего региона
             regionExpansionTimes.remove(regionId);
+            cancelExpiration(regionId);
             originalBounds.remove(regionId);
-            sentNotifications.remove(regionId);
-            expansionConfig.set("expansions." + regionId, null);
-            saveExpansions();
+            expansionStore.remove(regionId);
 
             return true; // Данные очищены
         }
@@ -429,10 +409,9 @@ public class HeightExpansionManager {
 
             // Очищаем данные расширения
             regionExpansionTimes.remove(regionId);
+            cancelExpiration(regionId);
             originalBounds.remove(regionId);
-            sentNotifications.remove(regionId);
-            expansionConfig.set("expansions." + regionId, null);
-            saveExpansions();
+            expansionStore.remove(regionId);
 
             return true; // Данные очищены
         }
@@ -442,10 +421,9 @@ public class HeightExpansionManager {
 
         // КРИТИЧЕСКОЕ ИСПРАВЛЕНИЕ: Очищаем данные расширения ПОСЛЕ проверок
         regionExpansionTimes.remove(regionId);
+        cancelExpiration(regionId);
         originalBounds.remove(regionId);
-        sentNotifications.remove(regionId);
-        expansionConfig.set("expansions." + regionId, null);
-        saveExpansions();
+        expansionStore.remove(regionId);
 
         // КРИТИЧЕСКОЕ ИСПРАВЛЕНИЕ: Восстанавливаем оригинальные границы ТОЛЬКО если регион существует
         boolean restored = restoreRegionHeight(region, bounds);
@@ -501,8 +479,8 @@ public class HeightExpansionManager {
                 return false;
             }
 
-            Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-            if (regionManager == null) {
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+            if (gateway.getRegionManager(world) == null) {
                 plugin.getLogger().severe("RegionManager не найден для мира " + world.getName());
                 return false;
             }
@@ -516,51 +494,21 @@ public class HeightExpansionManager {
             newRegion.setFlags(currentRegion.getFlags());
             newRegion.setPriority(currentRegion.getPriority());
 
-            try {
-                // БЕЗОПАСНАЯ замена региона
-                java.lang.reflect.Method removeRegionMethod = regionManager.getClass().getMethod("removeRegion", String.class);
-                java.lang.reflect.Method addRegionMethod = regionManager.getClass().getMethod("addRegion", ProtectedRegion.class);
-                java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-
-                // Удаляем расширенный регион
-                removeRegionMethod.invoke(regionManager, regionId);
-                plugin.getLogger().info("Расширенный регион удален");
-
-                // Добавляем восстановленный регион
-                addRegionMethod.invoke(regionManager, newRegion);
-                plugin.getLogger().info("Восстановленный регион добавлен");
-
-                // Сохраняем изменения
-                saveMethod.invoke(regionManager);
-                plugin.getLogger().info("Изменения сохранены");
-
-                plugin.getLogger().info("Регион " + regionId + " БЕЗОПАСНО восстановлен к оригинальной высоте: " +
-                        bounds.minY + " -> " + bounds.maxY);
-                plugin.getLogger().info("X/Z границы сохранены: X=" + minX + "->" + maxX + ", Z=" + minZ + "->" + maxZ);
-                return true;
-
-            } catch (Exception e) {
-                plugin.getLogger().severe("Ошибка при восстановлении региона: " + e.getMessage());
-                if (plugin.getConfig().getBoolean("debug.log-stack-traces", false)) {
-                    e.printStackTrace();
-                }
-
-                // КРИТИЧЕСКОЕ ИСПРАВЛЕНИЕ: Пытаемся восстановить оригинальный регион
-                try {
-                    java.lang.reflect.Method addRegionMethod = regionManager.getClass()
-                            .getMethod("addRegion", ProtectedRegion.class);
-                    addRegionMethod.invoke(regionManager, currentRegion);
-
-                    java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-                    saveMethod.invoke(regionManager);
-
-                    plugin.getLogger().info("Оригинальный регион восстановлен после ошибки");
-                } catch (Exception restoreEx) {
-                    plugin.getLogger().severe("КРИТИЧЕСКАЯ ОШИБКА: Не удалось восстановить оригинальный регион: " + restoreEx.getMessage());
-                }
-
+            // БЕЗОПАСНАЯ замена региона (при ошибке шлюз возвращает расширенный регион)
+            if (!gateway.redefineRegion(world, currentRegion, newRegion)) {
+                gateway.save(world);
                 return false;
             }
+            plugin.getLogger().info("Восстановленный регион добавлен");
+
+            // Сохраняем изменения
+            gateway.save(world);
+            plugin.getLogger().info("Изменения сохранены");
+
+            plugin.getLogger().info("Регион " + regionId + " БЕЗОПАСНО восстановлен к оригинальной высоте: " +
+                    bounds.minY + " -> " + bounds.maxY);
+            plugin.getLogger().info("X/Z границы сохранены: X=" + minX + "->" + maxX + ", Z=" + minZ + "->" + maxZ);
+            return true;
 
         } catch (Exception e) {
             plugin.getLogger().severe("Ошибка при восстановлении региона: " + e.getMessage());
@@ -572,37 +520,24 @@ public class HeightExpansionManager {
     }
 
     /**
-     * Запуск задачи проверки таймеров
+     * Регистрирует (или переносит) срок истечения расширения в общем планировщике.
+     * Срок срабатывает один раз, поэтому повторной обработки истекшего расширения нет.
      */
-    private void startTimerTask() {
-        timerTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                checkExpiredExpansions();
-                sendNotifications();
+    private void scheduleExpiration(String regionId, long expirationTime) {
+        plugin.getDeadlineScheduler().schedule(EXPIRATION_KEY_PREFIX + regionId, expirationTime, () -> {
+            if (regionExpansionTimes.containsKey(regionId)) {
+                handleExpiredExpansion(regionId);
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Каждую секунду
+        });
+        warningNotifier.schedule(regionId, expirationTime);
     }
 
     /**
-     * ИСПРАВЛЕННАЯ проверка истекших расширений - БЕЗ СПАМА
+     * Отменяет срок истечения расширения и предупреждения о нем
      */
-    private void checkExpiredExpansions() {
-        Set<String> expiredRegions = new HashSet<>();
-        long currentTime = System.currentTimeMillis();
-
-        for (Map.Entry<String, Long> entry : regionExpansionTimes.entrySet()) {
-            if (currentTime >= entry.getValue()) {
-                expiredRegions.add(entry.getKey());
-            }
-        }
-
-        // ИСПРАВЛЕНИЕ: Обрабатываем истекшие расширения только один раз
-        for (String regionId : expiredRegions) {
-            if (regionExpansionTimes.containsKey(regionId)) {
-                handleExpiredExpansion(regionId);
-            }
-        }
+    private void cancelExpiration(String regionId) {
+        plugin.getDeadlineScheduler().cancel(EXPIRATION_KEY_PREFIX + regionId);
+        warningNotifier.cancel(regionId);
     }
 
     /**
@@ -644,71 +579,45 @@ public class HeightExpansionManager {
     }
 
     /**
-     * Отправка уведомлений о скором истечении
+     * Отправка предупреждений об истечении расширения.
+     * Несколько регионов, истекающих одновременно, объединяются в одно сообщение.
      */
-    private void sendNotifications() {
-        // Интервалы уведомлений (в минутах)
-        int[] notificationIntervals = {30, 10, 5, 1}; // 30 мин, 10 мин, 5 мин, 1 мин
-
-        for (Map.Entry<String, Long> entry : regionExpansionTimes.entrySet()) {
-            String regionId = entry.getKey();
-            long remaining = entry.getValue() - System.currentTimeMillis();
-
-            if (remaining <= 0) continue;
-
-            long remainingMinutes = remaining / 60000;
-
-            Set<Integer> sent = sentNotifications.get(regionId);
-            if (sent == null) {
-                sent = new HashSet<>();
-                sentNotifications.put(regionId, sent);
-            }
-
-            // Проверяем каждый интервал
-            for (int interval : notificationIntervals) {
-                if (remainingMinutes <= interval && remainingMinutes > interval - 1 && !sent.contains(interval)) {
-                    sendExpirationWarning(regionId, interval + " минут");
-                    sent.add(interval);
-                }
-            }
-        }
-    }
-
-    /**
-     * Отправка предупреждения об истечении расширения
-     */
-    private void sendExpirationWarning(String regionId, String timeLeft) {
-        String ownerName = getRegionOwnerName(regionId);
-        Player owner = plugin.getServer().getPlayer(ownerName);
-
-        if (owner != null && owner.isOnline()) {
+    private void sendExpirationWarnings(Player owner, List<ExpiryWarningNotifier.Warning> warnings) {
+        if (warnings.size() == 1) {
             String message = plugin.getConfig().getString("messages.height-expansion-warning",
                     "&e⚠ Расширение по высоте истекает через {time}! Не забудьте продлить.");
-            message = message.replace("{time}", timeLeft);
-
+            message = message.replace("{time}", warnings.get(0).timeLeft);
             owner.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
-
-            // Звуковое уведомление
-            owner.playSound(owner.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 0.5f);
+        } else {
+            String header = plugin.getConfig().getString("messages.height-expansion-warning-digest",
+                    "&e⚠ Расширение по высоте скоро истекает в {count} регионах! Не забудьте продлить:");
+            owner.sendMessage(ChatColor.translateAlternateColorCodes('&', header.replace("{count}", String.valueOf(warnings.size()))));
+            for (ExpiryWarningNotifier.Warning warning : warnings) {
+                owner.sendMessage(ChatColor.GRAY + " - " + ChatColor.WHITE + warning.regionId +
+                        ChatColor.YELLOW + " через " + ChatColor.RED + warning.timeLeft);
+            }
         }
+
+        // Звуковое уведомление
+        owner.playSound(owner.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 0.5f);
     }
 
     /**
      * Проверка, активно ли расширение по высоте
      */
     public boolean hasHeightExpansion(String regionId) {
-        return regionExpansionTimes.containsKey(regionId);
+        return getExpansionExpiration(regionId) != null;
     }
 
     /**
      * Получение оставшегося времени расширения
      */
     public long getRemainingTime(String regionId) {
-        if (!regionExpansionTimes.containsKey(regionId)) {
+        Long expiration = getExpansionExpiration(regionId);
+        if (expiration == null) {
             return -1;
         }
 
-        long expiration = regionExpansionTimes.get(regionId);
         long remaining = expiration - System.currentTimeMillis();
 
         return remaining > 0 ? remaining : 0;
@@ -825,48 +734,27 @@ public class HeightExpansionManager {
      * Остановка менеджера
      */
     public void shutdown() {
-        if (timerTask != null) {
-            timerTask.cancel();
+        if (preloader != null) {
+            preloader.shutdown();
         }
-        saveExpansions();
+        plugin.getDeadlineScheduler().cancelByPrefix(EXPIRATION_KEY_PREFIX);
+        warningNotifier.cancelAll();
+        expansionStore.close();
     }
 
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return region;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 
     private org.bukkit.World findWorldForRegion(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return world;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findWorldForRegion(regionId);
+    }
+
+    private String findOwnerName(String regionId) {
+        ProtectedRegion region = findRegionById(regionId);
+        return region != null ? getRegionOwnerName(regionId) : null;
     }
 
     private String getRegionOwnerName(String regionId) {
@@ -877,7 +765,7 @@ public class HeightExpansionManager {
 
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
@@ -524,17 +524,6 @@ public class HeightExpansionMenu {
                 }, 20L);
             }
 
-            // Обновляем голограмму после успешного расширения
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                try {
-                    String ownerName = getRegionOwnerName(afterRegion);
-                    plugin.getHologramManager().updateHologram(regionId, ownerName);
-                    plugin.getLogger().info("Голограмма обновлена после расширения по высоте");
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Ошибка при обновлении голограммы: " + e.getMessage());
-                }
-            }, 25L);
-
             // Закрываем меню
             player.closeInventory();
 
@@ -605,20 +594,6 @@ public class HeightExpansionMenu {
                     "&e⚡ Временное расширение по высоте отключено. Регион вернулся к обычной высоте.");
             player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
 
-            // ИСПРАВЛЕНИЕ: Обновляем голограмму после отключения
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                try {
-                    ProtectedRegion region = findRegionById(regionId);
-                    if (region != null) {
-                        String ownerName = getRegionOwnerName(region);
-                        plugin.getHologramManager().updateHologram(regionId, ownerName);
-                        plugin.getLogger().info("Голограмма обновлена после отключения расширения");
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Ошибка при обновлении голограммы: " + e.getMessage());
-                }
-            }, 10L);
-
             // Возвращаемся в основное меню с задержкой
             player.closeInventory();
             Bukkit.getScheduler().runTaskLater(plugin, () -> {
@@ -681,7 +656,7 @@ public class HeightExpansionMenu {
     private String getRegionOwnerName(ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             java.util.UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
@@ -695,17 +670,6 @@ public class HeightExpansionMenu {
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                com.sk89q.worldguard.protection.managers.RegionManager regionManager =
-                        plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    return regionManager.getRegion(regionId);
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.yourplugin.rGG.managers;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Скомпилированная строка голограммы.
+ *
+ * Строка из hologram.lines один раз разбирается на текстовые сегменты (с уже переведенными
+ * цветовыми кодами) и слоты плейсхолдеров. Отрисовка - один проход StringBuilder,
+ * значения слотов берутся у {@link Resolver}.
+ */
+public class HologramLineTemplate {
+
+    /**
+     * Плейсхолдеры строк голограмм
+     */
+    public enum Placeholder {
+        PLAYER("{player}", false),
+        OWNER("{owner}", false),
+        DATE("{date}", false),
+        REGION("{region}", false),
+        TIMER("{timer}", true),
+        HEIGHT_EXPANSION("{height_expansion}", true),
+        FLAG_PROTECTION("{flag_protection}", true),
+        SIZE("{size}", false),
+        LEVEL("{level}", false),
+        TIME("{time}", true);
+
+        private final String token;
+        private final boolean dynamic;
+
+        Placeholder(String token, boolean dynamic) {
+            this.token = token;
+            this.dynamic = dynamic;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Меняется ли значение со временем (обратный отсчет, часы). Остальные значения
+         * перерисовываются по событиям изменения региона
+         */
+        public boolean isDynamic() {
+            return dynamic;
+        }
+
+        private static Placeholder byToken(String token) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(token)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Источник значений плейсхолдеров
+     */
+    public interface Resolver {
+        String resolve(Placeholder placeholder);
+    }
+
+    // literals.length == slots.length + 1: literal[0] slot[0] literal[1] ... slot[n-1] literal[n]
+    private final String[] literals;
+    private final Placeholder[] slots;
+    private final boolean dynamic;
+    private final int literalLength;
+
+    private HologramLineTemplate(String[] literals, Placeholder[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        boolean hasDynamic = false;
+        for (Placeholder slot : slots) {
+            hasDynamic |= slot.isDynamic();
+        }
+        this.dynamic = hasDynamic;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Разбирает строку из конфига. Неизвестные {теги} остаются текстом.
+     */
+    public static HologramLineTemplate compile(String line) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < line.length()) {
+            int open = line.indexOf('{', position);
+            if (open < 0) {
+                literal.append(line, position, line.length());
+                break;
+            }
+
+            int close = line.indexOf('}', open);
+            Placeholder placeholder = close < 0 ? null : Placeholder.byToken(line.substring(open, close + 1));
+            if (placeholder == null) {
+                literal.append(line, position, open + 1);
+                position = open + 1;
+                continue;
+            }
+
+            literal.append(line, position, open);
+            literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+            literal.setLength(0);
+            slots.add(placeholder);
+            position = close + 1;
+        }
+        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+
+        return new HologramLineTemplate(literals.toArray(new String[0]), slots.toArray(new Placeholder[0]));
+    }
+
+    /**
+     * Есть ли в строке плейсхолдеры, меняющиеся со временем
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * Совпадает ли текст с отрисовкой этой строки (например, имя старого ArmorStand).
+     * Плейсхолдеры, для которых resolver возвращает null, совпадают с любым значением
+     */
+    public boolean matches(String text, Resolver resolver) {
+        StringBuilder regex = new StringBuilder(Pattern.quote(literals[0]));
+        for (int i = 0; i < slots.length; i++) {
+            String value = resolver.resolve(slots[i]);
+            regex.append(value != null ? Pattern.quote(value) : ".*?");
+            regex.append(Pattern.quote(literals[i + 1]));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL).matcher(text).matches();
+    }
+
+    /**
+     * Отрисовывает строку
+     * @param buffer Переиспользуемый буфер (очищается)
+     * @param resolver Источник значений плейсхолдеров
+     */
+    public String render(StringBuilder buffer, Resolver resolver) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength + slots.length * 16);
+        buffer.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = resolver.resolve(slots[i]);
+            buffer.append(value != null ? value : "");
+            buffer.append(literals[i + 1]);
+        }
+        return buffer.toString();
+    }
+}
@@ -1,8 +1,8 @@
 package com.yourplugin.rGG.managers;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.EntityType;
 import org.bukkit.ChatColor;
 import org.bukkit.scheduler.BukkitRunnable;
 
@@ -31,22 +31,60 @@ import java.util.UUID;
 public class HologramManager {
 
     private final RGProtectPlugin plugin;
-    private final Map<String, List<ArmorStand>> holograms;
+    private final Map<String, RenderedHologram> holograms;
     private final Map<String, Long> lastUpdateTimes;
+    private final HologramRenderer renderer;
 
     // Кэш для быстрого доступа к данным голограмм
     private final Map<String, HologramData> hologramCache;
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Скомпилированные строки голограмм из конфига
+    private List<HologramLineTemplate> lineTemplates;
+    private boolean hasDynamicLines;
+
+    // Голограмм пропущено при последнем обновлении (далеко от игроков)
+    private int lastSkippedUpdates;
+
+    // Распределенное по тикам обновление голограмм
+    private HologramRefresher refresher;
+
+    // Сохраненные голограммы и индекс по чанкам: мир -> ключ чанка -> ID регионов.
+    // Сущности создаются только для голограмм в загруженных чанках
+    private RecordStore hologramStore;
+    private final Map<String, Map<Long, java.util.Set<String>>> chunkIndex = new HashMap<>();
+
+    // Буфер и контекст отрисовки строк
+    private final StringBuilder renderBuffer = new StringBuilder(64);
+    private final LineContext lineContext = new LineContext();
+
     public HologramManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         this.holograms = new HashMap<>();
         this.lastUpdateTimes = new HashMap<>();
         this.hologramCache = new HashMap<>();
+        this.renderer = HologramRenderer.create(plugin, plugin.getConfig().getString("hologram.renderer", "text_display"));
+        loadLines();
 
         // Запускаем задачу обновления голограмм
         startUpdateTask();
 
-        plugin.getLogger().info("HologramManager инициализирован");
+        // Голограммы перерисовываются по событиям изменения регионов; опрос нужен только для отсчетов
+        plugin.getRegionEvents().subscribe(this::onRegionEvent, RegionEvent.Type.DELETED, RegionEvent.Type.RESIZED,
+                RegionEvent.Type.TIMER_CHANGED, RegionEvent.Type.FLAG_CHANGED, RegionEvent.Type.OWNERS_CHANGED);
+
+        // Сохраненные голограммы загружаем после загрузки регионов; оставшиеся в мире
+        // голограммы из ArmorStand переводим на TextDisplay
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            loadHolograms();
+            if (isLegacyMigrationEnabled()) {
+                migrateLegacyArmorStands();
+            }
+        });
+
+        plugin.getLogger().info("HologramManager инициализирован (рендерер: " + renderer.getType() + ")");
     }
 
     /**
@@ -56,12 +94,49 @@ public class HologramManager {
         public final String playerName;
         public final String creationDate;
         public Location location;
+        // Последний показанный текст каждой строки
+        public String[] renderedLines;
+        // Мир и чанк голограммы для проверки близости игроков
+        public final String worldName;
+        public final long chunkKey;
 
         public HologramData(String playerName, String creationDate, Location location) {
             this.playerName = playerName;
             this.creationDate = creationDate;
             this.location = location.clone();
+            this.worldName = location.getWorld() != null ? location.getWorld().getName() : "";
+            this.chunkKey = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Читает и компилирует строки голограмм из конфига
+     */
+    private void loadLines() {
+        List<String> lines = plugin.getConfig().getStringList("hologram.lines");
+        if (lines.isEmpty()) {
+            // Стандартные строки если конфигурация пуста
+            lines.add("&6Регион игрока: &e{player}");
+            lines.add("&7Создан: &f{date}");
+            lines.add("&7Время жизни: &f{timer}");
+            lines.add("&7Расширение ↕: &f{height_expansion}");
+            lines.add("&dФлаги: &f{flag_protection}");
         }
+
+        List<HologramLineTemplate> templates = new ArrayList<>();
+        boolean dynamic = false;
+        for (String line : lines) {
+            HologramLineTemplate template = HologramLineTemplate.compile(line);
+            templates.add(template);
+            dynamic |= template.isDynamic();
+        }
+
+        lineTemplates = templates;
+        hasDynamicLines = dynamic;
     }
 
     /**
@@ -83,47 +158,27 @@ public class HologramManager {
 
         try {
             // Удаляем существующую голограмму если есть
-            removeHologram(regionName);
-
-            List<String> lines = plugin.getConfig().getStringList("hologram.lines");
-            if (lines.isEmpty()) {
-                // Стандартные строки если конфигурация пуста
-                lines.add("&6Регион игрока: &e{player}");
-                lines.add("&7Создан: &f{date}");
-                lines.add("&7Время жизни: &f{timer}");
-                lines.add("&7Расширение ↕: &f{height_expansion}");
-                lines.add("&dФлаги: &f{flag_protection}");
-            }
+            despawnHologram(regionName);
+            unindexHologram(regionName, hologramCache.get(regionName));
 
-            String currentDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"));
+            String currentDate = LocalDateTime.now().format(DATE_FORMAT);
 
-            List<ArmorStand> hologramStands = new ArrayList<>();
-            double heightOffset = plugin.getConfig().getDouble("hologram.height-offset", 1.5);
+            // Сохраняем данные в кэш и хранилище
+            HologramData data = new HologramData(playerName, currentDate, location);
+            hologramCache.put(regionName, data);
+            indexHologram(regionName, data);
+            persistHologram(regionName, data);
 
-            // Создаем каждую строку голограммы
-            for (int i = 0; i < lines.size(); i++) {
-                String line = processHologramLine(lines.get(i), playerName, regionName, currentDate);
-
-                // Вычисляем позицию для каждой строки
-                Location hologramLoc = location.clone().add(0, heightOffset - (i * 0.25), 0);
-                ArmorStand armorStand = createHologramLine(hologramLoc, line);
-
-                if (armorStand != null) {
-                    hologramStands.add(armorStand);
-                }
+            // Сущности создаются сразу только в загруженном чанке, иначе - при его загрузке
+            if (!isChunkLoaded(data)) {
+                plugin.getLogger().info("Создана голограмма для региона " + regionName + " (чанк не загружен)");
+                return;
             }
 
-            // Сохраняем голограмму
-            if (!hologramStands.isEmpty()) {
-                holograms.put(regionName, hologramStands);
-                lastUpdateTimes.put(regionName, System.currentTimeMillis());
-
-                // Сохраняем данные в кэш
-                HologramData data = new HologramData(playerName, currentDate, location);
-                hologramCache.put(regionName, data);
-
+            RenderedHologram hologram = materializeHologram(regionName, data);
+            if (hologram != null) {
                 plugin.getLogger().info("Создана голограмма для региона " + regionName +
-                        " (" + hologramStands.size() + " строк)");
+                        " (" + hologram.getLineCount() + " строк)");
             } else {
                 plugin.getLogger().warning("Не удалось создать ни одной строки голограммы для региона " + regionName);
             }
@@ -135,94 +190,336 @@ public class HologramManager {
     }
 
     /**
-     * Создает одну строку голограммы
-     * @param location Позиция строки
-     * @param text Текст строки
-     * @return ArmorStand или null при ошибке
+     * Создает сущности голограммы по сохраненным данным
+     * @return Голограмма или null при ошибке
      */
-    private ArmorStand createHologramLine(Location location, String text) {
-        try {
-            if (location.getWorld() == null) {
-                plugin.getLogger().warning("Мир для голограммы равен null");
-                return null;
-            }
+    private RenderedHologram materializeHologram(String regionName, HologramData data) {
+        List<String> processedLines = renderLines(regionName, data);
+        double heightOffset = plugin.getConfig().getDouble("hologram.height-offset", 1.5);
 
-            ArmorStand armorStand = (ArmorStand) location.getWorld().spawnEntity(location, EntityType.ARMOR_STAND);
+        RenderedHologram hologram = renderer.spawn(regionName, data.location.clone().add(0, heightOffset, 0), processedLines);
+        if (hologram != null) {
+            holograms.put(regionName, hologram);
+            lastUpdateTimes.put(regionName, System.currentTimeMillis());
+            data.renderedLines = processedLines.toArray(new String[0]);
+        }
+        return hologram;
+    }
 
-            // Настраиваем ArmorStand как голограмму
-            armorStand.setVisible(false);
-            armorStand.setGravity(false);
-            armorStand.setCanPickupItems(false);
-            armorStand.setCustomName(text);
-            armorStand.setCustomNameVisible(true);
-            armorStand.setInvulnerable(true);
-            armorStand.setMarker(true);
-            armorStand.setSmall(true);
+    /**
+     * Отрисовывает все строки голограммы
+     */
+    private List<String> renderLines(String regionName, HologramData data) {
+        List<String> processedLines = new ArrayList<>();
+        for (HologramLineTemplate line : lineTemplates) {
+            processedLines.add(renderLine(line, data.playerName, regionName, data.creationDate));
+        }
+        return processedLines;
+    }
 
-            // Убираем руки чтобы они не мешали
-            armorStand.setArms(false);
-            armorStand.setBasePlate(false);
+    /**
+     * Удаляет сущности голограммы, сохраняя ее данные
+     * @return Количество удаленных строк
+     */
+    private int despawnHologram(String regionName) {
+        RenderedHologram hologram = holograms.remove(regionName);
+        lastUpdateTimes.remove(regionName);
+        if (hologram == null) {
+            return 0;
+        }
 
-            return armorStand;
+        int lineCount = hologram.getLineCount();
+        hologram.remove();
+        return lineCount;
+    }
 
-        } catch (Exception e) {
-            plugin.getLogger().severe("Ошибка при создании строки голограммы: " + e.getMessage());
-            return null;
+    // ===== СОХРАНЕНИЕ И ЖИЗНЕННЫЙ ЦИКЛ ПО ЧАНКАМ =====
+
+    /**
+     * Загружает сохраненные голограммы загруженных миров и создает сущности в уже загруженных чанках
+     */
+    private void loadHolograms() {
+        if (plugin.getStorageBackend() == null) {
+            return;
         }
+
+        hologramStore = plugin.getStorageBackend().openStore(DataStore.HOLOGRAMS);
+        int loaded = 0;
+        for (World world : plugin.getServer().getWorlds()) {
+            loaded += loadWorldHolograms(world);
+        }
+
+        plugin.getLogger().info("Загружено голограмм: " + loaded + " (создано в загруженных чанках: " + holograms.size() + ")");
     }
+
     /**
-     * Обрабатывает строку голограммы с заменой плейсхолдеров
-     * @param line Исходная строка
-     * @param playerName Имя игрока
-     * @param regionName ID региона
-     * @param currentDate Текущая дата
-     * @return Обработанная строка
+     * Загружает голограммы мира, загруженного после запуска плагина
+     */
+    public void onWorldLoad(World world) {
+        if (hologramStore == null) {
+            return;
+        }
+        int loaded = loadWorldHolograms(world);
+        if (loaded > 0) {
+            plugin.getLogger().info("Загружено голограмм мира " + world.getName() + ": " + loaded);
+        }
+    }
+
+    /**
+     * Загружает голограммы одного мира (выборка по индексу мира)
+     * @return Количество загруженных голограмм
      */
-    private String processHologramLine(String line, String playerName, String regionName, String currentDate) {
-        // Базовые замены
-        line = line.replace("{player}", playerName)
-                .replace("{date}", currentDate)
-                .replace("{region}", regionName);
+    private int loadWorldHolograms(World world) {
+        int loaded = 0;
+
+        for (Map.Entry<String, Map<String, Object>> entry : hologramStore.findByWorld(world.getName()).entrySet()) {
+            String regionName = entry.getKey();
+            Map<String, Object> fields = entry.getValue();
+            if (hologramCache.containsKey(regionName)) {
+                continue;
+            }
 
-        // Обработка тега {timer}
-        if (line.contains("{timer}")) {
-            String timerText = getTimerText(regionName);
-            line = line.replace("{timer}", timerText);
+            Location location = new Location(world,
+                    RecordStore.getDouble(fields, "x", 0),
+                    RecordStore.getDouble(fields, "y", 0),
+                    RecordStore.getDouble(fields, "z", 0));
+            HologramData data = new HologramData(
+                    RecordStore.getString(fields, "owner", "Unknown"),
+                    RecordStore.getString(fields, "date", LocalDateTime.now().format(DATE_FORMAT)),
+                    location);
+
+            hologramCache.put(regionName, data);
+            indexHologram(regionName, data);
+            loaded++;
+
+            if (isChunkLoaded(data)) {
+                materializeHologram(regionName, data);
+            }
         }
+        return loaded;
+    }
 
-        // Обработка тега {height_expansion}
-        if (line.contains("{height_expansion}")) {
-            String heightExpansionText = getHeightExpansionText(regionName);
-            line = line.replace("{height_expansion}", heightExpansionText);
+    private void persistHologram(String regionName, HologramData data) {
+        if (hologramStore == null) {
+            if (plugin.getStorageBackend() == null) {
+                return;
+            }
+            hologramStore = plugin.getStorageBackend().openStore(DataStore.HOLOGRAMS);
         }
 
-        // Обработка тега {flag_protection}
-        if (line.contains("{flag_protection}")) {
-            String flagProtectionText = getFlagProtectionText(regionName);
-            line = line.replace("{flag_protection}", flagProtectionText);
+        Map<String, Object> fields = new java.util.LinkedHashMap<>();
+        fields.put("world", data.worldName);
+        fields.put("x", data.location.getX());
+        fields.put("y", data.location.getY());
+        fields.put("z", data.location.getZ());
+        String owner = data.playerName;
+        if (plugin.getPlayerNameCache().isPlaceholder(owner)) {
+            // Заглушку имени не сохраняем: оставляем прежнее имя, настоящее запишется при обновлении голограммы
+            Map<String, Object> stored = hologramStore.get(regionName);
+            owner = stored != null ? RecordStore.getString(stored, "owner", null) : null;
+        }
+        if (owner != null) {
+            fields.put("owner", owner);
         }
+        fields.put("date", data.creationDate);
+        hologramStore.put(regionName, fields);
+    }
+
+    private void indexHologram(String regionName, HologramData data) {
+        chunkIndex.computeIfAbsent(data.worldName, k -> new HashMap<>())
+                .computeIfAbsent(data.chunkKey, k -> new java.util.HashSet<>())
+                .add(regionName);
+    }
 
-        // Обработка дополнительных тегов
-        if (line.contains("{size}")) {
-            String sizeText = getRegionSizeText(regionName);
-            line = line.replace("{size}", sizeText);
+    private void unindexHologram(String regionName, HologramData data) {
+        if (data == null) {
+            return;
         }
+        Map<Long, java.util.Set<String>> worldIndex = chunkIndex.get(data.worldName);
+        if (worldIndex == null) {
+            return;
+        }
+        java.util.Set<String> regions = worldIndex.get(data.chunkKey);
+        if (regions != null) {
+            regions.remove(regionName);
+            if (regions.isEmpty()) {
+                worldIndex.remove(data.chunkKey);
+            }
+        }
+    }
+
+    private boolean isChunkLoaded(HologramData data) {
+        World world = data.location.getWorld();
+        return world != null && world.isChunkLoaded(data.location.getBlockX() >> 4, data.location.getBlockZ() >> 4);
+    }
 
-        if (line.contains("{level}")) {
-            String levelText = getRegionLevelText(regionName);
-            line = line.replace("{level}", levelText);
+    private java.util.Set<String> getRegionsInChunk(org.bukkit.Chunk chunk) {
+        Map<Long, java.util.Set<String>> worldIndex = chunkIndex.get(chunk.getWorld().getName());
+        if (worldIndex == null) {
+            return java.util.Collections.emptySet();
         }
+        java.util.Set<String> regions = worldIndex.get(chunkKey(chunk.getX(), chunk.getZ()));
+        return regions != null ? new java.util.HashSet<>(regions) : java.util.Collections.emptySet();
+    }
 
-        if (line.contains("{owner}")) {
-            line = line.replace("{owner}", playerName);
+    /**
+     * Создает голограммы загруженного чанка
+     */
+    public void onChunkLoad(org.bukkit.Chunk chunk) {
+        reconcileChunkHolograms(chunk);
+    }
+
+    /**
+     * Удаляет сущности голограмм выгружаемого чанка (данные голограмм сохраняются)
+     */
+    public void onChunkUnload(org.bukkit.Chunk chunk) {
+        for (String regionName : getRegionsInChunk(chunk)) {
+            despawnHologram(regionName);
+        }
+    }
+
+    /**
+     * Приводит голограммы чанка в соответствие с сохраненными: создает отсутствующие
+     * и пересоздает голограммы с потерянными строками
+     * @return Количество созданных или пересозданных голограмм
+     */
+    private int reconcileChunkHolograms(org.bukkit.Chunk chunk) {
+        int repaired = 0;
+        for (String regionName : getRegionsInChunk(chunk)) {
+            HologramData data = hologramCache.get(regionName);
+            if (data == null) {
+                continue;
+            }
+
+            RenderedHologram hologram = holograms.get(regionName);
+            if (hologram != null && hologram.isValid()) {
+                continue;
+            }
+
+            despawnHologram(regionName);
+            if (materializeHologram(regionName, data) != null) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Разбирает сущности, загруженные вместе с чанком. Сущности с меткой группируются по региону:
+     * сущности регионов без голограммы и дубликаты уже показанных голограмм удаляются,
+     * остальные принимаются под управление рендерером. Старые ArmorStand без метки переводятся.
+     * @return Количество удаленных сущностей
+     */
+    public int onEntitiesLoad(List<org.bukkit.entity.Entity> entities) {
+        List<ArmorStand> legacyStands = new ArrayList<>();
+        Map<String, List<org.bukkit.entity.Entity>> tagged = new HashMap<>();
+        int removed = 0;
+
+        for (org.bukkit.entity.Entity entity : entities) {
+            String regionName = HologramRenderer.getTaggedRegion(plugin, entity);
+            if (regionName == null) {
+                if (entity instanceof ArmorStand) {
+                    legacyStands.add((ArmorStand) entity);
+                }
+                continue;
+            }
+
+            HologramData data = hologramCache.get(regionName);
+            RenderedHologram hologram = holograms.get(regionName);
+
+            if (data == null || (hologram != null && !hologram.hasEntity(entity.getUniqueId()))) {
+                // Голограммы региона больше нет, или это дубликат уже показанной голограммы
+                entity.remove();
+                removed++;
+            } else if (hologram == null) {
+                tagged.computeIfAbsent(regionName, k -> new ArrayList<>()).add(entity);
+            }
         }
 
-        if (line.contains("{time}")) {
-            String timeText = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-            line = line.replace("{time}", timeText);
+        double heightOffset = plugin.getConfig().getDouble("hologram.height-offset", 1.5);
+        for (Map.Entry<String, List<org.bukkit.entity.Entity>> entry : tagged.entrySet()) {
+            String regionName = entry.getKey();
+            HologramData data = hologramCache.get(regionName);
+            List<String> lines = renderLines(regionName, data);
+
+            RenderedHologram adopted = renderer.adopt(data.location.clone().add(0, heightOffset, 0), entry.getValue(), lines);
+            if (adopted != null) {
+                holograms.put(regionName, adopted);
+                lastUpdateTimes.put(regionName, System.currentTimeMillis());
+                data.renderedLines = lines.toArray(new String[0]);
+            } else {
+                for (org.bukkit.entity.Entity entity : entry.getValue()) {
+                    entity.remove();
+                    removed++;
+                }
+                materializeHologram(regionName, data);
+            }
         }
 
-        return ChatColor.translateAlternateColorCodes('&', line);
+        if (removed > 0 && plugin.getConfig().getBoolean("debug.log-hologram-operations", false)) {
+            plugin.getLogger().info("Удалено устаревших сущностей голограмм в чанке: " + removed);
+        }
+
+        if (!legacyStands.isEmpty() && isLegacyMigrationEnabled()) {
+            migrateLegacyArmorStands(legacyStands);
+        }
+        return removed;
+    }
+
+    private boolean isLegacyMigrationEnabled() {
+        return renderer instanceof TextDisplayHologramRenderer &&
+                plugin.getConfig().getBoolean("hologram.migrate-armor-stands", true);
+    }
+
+    /**
+     * Отрисовывает скомпилированную строку голограммы
+     * @param template Строка из конфига
+     * @param playerName Имя игрока
+     * @param regionName ID региона
+     * @param currentDate Дата создания
+     * @return Готовая строка с цветами
+     */
+    private String renderLine(HologramLineTemplate template, String playerName, String regionName, String currentDate) {
+        lineContext.playerName = playerName;
+        lineContext.regionName = regionName;
+        lineContext.date = currentDate;
+        return template.render(renderBuffer, lineContext);
+    }
+
+    /**
+     * Значения плейсхолдеров для отрисовываемой строки (переиспользуется, только основной поток)
+     */
+    private class LineContext implements HologramLineTemplate.Resolver {
+        private String playerName;
+        private String regionName;
+        private String date;
+
+        @Override
+        public String resolve(HologramLineTemplate.Placeholder placeholder) {
+            switch (placeholder) {
+                case PLAYER:
+                case OWNER:
+                    return playerName;
+                case DATE:
+                    return date;
+                case REGION:
+                    return regionName;
+                case TIMER:
+                    return getTimerText(regionName);
+                case HEIGHT_EXPANSION:
+                    return getHeightExpansionText(regionName);
+                case FLAG_PROTECTION:
+                    return getFlagProtectionText(regionName);
+                case SIZE:
+                    return getRegionSizeText(regionName);
+                case LEVEL:
+                    return getRegionLevelText(regionName);
+                case TIME:
+                    return LocalDateTime.now().format(TIME_FORMAT);
+                default:
+                    return "";
+            }
+        }
     }
 
     /**
@@ -349,20 +646,14 @@ public class HologramManager {
         }
 
         try {
-            List<ArmorStand> stands = holograms.get(regionName);
-            if (stands != null) {
-                int removedCount = 0;
-                for (ArmorStand stand : stands) {
-                    if (stand != null && !stand.isDead()) {
-                        stand.remove();
-                        removedCount++;
-                    }
+            HologramData data = hologramCache.remove(regionName);
+            if (data != null) {
+                int removedCount = despawnHologram(regionName);
+                unindexHologram(regionName, data);
+                if (hologramStore != null) {
+                    hologramStore.remove(regionName);
                 }
 
-                holograms.remove(regionName);
-                lastUpdateTimes.remove(regionName);
-                hologramCache.remove(regionName);
-
                 plugin.getLogger().info("Удалена голограмма региона " + regionName +
                         " (" + removedCount + " строк)");
             } else {
@@ -383,10 +674,10 @@ public class HologramManager {
         plugin.getLogger().info("Удаление всех голограмм...");
 
         int totalRemoved = 0;
-        for (String regionName : new ArrayList<>(holograms.keySet())) {
-            List<ArmorStand> stands = holograms.get(regionName);
-            if (stands != null) {
-                totalRemoved += stands.size();
+        for (String regionName : new ArrayList<>(hologramCache.keySet())) {
+            RenderedHologram hologram = holograms.get(regionName);
+            if (hologram != null) {
+                totalRemoved += hologram.getLineCount();
             }
             removeHologram(regionName);
         }
@@ -394,6 +685,7 @@ public class HologramManager {
         holograms.clear();
         lastUpdateTimes.clear();
         hologramCache.clear();
+        chunkIndex.clear();
 
         plugin.getLogger().info("Удалено голограмм: " + totalRemoved);
     }
@@ -410,39 +702,56 @@ public class HologramManager {
         }
 
         try {
-            List<ArmorStand> stands = holograms.get(regionName);
-            if (stands == null || stands.isEmpty()) {
+            RenderedHologram hologram = holograms.get(regionName);
+            if (hologram == null) {
                 if (plugin.getConfig().getBoolean("debug.log-hologram-operations", false)) {
                     plugin.getLogger().info("Голограмма для региона " + regionName + " не найдена для обновления");
                 }
                 return;
             }
 
-            List<String> lines = plugin.getConfig().getStringList("hologram.lines");
-            if (lines.isEmpty()) {
-                plugin.getLogger().warning("Строки голограммы не настроены в конфиге");
-                return;
-            }
+            List<HologramLineTemplate> lines = lineTemplates;
 
             // Получаем сохраненную дату создания или используем текущую
             HologramData cachedData = hologramCache.get(regionName);
             String creationDate = cachedData != null ? cachedData.creationDate :
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"));
+                    LocalDateTime.now().format(DATE_FORMAT);
+
+            // При смене владельца перерисовываем и статические строки
+            String[] rendered = cachedData != null ? cachedData.renderedLines : null;
+            boolean ownerChanged = cachedData == null || !playerName.equals(cachedData.playerName);
+            if (ownerChanged && cachedData != null) {
+                HologramData updatedData = new HologramData(playerName, cachedData.creationDate, cachedData.location);
+                updatedData.renderedLines = rendered;
+                hologramCache.put(regionName, updatedData);
+                persistHologram(regionName, updatedData);
+            }
 
-            // Обновляем каждую строку
+            if (!hologram.isValid()) {
+                // Если сущность голограммы мертва, пытаемся пересоздать голограмму
+                plugin.getLogger().warning("Сущность голограммы региона " + regionName + " мертва, пересоздаем голограмму");
+                recreateHologram(regionName, playerName);
+                return;
+            }
+
+            // Обновляем только изменившиеся строки; статические строки не пересчитываются
             int updatedLines = 0;
-            for (int i = 0; i < Math.min(lines.size(), stands.size()); i++) {
-                ArmorStand stand = stands.get(i);
-                if (stand != null && !stand.isDead()) {
-                    String line = processHologramLine(lines.get(i), playerName, regionName, creationDate);
-                    stand.setCustomName(line);
-                    updatedLines++;
-                } else {
-                    // Если ArmorStand мертв, пытаемся пересоздать голограмму
-                    plugin.getLogger().warning("ArmorStand голограммы региона " + regionName + " мертв, пересоздаем голограмму");
-                    recreateHologram(regionName, playerName);
-                    return;
+            for (int i = 0; i < Math.min(lines.size(), hologram.getLineCount()); i++) {
+                HologramLineTemplate template = lines.get(i);
+                if (!ownerChanged && !template.isDynamic() && rendered != null && i < rendered.length && rendered[i] != null) {
+                    continue;
                 }
+
+                String line = renderLine(template, playerName, regionName, creationDate);
+                if (rendered != null && i < rendered.length && line.equals(rendered[i])) {
+                    continue;
+                }
+
+                hologram.setLine(i, line);
+                if (rendered != null && i < rendered.length) {
+                    rendered[i] = line;
+                }
+                updatedLines++;
             }
 
             // Обновляем время последнего обновления
@@ -469,7 +778,10 @@ public class HologramManager {
             HologramData cachedData = hologramCache.get(regionName);
             if (cachedData != null && cachedData.location != null) {
                 plugin.getLogger().info("Пересоздаем голограмму для региона " + regionName);
-                createHologram(cachedData.location, playerName, regionName);
+                despawnHologram(regionName);
+                if (isChunkLoaded(cachedData)) {
+                    materializeHologram(regionName, cachedData);
+                }
             } else {
                 plugin.getLogger().warning("Не удалось пересоздать голограмму для региона " + regionName +
                         " - нет сохраненной позиции");
@@ -479,62 +791,165 @@ public class HologramManager {
         }
     }
 
+    /**
+     * Обрабатывает событие изменения региона
+     */
+    private void onRegionEvent(RegionEvent event) {
+        String regionName = event.getRegionId();
+        HologramData data = hologramCache.get(regionName);
+        if (data == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case DELETED:
+                removeHologram(regionName);
+                break;
+            case OWNERS_CHANGED:
+                com.sk89q.worldguard.protection.regions.ProtectedRegion region =
+                        event.getRegion() != null ? event.getRegion() : findRegionById(regionName);
+                if (region != null) {
+                    changeOwner(regionName, data, extractOwnerName(region));
+                }
+                break;
+            default:
+                invalidateHologram(regionName);
+                break;
+        }
+    }
+
+    /**
+     * Перерисовывает все строки голограммы, включая статические (размер, уровень)
+     */
+    private void invalidateHologram(String regionName) {
+        HologramData data = hologramCache.get(regionName);
+        if (data == null || !holograms.containsKey(regionName)) {
+            return;
+        }
+
+        data.renderedLines = new String[lineTemplates.size()];
+        updateHologram(regionName, data.playerName);
+    }
+
+    /**
+     * Меняет владельца голограммы; голограмма в незагруженном чанке только сохраняется
+     */
+    private void changeOwner(String regionName, HologramData data, String ownerName) {
+        if (ownerName.equals(data.playerName)) {
+            return;
+        }
+
+        if (holograms.containsKey(regionName)) {
+            updateHologram(regionName, ownerName);
+        } else {
+            HologramData updatedData = new HologramData(ownerName, data.creationDate, data.location);
+            hologramCache.put(regionName, updatedData);
+            persistHologram(regionName, updatedData);
+        }
+    }
+
     /**
      * Запускает задачу автоматического обновления голограмм
      */
     private void startUpdateTask() {
-        int updateInterval = plugin.getConfig().getInt("hologram.update-interval", 20);
+        refresher = new HologramRefresher(plugin, this::collectRefreshCycle, this::refreshHologram);
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                try {
-                    updateAllHolograms();
-                } catch (Exception e) {
-                    plugin.getLogger().severe("Ошибка в задаче обновления голограмм: " + e.getMessage());
-                    if (plugin.getConfig().getBoolean("debug.log-stack-traces", false)) {
-                        e.printStackTrace();
-                    }
-                }
+        plugin.getLogger().info("Запущена задача обновления голограмм (интервал: " +
+                plugin.getConfig().getInt("hologram.update-interval", 20) + " тиков, бюджет: " +
+                plugin.getConfig().getLong("hologram.tick-budget-us", 500L) + " мкс/тик)");
+    }
+
+    /**
+     * Собирает голограммы для очередного цикла обновления
+     * @return ID регионов, голограммы которых нужно обновить
+     */
+    private List<String> collectRefreshCycle() {
+        // Без динамических плейсхолдеров текст голограмм со временем не меняется
+        if (holograms.isEmpty() || !hasDynamicLines) {
+            lastSkippedUpdates = 0;
+            return new ArrayList<>();
+        }
+
+        // Обновляем только голограммы рядом с игроками; дальние обновятся, когда к ним подойдут
+        Map<String, java.util.Set<Long>> watchedChunks = collectWatchedChunks();
+        List<String> cycle = new ArrayList<>();
+        int skipped = 0;
+
+        for (String regionName : holograms.keySet()) {
+            if (watchedChunks != null && !isWatched(hologramCache.get(regionName), watchedChunks)) {
+                skipped++;
+            } else {
+                cycle.add(regionName);
             }
-        }.runTaskTimer(plugin, updateInterval, updateInterval);
+        }
 
-        plugin.getLogger().info("Запущена задача обновления голограмм (интервал: " + updateInterval + " тиков)");
+        lastSkippedUpdates = skipped;
+        return cycle;
     }
+
     /**
-     * Обновляет все голограммы
+     * Обновляет одну голограмму в цикле обновления
+     * @param regionName ID региона
      */
-    private void updateAllHolograms() {
-        if (holograms.isEmpty()) {
+    private void refreshHologram(String regionName) {
+        RenderedHologram hologram = holograms.get(regionName);
+        if (hologram == null) {
             return;
         }
 
-        // Проверяем существование голограмм и обновляем их
-        for (Map.Entry<String, List<ArmorStand>> entry : new HashMap<>(holograms).entrySet()) {
-            String regionName = entry.getKey();
-            List<ArmorStand> stands = entry.getValue();
+        if (hologram.getLineCount() == 0) {
+            // Если голограмма уже удалена из мира, убираем ее из учета
+            removeHologram(regionName);
+            plugin.getLogger().info("Удалена пустая голограмма: " + regionName);
+        } else {
+            // Обновляем существующую голограмму
+            String ownerName = getRegionOwnerName(regionName);
+            if (ownerName != null) {
+                updateHologram(regionName, ownerName);
+            }
+        }
+    }
 
-            try {
-                // Удаляем мертвые ArmorStand'ы
-                stands.removeIf(stand -> stand == null || stand.isDead());
-
-                if (stands.isEmpty()) {
-                    // Если все ArmorStand'ы мертвы, удаляем голограмму
-                    holograms.remove(regionName);
-                    lastUpdateTimes.remove(regionName);
-                    hologramCache.remove(regionName);
-                    plugin.getLogger().info("Удалена голограмма с мертвыми ArmorStand'ами: " + regionName);
-                } else {
-                    // Обновляем существующую голограмму
-                    String ownerName = getRegionOwnerName(regionName);
-                    if (ownerName != null) {
-                        updateHologram(regionName, ownerName);
+    /**
+     * Собирает загруженные чанки в радиусе hologram.update-radius от игроков
+     * @return Мир -> ключи чанков, или null если проверка близости отключена
+     */
+    private Map<String, java.util.Set<Long>> collectWatchedChunks() {
+        int radius = plugin.getConfig().getInt("hologram.update-radius", 64);
+        if (radius <= 0) {
+            return null;
+        }
+
+        int chunkRadius = (radius + 15) >> 4;
+        Map<String, java.util.Set<Long>> watched = new HashMap<>();
+
+        for (org.bukkit.entity.Player player : plugin.getServer().getOnlinePlayers()) {
+            World world = player.getWorld();
+            java.util.Set<Long> chunks = watched.computeIfAbsent(world.getName(), k -> new java.util.HashSet<>());
+            int centerX = player.getLocation().getBlockX() >> 4;
+            int centerZ = player.getLocation().getBlockZ() >> 4;
+
+            for (int x = centerX - chunkRadius; x <= centerX + chunkRadius; x++) {
+                for (int z = centerZ - chunkRadius; z <= centerZ + chunkRadius; z++) {
+                    if (world.isChunkLoaded(x, z)) {
+                        chunks.add(chunkKey(x, z));
                     }
                 }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Ошибка при обновлении голограммы " + regionName + ": " + e.getMessage());
             }
         }
+
+        return watched;
+    }
+
+    /**
+     * Проверяет, находится ли голограмма в загруженном чанке рядом с игроком
+     */
+    private boolean isWatched(HologramData data, Map<String, java.util.Set<Long>> watchedChunks) {
+        if (data == null) {
+            return true;
+        }
+        java.util.Set<Long> chunks = watchedChunks.get(data.worldName);
+        return chunks != null && chunks.contains(data.chunkKey);
     }
 
     /**
@@ -544,36 +959,26 @@ public class HologramManager {
      */
     private String getRegionOwnerName(String regionName) {
         try {
-            // Сначала проверяем кэш
+            // Сначала проверяем кэш (заглушку имени, пока оно разрешается, не используем)
             HologramData cachedData = hologramCache.get(regionName);
-            if (cachedData != null && cachedData.playerName != null) {
+            if (cachedData != null && cachedData.playerName != null &&
+                    !plugin.getPlayerNameCache().isPlaceholder(cachedData.playerName)) {
                 return cachedData.playerName;
             }
 
-            // Ищем регион во всех мирах
-            for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-                try {
-                    Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                    if (regionManager != null) {
-                        java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                        com.sk89q.worldguard.protection.regions.ProtectedRegion region =
-                                (com.sk89q.worldguard.protection.regions.ProtectedRegion) getRegionMethod.invoke(regionManager, regionName);
-
-                        if (region != null) {
-                            // Получаем имя владельца
-                            String ownerName = extractOwnerName(region);
-
-                            // Обновляем кэш
-                            if (cachedData != null) {
-                                hologramCache.put(regionName, new HologramData(ownerName, cachedData.creationDate, cachedData.location));
-                            }
-
-                            return ownerName;
-                        }
-                    }
-                } catch (Exception e) {
-                    // Игнорируем ошибки поиска в конкретном мире
+            com.sk89q.worldguard.protection.regions.ProtectedRegion region = findRegionById(regionName);
+            if (region != null) {
+                // Получаем имя владельца
+                String ownerName = extractOwnerName(region);
+
+                // Обновляем кэш
+                if (cachedData != null) {
+                    HologramData updatedData = new HologramData(ownerName, cachedData.creationDate, cachedData.location);
+                    updatedData.renderedLines = cachedData.renderedLines;
+                    hologramCache.put(regionName, updatedData);
                 }
+
+                return ownerName;
             }
         } catch (Exception e) {
             plugin.getLogger().warning("Ошибка при получении владельца региона " + regionName + ": " + e.getMessage());
@@ -591,7 +996,7 @@ public class HologramManager {
         try {
             if (!region.getOwners().getUniqueIds().isEmpty()) {
                 UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-                String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+                String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
                 return ownerName != null ? ownerName : "Unknown";
             }
 
@@ -606,29 +1011,181 @@ public class HologramManager {
     }
 
     /**
-     * Находит регион по ID во всех мирах
+     * Находит регион по ID через общий справочник регионов
      * @param regionId ID региона
      * @return Регион или null
      */
     private com.sk89q.worldguard.protection.regions.ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    com.sk89q.worldguard.protection.regions.ProtectedRegion region =
-                            (com.sk89q.worldguard.protection.regions.ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return region;
-                    }
+        return plugin.getProtectRegionManager().findRegionById(regionId);
+    }
+
+    // ===== ПЕРЕХОД С ARMORSTAND НА TEXTDISPLAY =====
+
+    /**
+     * Переводит на текущий рендерер сохраненные голограммы из ArmorStand во всех загруженных мирах
+     */
+    public void migrateLegacyArmorStands() {
+        int migrated = migrateLegacyArmorStands(false);
+        if (migrated > 0) {
+            plugin.getLogger().info("Голограмм переведено с ArmorStand на " + renderer.getType() + ": " + migrated);
+        }
+    }
+
+    /**
+     * Переводит голограммы из ArmorStand во всех загруженных мирах
+     * @param includeUnstored Переводить и голограммы, которых нет в хранилище голограмм
+     *                        (только по команде /rgp hologram migrate)
+     * @return Количество переведенных голограмм; -1 если текущий рендерер - armor_stand
+     */
+    public int migrateLegacyArmorStands(boolean includeUnstored) {
+        if (renderer instanceof ArmorStandHologramRenderer) {
+            return -1;
+        }
+
+        int migrated = 0;
+        for (World world : plugin.getServer().getWorlds()) {
+            migrated += migrateLegacyArmorStands(world.getEntitiesByClass(ArmorStand.class), includeUnstored);
+        }
+        return migrated;
+    }
+
+    /**
+     * Переводит на текущий рендерер сохраненные голограммы из указанных ArmorStand
+     * @param stands ArmorStand для проверки
+     * @return Количество переведенных голограмм
+     */
+    public int migrateLegacyArmorStands(java.util.Collection<ArmorStand> stands) {
+        return migrateLegacyArmorStands(stands, false);
+    }
+
+    /**
+     * Строки одной голограммы стоят столбиком над блоком привата; по верхней строке
+     * восстанавливается позиция голограммы. Столбец переводится, только если все его строки
+     * совпадают со строками hologram.lines для региона и позиция совпадает с сохраненной
+     * голограммой. Без сохраненной голограммы регион определяется по позиции - только
+     * при includeUnstored. Остальные ArmorStand не трогаются.
+     */
+    private int migrateLegacyArmorStands(java.util.Collection<ArmorStand> stands, boolean includeUnstored) {
+        if (plugin.getProtectRegionManager() == null) {
+            return 0;
+        }
+
+        // Группируем строки по столбцу блоков
+        Map<String, List<ArmorStand>> columns = new HashMap<>();
+        for (ArmorStand stand : stands) {
+            if (isLegacyHologramStand(stand)) {
+                Location loc = stand.getLocation();
+                String key = loc.getWorld().getName() + ":" + loc.getBlockX() + ":" + loc.getBlockZ();
+                columns.computeIfAbsent(key, k -> new ArrayList<>()).add(stand);
+            }
+        }
+
+        double heightOffset = plugin.getConfig().getDouble("hologram.height-offset", 1.5);
+        int migrated = 0;
+
+        for (List<ArmorStand> column : columns.values()) {
+            ArmorStand top = column.get(0);
+            for (ArmorStand stand : column) {
+                if (stand.getLocation().getY() > top.getLocation().getY()) {
+                    top = stand;
                 }
-            } catch (Exception e) {
-                // Игнорируем ошибки поиска в конкретном мире
+            }
+
+            Location hologramLocation = top.getLocation().clone().subtract(0, heightOffset, 0);
+            hologramLocation.setYaw(0);
+            hologramLocation.setPitch(0);
+
+            String regionName = findStoredHologramAt(hologramLocation);
+            com.sk89q.worldguard.protection.regions.ProtectedRegion region = null;
+            if (regionName == null) {
+                region = includeUnstored ? plugin.getProtectRegionManager().getRegionAt(hologramLocation) : null;
+                if (region == null) {
+                    continue;
+                }
+                regionName = region.getId();
+            }
+
+            if (!rendersConfiguredLines(column, regionName)) {
+                continue;
+            }
+
+            for (ArmorStand stand : column) {
+                stand.remove();
+            }
+
+            HologramData data = hologramCache.get(regionName);
+            if (data == null) {
+                createHologram(hologramLocation, extractOwnerName(region), regionName);
+                migrated++;
+            } else if (region == null) {
+                if (!holograms.containsKey(regionName) && isChunkLoaded(data)) {
+                    materializeHologram(regionName, data);
+                }
+                migrated++;
+            }
+        }
+
+        return migrated;
+    }
+
+    /**
+     * Находит сохраненную голограмму, стоящую в этой позиции (тот же блок по X/Z, высота
+     * в пределах половины блока)
+     * @return ID региона или null
+     */
+    private String findStoredHologramAt(Location location) {
+        Map<Long, java.util.Set<String>> worldIndex = chunkIndex.get(location.getWorld().getName());
+        java.util.Set<String> regions = worldIndex != null
+                ? worldIndex.get(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4)) : null;
+        if (regions == null) {
+            return null;
+        }
+
+        for (String regionName : regions) {
+            HologramData data = hologramCache.get(regionName);
+            Location stored = data != null ? data.location : null;
+            if (stored != null && stored.getBlockX() == location.getBlockX() && stored.getBlockZ() == location.getBlockZ() &&
+                    Math.abs(stored.getY() - location.getY()) <= 0.5) {
+                return regionName;
             }
         }
         return null;
     }
 
+    /**
+     * Совпадают ли имена ArmorStand столбца со строками hologram.lines, отрисованными для региона
+     * (значения остальных плейсхолдеров могли измениться, они совпадают с любым текстом)
+     */
+    private boolean rendersConfiguredLines(List<ArmorStand> column, String regionName) {
+        if (column.size() > lineTemplates.size()) {
+            return false;
+        }
+
+        HologramLineTemplate.Resolver regionOnly = placeholder ->
+                placeholder == HologramLineTemplate.Placeholder.REGION ? regionName : null;
+        for (ArmorStand stand : column) {
+            boolean matched = false;
+            for (HologramLineTemplate template : lineTemplates) {
+                if (template.matches(stand.getCustomName(), regionOnly)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, похож ли ArmorStand на строку голограммы, созданную рендерером armor_stand
+     */
+    private boolean isLegacyHologramStand(ArmorStand stand) {
+        return !stand.isDead() && HologramRenderer.getTaggedRegion(plugin, stand) == null && stand.isMarker() && stand.isSmall() && !stand.isVisible() &&
+                stand.isCustomNameVisible() && stand.getCustomName() != null && !stand.hasBasePlate();
+    }
+
     // ===== ПУБЛИЧНЫЕ МЕТОДЫ ДЛЯ СТАТИСТИКИ И УПРАВЛЕНИЯ =====
 
     /**
@@ -637,37 +1194,53 @@ public class HologramManager {
      * @return true если голограмма существует
      */
     public boolean hasHologram(String regionName) {
-        return holograms.containsKey(regionName) && !holograms.get(regionName).isEmpty();
+        return hologramCache.containsKey(regionName);
     }
 
     /**
-     * Получает количество активных голограмм
+     * Получает количество голограмм (включая голограммы в незагруженных чанках)
      * @return Количество голограмм
      */
     public int getHologramCount() {
+        return hologramCache.size();
+    }
+
+    /**
+     * Получает количество голограмм, сущности которых сейчас есть в мире
+     * @return Количество голограмм в загруженных чанках
+     */
+    public int getLoadedHologramCount() {
         return holograms.size();
     }
 
     /**
-     * Получает общее количество ArmorStand'ов
+     * Получает общее количество сущностей голограмм
      * @return Количество entities
      */
-    public int getTotalArmorStandCount() {
+    public int getTotalEntityCount() {
         int total = 0;
-        for (List<ArmorStand> stands : holograms.values()) {
-            total += stands.size();
+        for (RenderedHologram hologram : holograms.values()) {
+            total += hologram.getEntityCount();
         }
         return total;
     }
 
+    /**
+     * Получает количество голограмм, не обновленных к концу цикла обновления
+     * @return Отставание обновления (0 если обновление успевает)
+     */
+    public int getRefreshBacklog() {
+        return refresher != null ? refresher.getBacklog() : 0;
+    }
+
     /**
      * Получает количество строк в голограмме
      * @param regionName ID региона
      * @return Количество строк или 0
      */
     public int getHologramLineCount(String regionName) {
-        List<ArmorStand> stands = holograms.get(regionName);
-        return stands != null ? stands.size() : 0;
+        RenderedHologram hologram = holograms.get(regionName);
+        return hologram != null ? hologram.getLineCount() : 0;
     }
 
     /**
@@ -727,49 +1300,56 @@ public class HologramManager {
      * @return Набор ID регионов
      */
     public java.util.Set<String> getHologramRegions() {
-        return new java.util.HashSet<>(holograms.keySet());
+        return new java.util.HashSet<>(hologramCache.keySet());
     }
 
     /**
-     * Проверяет здоровье голограммы (все ли ArmorStand'ы живы)
+     * Проверяет здоровье голограммы (все ли сущности живы).
+     * Голограмма в незагруженном чанке считается здоровой - она будет создана при загрузке чанка
      * @param regionName ID региона
      * @return true если голограмма здорова
      */
     public boolean isHologramHealthy(String regionName) {
-        List<ArmorStand> stands = holograms.get(regionName);
-        if (stands == null || stands.isEmpty()) {
-            return false;
-        }
-
-        for (ArmorStand stand : stands) {
-            if (stand == null || stand.isDead()) {
-                return false;
-            }
+        RenderedHologram hologram = holograms.get(regionName);
+        if (hologram == null) {
+            HologramData data = hologramCache.get(regionName);
+            return data != null && !isChunkLoaded(data);
         }
-        return true;
+        return hologram.isValid();
     }
 
     /**
-     * Исправляет поврежденные голограммы
+     * Исправляет голограммы в загруженных чанках с голограммами: создает недостающие,
+     * удаляет потерянные и повторяющиеся сущности по меткам региона.
+     * Проходятся только чанки из индекса голограмм, а не все голограммы и сущности миров
      * @return Количество исправленных голограмм
      */
     public int repairDamagedHolograms() {
         int repairedCount = 0;
+        int removedEntities = 0;
 
-        for (String regionName : new ArrayList<>(holograms.keySet())) {
-            if (!isHologramHealthy(regionName)) {
-                String ownerName = getRegionOwnerName(regionName);
-                if (ownerName != null) {
-                    recreateHologram(regionName, ownerName);
-                    repairedCount++;
-                    plugin.getLogger().info("Исправлена поврежденная голограмма: " + regionName);
-                } else {
-                    removeHologram(regionName);
-                    plugin.getLogger().info("Удалена голограмма без владельца: " + regionName);
+        for (Map.Entry<String, Map<Long, java.util.Set<String>>> worldEntry : chunkIndex.entrySet()) {
+            World world = plugin.getServer().getWorld(worldEntry.getKey());
+            if (world == null) {
+                continue;
+            }
+
+            for (Long key : new ArrayList<>(worldEntry.getValue().keySet())) {
+                int chunkX = (int) (key >> 32);
+                int chunkZ = (int) key.longValue();
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    continue;
                 }
+
+                org.bukkit.Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+                removedEntities += onEntitiesLoad(java.util.Arrays.asList(chunk.getEntities()));
+                repairedCount += reconcileChunkHolograms(chunk);
             }
         }
 
+        if (repairedCount > 0 || removedEntities > 0) {
+            plugin.getLogger().info("Исправлено голограмм: " + repairedCount + ", удалено лишних сущностей: " + removedEntities);
+        }
         return repairedCount;
     }
 
@@ -783,14 +1363,16 @@ public class HologramManager {
             return "Голограмма не найдена";
         }
 
-        List<ArmorStand> stands = holograms.get(regionName);
+        RenderedHologram hologram = holograms.get(regionName);
         HologramData data = hologramCache.get(regionName);
         long lastUpdate = getLastUpdateTime(regionName);
 
         StringBuilder info = new StringBuilder();
         info.append("Регион: ").append(regionName).append("\n");
         info.append("Владелец: ").append(data != null ? data.playerName : "Неизвестно").append("\n");
-        info.append("Строк: ").append(stands.size()).append("\n");
+        info.append("Строк: ").append(hologram != null ? hologram.getLineCount() : 0).append("\n");
+        info.append("Загружена: ").append(hologram != null ? "Да" : "Нет (чанк не загружен)").append("\n");
+        info.append("Рендерер: ").append(renderer.getType()).append("\n");
         info.append("Здорова: ").append(isHologramHealthy(regionName) ? "Да" : "Нет").append("\n");
         info.append("Последнее обновление: ");
 
@@ -819,16 +1401,20 @@ public class HologramManager {
      * @return true если успешно
      */
     public boolean setCustomLine(String regionName, int lineIndex, String text) {
-        List<ArmorStand> stands = holograms.get(regionName);
-        if (stands == null || lineIndex < 0 || lineIndex >= stands.size()) {
+        RenderedHologram hologram = holograms.get(regionName);
+        if (hologram == null || lineIndex < 0 || lineIndex >= hologram.getLineCount()) {
             return false;
         }
 
         try {
-            ArmorStand stand = stands.get(lineIndex);
-            if (stand != null && !stand.isDead()) {
+            if (hologram.isValid()) {
                 String processedText = ChatColor.translateAlternateColorCodes('&', text);
-                stand.setCustomName(processedText);
+                hologram.setLine(lineIndex, processedText);
+
+                HologramData data = hologramCache.get(regionName);
+                if (data != null && data.renderedLines != null && lineIndex < data.renderedLines.length) {
+                    data.renderedLines[lineIndex] = processedText;
+                }
                 return true;
             }
         } catch (Exception e) {
@@ -844,7 +1430,8 @@ public class HologramManager {
      */
     public String getStatistics() {
         int totalHolograms = getHologramCount();
-        int totalArmorStands = getTotalArmorStandCount();
+        int loadedHolograms = getLoadedHologramCount();
+        int totalEntities = getTotalEntityCount();
         int healthyHolograms = 0;
 
         for (String regionName : holograms.keySet()) {
@@ -853,8 +1440,9 @@ public class HologramManager {
             }
         }
 
-        return String.format("Голограмм: %d, ArmorStand'ов: %d, Здоровых: %d/%d",
-                totalHolograms, totalArmorStands, healthyHolograms, totalHolograms);
+        return String.format("Голограмм: %d (загружено: %d), Сущностей (%s): %d, Здоровых: %d/%d, Отставание обновления: %d",
+                totalHolograms, loadedHolograms, renderer.getType(), totalEntities, healthyHolograms, loadedHolograms,
+                getRefreshBacklog());
     }
 
     /**
@@ -874,6 +1462,27 @@ public class HologramManager {
         return new HashMap<>(hologramCache);
     }
 
+    /**
+     * Сохраняет голограмму региона без создания сущностей: они появятся при загрузке чанка
+     * @param regionName ID региона
+     * @param location Позиция блока привата
+     * @param playerName Имя владельца
+     */
+    public void saveHologramData(String regionName, Location location, String playerName) {
+        if (regionName == null || location == null || location.getWorld() == null || playerName == null) {
+            return;
+        }
+
+        HologramData previous = hologramCache.get(regionName);
+        unindexHologram(regionName, previous);
+
+        String creationDate = previous != null ? previous.creationDate : LocalDateTime.now().format(DATE_FORMAT);
+        HologramData data = new HologramData(playerName, creationDate, location);
+        hologramCache.put(regionName, data);
+        indexHologram(regionName, data);
+        persistHologram(regionName, data);
+    }
+
     /**
      * Восстанавливает голограммы из сохраненных данных
      * @param savedData Сохраненные данные
@@ -918,14 +1527,18 @@ public class HologramManager {
     public void reloadConfiguration() {
         plugin.getLogger().info("Перезагрузка конфигурации голограмм...");
 
-        // Сохраняем текущие данные
-        Map<String, HologramData> savedData = saveHologramData();
-
-        // Удаляем все голограммы
-        removeAllHolograms();
+        // Удаляем сущности, сохраняя данные голограмм
+        for (String regionName : new ArrayList<>(holograms.keySet())) {
+            despawnHologram(regionName);
+        }
+        loadLines();
 
-        // Восстанавливаем с новой конфигурацией
-        restoreHolograms(savedData);
+        // Создаем заново с новой конфигурацией в загруженных чанках
+        for (Map.Entry<String, HologramData> entry : hologramCache.entrySet()) {
+            if (isChunkLoaded(entry.getValue())) {
+                materializeHologram(entry.getKey(), entry.getValue());
+            }
+        }
 
         plugin.getLogger().info("Конфигурация голограмм перезагружена");
     }
@@ -936,16 +1549,12 @@ public class HologramManager {
      * @param visible Видимость
      */
     public void setHologramVisible(String regionName, boolean visible) {
-        List<ArmorStand> stands = holograms.get(regionName);
-        if (stands == null) {
+        RenderedHologram hologram = holograms.get(regionName);
+        if (hologram == null) {
             return;
         }
 
-        for (ArmorStand stand : stands) {
-            if (stand != null && !stand.isDead()) {
-                stand.setCustomNameVisible(visible);
-            }
-        }
+        hologram.setVisible(visible);
 
         plugin.getLogger().info("Видимость голограммы " + regionName + " изменена на: " + visible);
     }
@@ -956,13 +1565,8 @@ public class HologramManager {
      * @return Видимость или false если голограмма не найдена
      */
     public boolean isHologramVisible(String regionName) {
-        List<ArmorStand> stands = holograms.get(regionName);
-        if (stands == null || stands.isEmpty()) {
-            return false;
-        }
-
-        ArmorStand firstStand = stands.get(0);
-        return firstStand != null && !firstStand.isDead() && firstStand.isCustomNameVisible();
+        RenderedHologram hologram = holograms.get(regionName);
+        return hologram != null && hologram.isVisible();
     }
 
     /**
@@ -985,15 +1589,11 @@ public class HologramManager {
             // Создаем временную строку выше существующей голограммы
             Location tempLocation = data.location.clone().add(0, 0.5, 0);
             String processedText = ChatColor.translateAlternateColorCodes('&', text);
-            ArmorStand tempStand = createHologramLine(tempLocation, processedText);
+            RenderedHologram tempLine = renderer.spawn(null, tempLocation, java.util.Collections.singletonList(processedText));
 
-            if (tempStand != null) {
+            if (tempLine != null) {
                 // Удаляем временную строку через указанное время
-                plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                    if (!tempStand.isDead()) {
-                        tempStand.remove();
-                    }
-                }, durationSeconds * 20L);
+                plugin.getServer().getScheduler().runTaskLater(plugin, tempLine::remove, durationSeconds * 20L);
 
                 plugin.getLogger().info("Добавлена временная строка к голограмме " + regionName + " на " + durationSeconds + " секунд");
             }
@@ -1077,17 +1677,23 @@ public class HologramManager {
         plugin.getLogger().info("HologramManager: Остановка...");
 
         try {
-            // Сохраняем данные перед выключением
-            Map<String, HologramData> backupData = saveHologramData();
-            plugin.getLogger().info("Сохранены данные " + backupData.size() + " голограмм");
+            // Данные голограмм уже в хранилище - удаляем только сущности
+            plugin.getLogger().info("Сохранены данные " + hologramCache.size() + " голограмм");
 
-            // Удаляем все голограммы
-            removeAllHolograms();
+            // Останавливаем обновление и удаляем сущности голограмм
+            if (refresher != null) {
+                refresher.shutdown();
+            }
+            for (String regionName : new ArrayList<>(holograms.keySet())) {
+                despawnHologram(regionName);
+            }
+            renderer.shutdown();
 
             // Очищаем коллекции
             holograms.clear();
             lastUpdateTimes.clear();
             hologramCache.clear();
+            chunkIndex.clear();
 
             plugin.getLogger().info("HologramManager остановлен");
 
@@ -1105,9 +1711,14 @@ public class HologramManager {
         StringBuilder debug = new StringBuilder();
         debug.append("=== HologramManager Debug Info ===\n");
         debug.append("Активных голограмм: ").append(getHologramCount()).append("\n");
-        debug.append("Всего ArmorStand'ов: ").append(getTotalArmorStandCount()).append("\n");
+        debug.append("Рендерер: ").append(renderer.getType()).append("\n");
+        debug.append("Всего сущностей: ").append(getTotalEntityCount()).append("\n");
         debug.append("Записей в кэше: ").append(hologramCache.size()).append("\n");
         debug.append("Записей времени обновления: ").append(lastUpdateTimes.size()).append("\n");
+        debug.append("Пропущено при последнем обновлении (нет игроков рядом): ").append(lastSkippedUpdates).append("\n");
+        if (refresher != null) {
+            debug.append("Обновление: ").append(refresher.getStatistics()).append("\n");
+        }
 
         debug.append("\nДетали по голограммам:\n");
         for (String regionName : holograms.keySet()) {
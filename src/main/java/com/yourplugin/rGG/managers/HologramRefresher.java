@@ -0,0 +1,138 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Распределенное по тикам обновление голограмм.
+ *
+ * Раз в цикл (hologram.update-interval тиков) берется список голограмм для обновления,
+ * после чего курсор проходит по нему каждый тик, пока не исчерпан бюджет времени тика
+ * (hologram.tick-budget-us). За тик обновляется хотя бы одна голограмма.
+ * Если список не пройден к началу следующего цикла, обновление отстает - см. {@link #getBacklog()}.
+ */
+public class HologramRefresher {
+
+    private final RGProtectPlugin plugin;
+    private final Supplier<List<String>> cycleSource;
+    private final Consumer<String> refreshAction;
+    private final int intervalTicks;
+    private final long budgetNanos;
+
+    private List<String> cycle = Collections.emptyList();
+    private int cursor;
+    private long tick;
+    private long cycleStartTick;
+
+    // Статистика
+    private long startedCycles;
+    private long overdueCycles;
+    private int lastCycleTicks;
+
+    private final BukkitTask task;
+
+    /**
+     * @param cycleSource Список регионов для очередного цикла
+     * @param refreshAction Обновление одной голограммы
+     */
+    public HologramRefresher(RGProtectPlugin plugin, Supplier<List<String>> cycleSource, Consumer<String> refreshAction) {
+        this.plugin = plugin;
+        this.cycleSource = cycleSource;
+        this.refreshAction = refreshAction;
+        this.intervalTicks = Math.max(1, plugin.getConfig().getInt("hologram.update-interval", 20));
+        this.budgetNanos = Math.max(1L, plugin.getConfig().getLong("hologram.tick-budget-us", 500L)) * 1000L;
+
+        this.task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    tick();
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Ошибка в задаче обновления голограмм: " + e.getMessage());
+                    if (plugin.getConfig().getBoolean("debug.log-stack-traces", false)) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void tick() {
+        tick++;
+
+        if (cursor >= cycle.size()) {
+            // Текущий цикл пройден - ждем начала следующего
+            if (tick - cycleStartTick < intervalTicks) {
+                return;
+            }
+            startCycle();
+            if (cycle.isEmpty()) {
+                return;
+            }
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            String regionName = cycle.get(cursor++);
+            try {
+                refreshAction.accept(regionName);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при обновлении голограммы " + regionName + ": " + e.getMessage());
+            }
+        } while (cursor < cycle.size() && System.nanoTime() < deadline);
+
+        if (cursor >= cycle.size()) {
+            lastCycleTicks = (int) (tick - cycleStartTick + 1);
+            if (lastCycleTicks > intervalTicks) {
+                overdueCycles++;
+            }
+        }
+    }
+
+    private void startCycle() {
+        startedCycles++;
+        cycleStartTick = tick;
+        cursor = 0;
+        List<String> next = cycleSource.get();
+        cycle = next != null ? next : new ArrayList<>();
+    }
+
+    /**
+     * Сколько голограмм текущего цикла еще не обновлено
+     */
+    public int getPending() {
+        return cycle.size() - cursor;
+    }
+
+    /**
+     * Насколько обновление отстает: сколько голограмм осталось, когда цикл уже должен был закончиться
+     */
+    public int getBacklog() {
+        return tick - cycleStartTick >= intervalTicks ? getPending() : 0;
+    }
+
+    /**
+     * Статистика обновления
+     */
+    public String getStatistics() {
+        return String.format("цикл %d тиков (интервал %d), в очереди %d, отставание %d, циклов с опозданием %d/%d",
+                lastCycleTicks, intervalTicks, getPending(), getBacklog(), overdueCycles, startedCycles);
+    }
+
+    /**
+     * Останавливает обновление
+     */
+    public void shutdown() {
+        task.cancel();
+        cycle = Collections.emptyList();
+        cursor = 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.List;
+
+/**
+ * Способ показа голограмм в мире.
+ *
+ * Реализации: {@link ArmorStandHologramRenderer} (ArmorStand на каждую строку, как раньше) и
+ * {@link TextDisplayHologramRenderer} (одна сущность TextDisplay с многострочным текстом),
+ * {@link VirtualHologramRenderer} (TextDisplay только для игроков поблизости, без сохранения в мир).
+ * Тип выбирается параметром hologram.renderer в config.yml.
+ */
+public interface HologramRenderer {
+
+    /**
+     * Название типа рендерера (как в config.yml)
+     */
+    String getType();
+
+    /**
+     * Показывает голограмму
+     * @param regionId ID региона для метки сущностей или null (временные строки)
+     * @param location Позиция голограммы (над блоком привата)
+     * @param lines Готовые строки с цветами
+     * @return Голограмма или null при ошибке
+     */
+    RenderedHologram spawn(String regionId, Location location, List<String> lines);
+
+    /**
+     * Принимает под управление сущности голограммы одного региона, найденные в загруженном чанке.
+     * Лишние сущности (дубликаты строк) удаляются, недостающие строки создаются заново.
+     * @param location Позиция голограммы (над блоком привата)
+     * @param entities Сущности с меткой региона
+     * @param lines Готовые строки с цветами
+     * @return Голограмма или null, если рендерер не умеет принимать такие сущности (тогда сущности не тронуты)
+     */
+    default RenderedHologram adopt(Location location, List<Entity> entities, List<String> lines) {
+        return null;
+    }
+
+    /**
+     * Останавливает фоновые задачи рендерера (после удаления всех голограмм)
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Ключ метки сущностей голограмм (значение - ID региона)
+     */
+    static NamespacedKey regionKey(RGProtectPlugin plugin) {
+        return new NamespacedKey(plugin, "hologram-region");
+    }
+
+    /**
+     * Ключ метки индекса строки (для рендереров с сущностью на строку)
+     */
+    static NamespacedKey lineKey(RGProtectPlugin plugin) {
+        return new NamespacedKey(plugin, "hologram-line");
+    }
+
+    /**
+     * Помечает сущность голограммы ID региона и индексом строки и делает ее несохраняемой:
+     * голограммы создаются заново при загрузке чанка
+     * @param line Индекс первой строки, показанной сущностью
+     */
+    static void tag(RGProtectPlugin plugin, Entity entity, String regionId, int line) {
+        entity.setPersistent(false);
+        if (regionId != null) {
+            entity.getPersistentDataContainer().set(regionKey(plugin), PersistentDataType.STRING, regionId);
+            entity.getPersistentDataContainer().set(lineKey(plugin), PersistentDataType.INTEGER, line);
+        }
+    }
+
+    /**
+     * Индекс строки из метки сущности или -1
+     */
+    static int getTaggedLine(RGProtectPlugin plugin, Entity entity) {
+        Integer line = entity.getPersistentDataContainer().get(lineKey(plugin), PersistentDataType.INTEGER);
+        return line != null ? line : -1;
+    }
+
+    /**
+     * ID региона из метки сущности или null
+     */
+    static String getTaggedRegion(RGProtectPlugin plugin, Entity entity) {
+        return entity.getPersistentDataContainer().get(regionKey(plugin), PersistentDataType.STRING);
+    }
+
+    /**
+     * Создает рендерер по типу
+     * @param type "text_display", "virtual" или "armor_stand"
+     * @return Рендерер; при неизвестном типе - TextDisplay
+     */
+    static HologramRenderer create(RGProtectPlugin plugin, String type) {
+        if ("armor_stand".equalsIgnoreCase(type)) {
+            return new ArmorStandHologramRenderer(plugin);
+        }
+        if ("virtual".equalsIgnoreCase(type)) {
+            return new VirtualHologramRenderer(plugin);
+        }
+        if (!"text_display".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("Неизвестный тип голограмм " + type + ". Используется text_display");
+        }
+        return new TextDisplayHologramRenderer(plugin);
+    }
+}
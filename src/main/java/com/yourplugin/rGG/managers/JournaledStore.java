@@ -0,0 +1,565 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Хранилище данных плагина: YAML-снимок + журнал изменений (только дозапись).
+ *
+ * Каждое изменение записи (put/remove) дописывается в файл журнала одной короткой строкой,
+ * вместо полной перезаписи YAML. Когда журнал вырастает до порога, текущее состояние
+ * сохраняется в снимок (прежний YAML-файл того же формата), а журнал очищается.
+ * При запуске загружается снимок и поверх него проигрывается журнал.
+ *
+ * Снимок готовится в основном потоке и записывается асинхронно через DataPersistenceService.
+ * На время записи журнал переименовывается в *.journal.prev и удаляется только после
+ * успешной записи снимка. Записи журнала содержат запись целиком, поэтому повторное
+ * проигрывание безопасно (например, если сервер упал между записью снимка и удалением журнала).
+ * Изменяющие вызовы выполняются в основном потоке сервера.
+ *
+ * Формат YAML не позволяет читать записи выборочно, поэтому при первом обращении
+ * хранилище загружается целиком, а выборки выполняются проходом по записям в памяти.
+ */
+public class JournaledStore implements RecordStore {
+
+    private static final String OP_PUT = "P";
+    private static final String OP_REMOVE = "R";
+
+    private final RGProtectPlugin plugin;
+    private final String name;
+    private final File snapshotFile;
+    private final File journalFile;
+    private final File previousJournalFile;
+    private final String rootSection;
+    private final int keyDepth;
+    private final int compactThreshold;
+
+    // Текущее состояние: ключ записи -> поля
+    private final Map<String, Map<String, Object>> records = new LinkedHashMap<>();
+
+    // Снимок и журнал уже загружены
+    private boolean loaded;
+
+    private BufferedWriter journalWriter;
+    // Записей в журнале с последнего снимка (0 - снимок актуален, перезапись не нужна)
+    private int journalEntries;
+    // Снимок сейчас записывается в фоне
+    private volatile boolean compactionInFlight;
+
+    /**
+     * @param fileName Имя YAML-снимка в папке плагина (например "region-timers.yml")
+     * @param rootSection Корневая секция снимка (например "timers")
+     * @param keyDepth Глубина ключа в снимке: 1 для "timers.<region>", 2 для "flags.<region>.<flag>"
+     */
+    public JournaledStore(RGProtectPlugin plugin, String fileName, String rootSection, int keyDepth) {
+        this.plugin = plugin;
+        this.name = fileName;
+        this.snapshotFile = new File(plugin.getDataFolder(), fileName);
+        this.journalFile = new File(plugin.getDataFolder(), fileName.replaceFirst("\\.yml$", "") + ".journal");
+        this.previousJournalFile = new File(plugin.getDataFolder(), journalFile.getName() + ".prev");
+        this.rootSection = rootSection;
+        this.keyDepth = keyDepth;
+        this.compactThreshold = Math.max(16, plugin.getConfig().getInt("advanced.storage.journal-compact-threshold", 1000));
+    }
+
+    /**
+     * Загружает снимок и проигрывает журнал (повторный вызов возвращает уже загруженные записи)
+     * @return Все записи (ключ -> поля), только для чтения
+     */
+    @Override
+    public synchronized Map<String, Map<String, Object>> load() {
+        if (loaded) {
+            return Collections.unmodifiableMap(records);
+        }
+        loaded = true;
+
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        if (snapshotFile.exists()) {
+            YamlConfiguration snapshot = YamlConfiguration.loadConfiguration(snapshotFile);
+            ConfigurationSection root = snapshot.getConfigurationSection(rootSection);
+            if (root != null) {
+                loadSection(root, "", 1);
+            }
+        }
+
+        // Сначала журнал незавершенного снимка, затем текущий
+        int replayed = replayJournal(previousJournalFile) + replayJournal(journalFile);
+        if (replayed > 0) {
+            plugin.getLogger().info("Хранилище " + name + ": проиграно записей журнала: " + replayed);
+            // Переносим проигранный журнал в снимок (при запуске - синхронно)
+            if (DataPersistenceService.writeAtomically(plugin, snapshotFile, buildSnapshot())) {
+                deleteJournal(previousJournalFile);
+                deleteJournal(journalFile);
+            }
+        }
+
+        openJournal();
+        return Collections.unmodifiableMap(records);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Записывает запись целиком (заменяет предыдущую)
+     */
+    @Override
+    public synchronized void put(String key, Map<String, Object> fields) {
+        if (key == null || fields == null) {
+            return;
+        }
+        ensureLoaded();
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (field.getValue() != null) {
+                record.put(field.getKey(), field.getValue());
+            }
+        }
+
+        records.put(key, record);
+        append(OP_PUT + '\t' + escape(key) + (record.isEmpty() ? "" : "\t" + encodeFields(record)));
+    }
+
+    /**
+     * Удаляет запись
+     */
+    @Override
+    public synchronized void remove(String key) {
+        ensureLoaded();
+        if (key == null || records.remove(key) == null) {
+            return;
+        }
+        append(OP_REMOVE + '\t' + escape(key));
+    }
+
+    @Override
+    public synchronized void replaceAll(Map<String, Map<String, Object>> newRecords) {
+        ensureLoaded();
+        for (String key : new ArrayList<>(records.keySet())) {
+            if (!newRecords.containsKey(key)) {
+                remove(key);
+            }
+        }
+        for (Map.Entry<String, Map<String, Object>> record : newRecords.entrySet()) {
+            put(record.getKey(), record.getValue());
+        }
+        // Полная замена сразу переносится в снимок
+        compact();
+    }
+
+    @Override
+    public synchronized Map<String, Map<String, Object>> snapshot() {
+        ensureLoaded();
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            copy.put(record.getKey(), new LinkedHashMap<>(record.getValue()));
+        }
+        return copy;
+    }
+
+    @Override
+    public synchronized Map<String, Object> get(String key) {
+        ensureLoaded();
+        Map<String, Object> record = records.get(key);
+        return record != null ? new LinkedHashMap<>(record) : null;
+    }
+
+    /**
+     * В YAML-хранилище индекса нет - проход по записям в памяти
+     */
+    @Override
+    public synchronized Map<String, Map<String, Object>> findExpiringBefore(long time) {
+        ensureLoaded();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            if (RecordStore.getLong(record.getValue(), "expiration", Long.MAX_VALUE) <= time) {
+                result.put(record.getKey(), new LinkedHashMap<>(record.getValue()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Map<String, Object>> findByWorld(String worldName) {
+        ensureLoaded();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            if (worldName.equals(RecordStore.getString(record.getValue(), "world", null))) {
+                result.put(record.getKey(), new LinkedHashMap<>(record.getValue()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Map<String, Object>> findByKeyPrefix(String prefix) {
+        ensureLoaded();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            if (record.getKey().startsWith(prefix)) {
+                result.put(record.getKey(), new LinkedHashMap<>(record.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сохраняет текущее состояние в снимок и очищает журнал.
+     * Ничего не делает, если изменений с последнего снимка не было.
+     */
+    @Override
+    public synchronized void compact() {
+        if (journalEntries == 0 || compactionInFlight) {
+            return;
+        }
+
+        // Снимок состояния готовится в основном потоке
+        String content = buildSnapshot();
+
+        closeJournal();
+        if (!rotateJournal()) {
+            openJournal();
+            return;
+        }
+        journalEntries = 0;
+        openJournal();
+
+        compactionInFlight = true;
+        DataPersistenceService persistence = plugin.getPersistenceService();
+        if (persistence != null) {
+            persistence.writeAsync(snapshotFile, content, this::onSnapshotWritten);
+        } else {
+            onSnapshotWritten(DataPersistenceService.writeAtomically(plugin, snapshotFile, content));
+        }
+    }
+
+    private void onSnapshotWritten(boolean success) {
+        if (success) {
+            deleteJournal(previousJournalFile);
+        } else {
+            // Журнал остается - данные будут проиграны при следующем запуске
+            plugin.getLogger().warning("Не удалось сохранить снимок " + name + ", изменения сохранены в журнале");
+        }
+        compactionInFlight = false;
+    }
+
+    /**
+     * Сохраняет снимок и закрывает журнал (при остановке плагина)
+     */
+    @Override
+    public synchronized void close() {
+        compact();
+        closeJournal();
+    }
+
+    /**
+     * Количество записей
+     */
+    @Override
+    public synchronized int size() {
+        ensureLoaded();
+        return records.size();
+    }
+
+    // ===== СНИМОК =====
+
+    private String buildSnapshot() {
+        YamlConfiguration snapshot = new YamlConfiguration();
+        for (Map.Entry<String, Map<String, Object>> record : records.entrySet()) {
+            String path = rootSection + "." + record.getKey();
+            for (Map.Entry<String, Object> field : record.getValue().entrySet()) {
+                snapshot.set(path + "." + field.getKey(), field.getValue());
+            }
+        }
+        return snapshot.saveToString();
+    }
+
+    private void loadSection(ConfigurationSection section, String prefix, int depth) {
+        for (String key : section.getKeys(false)) {
+            ConfigurationSection child = section.getConfigurationSection(key);
+            if (child == null) {
+                continue;
+            }
+
+            String fullKey = prefix.isEmpty() ? key : prefix + "." + key;
+            if (depth < keyDepth) {
+                loadSection(child, fullKey, depth + 1);
+            } else {
+                records.put(fullKey, new LinkedHashMap<>(child.getValues(false)));
+            }
+        }
+    }
+
+    // ===== ЖУРНАЛ =====
+
+    private int replayJournal(File file) {
+        if (!file.exists()) {
+            return 0;
+        }
+
+        int replayed = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (applyJournalLine(line)) {
+                    replayed++;
+                } else {
+                    // Обычно это недописанная последняя строка после аварийной остановки
+                    plugin.getLogger().warning("Журнал " + file.getName() + ": пропущена поврежденная строка " + lineNumber);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ошибка при чтении журнала " + file.getName() + ": " + e.getMessage());
+        }
+        return replayed;
+    }
+
+    /**
+     * Переносит текущий журнал в *.journal.prev (дописывает, если тот остался от неудачного снимка)
+     */
+    private boolean rotateJournal() {
+        if (!journalFile.exists()) {
+            return true;
+        }
+
+        try {
+            if (!previousJournalFile.exists()) {
+                Files.move(journalFile.toPath(), previousJournalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.write(previousJournalFile.toPath(), Files.readAllBytes(journalFile.toPath()), StandardOpenOption.APPEND);
+                Files.delete(journalFile.toPath());
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось перенести журнал " + journalFile.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteJournal(File file) {
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Не удалось очистить журнал " + file.getName());
+        }
+    }
+
+    private boolean applyJournalLine(String line) {
+        String[] parts = line.split("\t", 3);
+        if (parts.length < 2) {
+            return false;
+        }
+
+        String key = unescape(parts[1]);
+        if (OP_REMOVE.equals(parts[0]) && parts.length == 2) {
+            records.remove(key);
+            return true;
+        }
+
+        if (!OP_PUT.equals(parts[0])) {
+            return false;
+        }
+
+        Map<String, Object> fields = parts.length == 3 ? decodeFields(parts[2]) : new LinkedHashMap<>();
+        if (fields == null) {
+            return false;
+        }
+        records.put(key, fields);
+        return true;
+    }
+
+    private void append(String line) {
+        if (journalWriter == null) {
+            openJournal();
+            if (journalWriter == null) {
+                return;
+            }
+        }
+
+        try {
+            journalWriter.write(line);
+            journalWriter.newLine();
+            journalWriter.flush();
+            journalEntries++;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ошибка записи в журнал " + journalFile.getName() + ": " + e.getMessage());
+            closeJournal();
+        }
+
+        if (journalEntries >= compactThreshold) {
+            compact();
+        }
+    }
+
+    private void openJournal() {
+        if (journalWriter != null) {
+            return;
+        }
+        try {
+            journalWriter = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(journalFile, true), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось открыть журнал " + journalFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void closeJournal() {
+        if (journalWriter == null) {
+            return;
+        }
+        try {
+            journalWriter.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ошибка при закрытии журнала " + journalFile.getName() + ": " + e.getMessage());
+        }
+        journalWriter = null;
+    }
+
+    // ===== КОДИРОВАНИЕ =====
+
+    /**
+     * Кодирует поля записи в одну строку: имя и типизированное значение через табуляцию
+     */
+    static String encodeFields(Map<String, Object> fields) {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (field.getValue() == null) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append('\t');
+            }
+            result.append(escape(field.getKey())).append('\t').append(encodeValue(field.getValue()));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Декодирует поля записи
+     * @return Поля или null если строка повреждена
+     */
+    static Map<String, Object> decodeFields(String encoded) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return fields;
+        }
+
+        String[] parts = encoded.split("\t", -1);
+        if (parts.length % 2 != 0) {
+            return null;
+        }
+
+        for (int i = 0; i < parts.length; i += 2) {
+            Object value = decodeValue(parts[i + 1]);
+            if (value == null) {
+                return null;
+            }
+            fields.put(unescape(parts[i]), value);
+        }
+        return fields;
+    }
+
+    private static String encodeValue(Object value) {
+        char type;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            type = 'L';
+        } else if (value instanceof Number) {
+            type = 'D';
+        } else if (value instanceof Boolean) {
+            type = 'B';
+        } else {
+            type = 'S';
+        }
+        return type + escape(value.toString());
+    }
+
+    private static Object decodeValue(String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        String raw = unescape(encoded.substring(1));
+        try {
+            switch (encoded.charAt(0)) {
+                case 'L':
+                    return Long.parseLong(raw);
+                case 'D':
+                    return Double.parseDouble(raw);
+                case 'B':
+                    return Boolean.parseBoolean(raw);
+                case 'S':
+                    return raw;
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': result.append("\\\\"); break;
+                case '\t': result.append("\\t"); break;
+                case '\n': result.append("\\n"); break;
+                case '\r': result.append("\\r"); break;
+                default: result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': result.append('\t'); break;
+                    case 'n': result.append('\n'); break;
+                    case 'r': result.append('\r'); break;
+                    default: result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.yourplugin.rGG.managers;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Set;
+
+/**
+ * Физические границы: блоки ставятся в мир, оригинальные блоки сохраняются в хранилище
+ * и восстанавливаются при удалении границ. Всю работу выполняет {@link VisualizationManager}.
+ */
+public class PhysicalBorderRenderer implements BorderRenderer {
+
+    private final VisualizationManager manager;
+
+    public PhysicalBorderRenderer(VisualizationManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public String getType() {
+        return "physical";
+    }
+
+    @Override
+    public void show(String regionId, World world, Set<Location> locations, Material material) {
+        manager.placePhysicalBorders(regionId, world, locations, material);
+    }
+
+    @Override
+    public void hide(String regionId) {
+        manager.restorePhysicalBorders(regionId);
+    }
+
+    @Override
+    public boolean isShown(String regionId) {
+        return manager.hasPhysicalBorders(regionId);
+    }
+
+    @Override
+    public Set<String> getShownRegions() {
+        return manager.getPhysicalBorderRegions();
+    }
+}
@@ -0,0 +1,184 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.entity.Player;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Общий кэш имен игроков по UUID для голограмм, меню и сообщений.
+ *
+ * getOfflinePlayer(uuid).getName() для давно не заходивших игроков может читать usercache
+ * или диск в основном потоке. Кэш ограничен по размеру (вытесняются давно не запрошенные)
+ * и по времени жизни записи, заполняется при входе игроков, а промахи разрешаются
+ * асинхронно: до получения имени возвращается заглушка (advanced.name-cache.placeholder).
+ */
+public class PlayerNameCache {
+
+    // Имя не найдено: запоминаем, чтобы не искать повторно до истечения записи
+    private static final String NO_NAME = "";
+
+    private static final class Entry {
+        final String name;
+        final long resolvedAt;
+
+        Entry(String name, long resolvedAt) {
+            this.name = name;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    private final RGProtectPlugin plugin;
+    private final long ttlMillis;
+    private final String placeholder;
+    private final Map<UUID, Entry> entries;
+    private final Set<UUID> pending = new HashSet<>();
+
+    public PlayerNameCache(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.ttlMillis = Math.max(1L, plugin.getConfig().getLong("advanced.name-cache.ttl-minutes", 60L)) * 60_000L;
+        this.placeholder = plugin.getConfig().getString("advanced.name-cache.placeholder", "...");
+
+        int maxSize = Math.max(16, plugin.getConfig().getInt("advanced.name-cache.max-size", 2048));
+        this.entries = new LinkedHashMap<UUID, Entry>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            remember(player.getUniqueId(), player.getName());
+        }
+    }
+
+    /**
+     * Запоминает имя игрока (вход на сервер)
+     */
+    public synchronized void remember(UUID uuid, String name) {
+        if (uuid != null && name != null) {
+            entries.put(uuid, new Entry(name, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Получает имя игрока без обращения к диску в вызывающем потоке
+     * @param uuid UUID игрока
+     * @return Имя; заглушка, если имя еще разрешается; null если у игрока нет имени
+     */
+    public String getName(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+
+        Player online = plugin.getServer().getPlayer(uuid);
+        if (online != null) {
+            remember(uuid, online.getName());
+            return online.getName();
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(uuid);
+            if (entry != null && System.currentTimeMillis() - entry.resolvedAt < ttlMillis) {
+                return entry.name.equals(NO_NAME) ? null : entry.name;
+            }
+        }
+
+        // Промах или устаревшая запись: пока имя разрешается, отдаем прежнее имя или заглушку
+        resolveAsync(uuid);
+        if (entry != null) {
+            return entry.name.equals(NO_NAME) ? null : entry.name;
+        }
+        return placeholder;
+    }
+
+    /**
+     * Получает настоящее имя игрока, при промахе читает его синхронно.
+     * Для имен, которые записываются в предметы и хранилища: заглушка туда попадать не должна.
+     * Может обращаться к диску, поэтому не вызывается в частых операциях
+     * @param uuid UUID игрока
+     * @return Имя или null если у игрока нет имени
+     */
+    public String resolveNow(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+
+        Player online = plugin.getServer().getPlayer(uuid);
+        if (online != null) {
+            remember(uuid, online.getName());
+            return online.getName();
+        }
+
+        synchronized (this) {
+            Entry entry = entries.get(uuid);
+            if (entry != null && System.currentTimeMillis() - entry.resolvedAt < ttlMillis) {
+                return entry.name.equals(NO_NAME) ? null : entry.name;
+            }
+        }
+
+        String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+        synchronized (this) {
+            entries.put(uuid, new Entry(name != null ? name : NO_NAME, System.currentTimeMillis()));
+        }
+        return name;
+    }
+
+    /**
+     * Является ли имя заглушкой неразрешенного имени
+     */
+    public boolean isPlaceholder(String name) {
+        return placeholder.equals(name);
+    }
+
+    private void resolveAsync(UUID uuid) {
+        synchronized (this) {
+            if (!pending.add(uuid)) {
+                return;
+            }
+        }
+
+        try {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+                    synchronized (this) {
+                        entries.put(uuid, new Entry(name != null ? name : NO_NAME, System.currentTimeMillis()));
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Ошибка при получении имени игрока " + uuid + ": " + e.getMessage());
+                } finally {
+                    synchronized (this) {
+                        pending.remove(uuid);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // Плагин выключается - задачу поставить нельзя
+            synchronized (this) {
+                pending.remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * Количество имен в кэше
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Очищает кэш
+     */
+    public synchronized void clear() {
+        entries.clear();
+        pending.clear();
+    }
+}
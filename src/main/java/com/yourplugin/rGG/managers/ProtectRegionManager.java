@@ -2,16 +2,13 @@ package com.yourplugin.rGG.managers;
 
 import com.yourplugin.rGG.RGProtectPlugin;
 import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.regions.RegionContainer;
-import com.sk89q.worldguard.protection.regions.RegionManager;
+import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.domains.DefaultDomain;
 import com.sk89q.worldguard.protection.flags.Flags;
 import com.sk89q.worldguard.protection.flags.StateFlag;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.math.BlockVector3;
-import com.sk89q.worldedit.world.World as WGWorld;
 
 import org.bukkit.World;
 import org.bukkit.Location;
@@ -48,9 +45,48 @@ public class ProtectRegionManager {
     // Статистика операций
     private final Map<String, Integer> operationStats = new ConcurrentHashMap<>();
 
+    // Пространственные индексы регионов по мирам (строятся лениво при первом запросе)
+    private final Map<String, RegionSpatialIndex> spatialIndexes = new ConcurrentHashMap<>();
+
+    // Обратный индекс владельцев и участников (UUID -> регионы)
+    private final RegionOwnershipIndex ownershipIndex = new RegionOwnershipIndex();
+
+    // Справочник ID региона -> мир и регион
+    private final RegionDirectory regionDirectory = new RegionDirectory();
+
+    // Типизированный доступ к WorldGuard
+    private WorldGuardGateway worldGuardGateway;
+
     public ProtectRegionManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         initializeManager();
+
+        // Индексы и справочник обновляются по событиям изменения регионов
+        plugin.getRegionEvents().subscribe(this::onRegionEvent, RegionEvent.Type.CREATED,
+                RegionEvent.Type.DELETED, RegionEvent.Type.RESIZED, RegionEvent.Type.OWNERS_CHANGED);
+    }
+
+    /**
+     * Синхронизирует индексы, справочник и кэш информации с изменением региона
+     */
+    private void onRegionEvent(RegionEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case RESIZED:
+                indexRegion(event.getWorld(), event.getRegion());
+                break;
+            case DELETED:
+                unindexRegion(event.getWorld(), event.getRegionId());
+                break;
+            case OWNERS_CHANGED:
+                if (event.getWorld() != null && event.getRegion() != null) {
+                    ownershipIndex.update(event.getWorld().getName(), event.getRegion());
+                }
+                invalidateRegionCache(event.getRegionId());
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -104,6 +140,8 @@ public class ProtectRegionManager {
                 throw new IllegalStateException("WorldGuard не найден!");
             }
 
+            worldGuardGateway = new WorldGuardGateway(plugin, this);
+
             // Инициализируем статистику
             operationStats.put("regions_created", 0);
             operationStats.put("regions_deleted", 0);
@@ -132,6 +170,14 @@ public class ProtectRegionManager {
         }
     }
 
+    /**
+     * Получает типизированный шлюз к WorldGuard
+     * @return WorldGuardGateway
+     */
+    public WorldGuardGateway getWorldGuardGateway() {
+        return worldGuardGateway;
+    }
+
     /**
      * Получает менеджер регионов WorldGuard для указанного мира
      * @param world Мир Bukkit
@@ -155,11 +201,7 @@ public class ProtectRegionManager {
             operationStats.merge("cache_misses", 1, Integer::sum);
 
             // Получаем RegionManager
-            WorldGuard worldGuard = WorldGuard.getInstance();
-            RegionContainer container = worldGuard.getPlatform().getRegionContainer();
-            WGWorld wgWorld = BukkitAdapter.adapt(world);
-
-            RegionManager regionManager = container.get(wgWorld);
+            RegionManager regionManager = worldGuardGateway.resolveRegionManager(world);
 
             // Кэшируем результат
             if (regionManager != null) {
@@ -200,25 +242,253 @@ public class ProtectRegionManager {
     }
 
     /**
-     * Находит регион по ID во всех мирах
+     * Находит регион по ID через справочник регионов
      * @param regionId ID региона
      * @return ProtectedRegion или null если не найден
      */
     public ProtectedRegion findRegionById(String regionId) {
+        RegionDirectory.Entry entry = lookupRegion(regionId);
+        return entry != null ? entry.region : null;
+    }
+
+    /**
+     * Находит мир, в котором находится регион
+     * @param regionId ID региона
+     * @return World или null если регион не найден
+     */
+    public World findWorldForRegion(String regionId) {
+        RegionDirectory.Entry entry = lookupRegion(regionId);
+        return entry != null ? plugin.getServer().getWorld(entry.worldName) : null;
+    }
+
+    /**
+     * Ищет регион в справочнике. Запись сверяется с WorldGuard: если регион удален или заменен
+     * в обход плагина, запись обновляется или удаляется. При промахе (регион создан в обход плагина,
+     * мир загружен позже) выполняет поиск по мирам и запоминает результат, в том числе отсутствие региона.
+     * @param regionId ID региона
+     * @return Запись справочника или null
+     */
+    private RegionDirectory.Entry lookupRegion(String regionId) {
         if (regionId == null) {
             return null;
         }
 
+        if (!regionDirectory.isPopulated()) {
+            populateRegionDirectory();
+        }
+
+        RegionDirectory.Entry entry = regionDirectory.get(regionId);
+        if (entry != null) {
+            World entryWorld = plugin.getServer().getWorld(entry.worldName);
+            ProtectedRegion current = getRegion(entryWorld, regionId);
+            if (current == entry.region) {
+                return entry;
+            }
+            if (current != null) {
+                // Регион заменен в обход плагина - обновляем индексы
+                indexRegion(entryWorld, current);
+                return regionDirectory.get(regionId);
+            }
+            // Регион удален в обход плагина
+            if (entryWorld != null) {
+                unindexRegion(entryWorld, regionId);
+            } else {
+                regionDirectory.remove(entry.worldName, regionId);
+            }
+        } else if (regionDirectory.isKnownMissing(regionId)) {
+            return null;
+        }
+
         for (World world : plugin.getServer().getWorlds()) {
             ProtectedRegion region = getRegion(world, regionId);
             if (region != null) {
-                return region;
+                regionDirectory.put(world.getName(), region);
+                return regionDirectory.get(regionId);
             }
         }
 
+        regionDirectory.markMissing(regionId);
         return null;
     }
 
+    /**
+     * Заполняет справочник регионами всех загруженных миров
+     */
+    private synchronized void populateRegionDirectory() {
+        if (regionDirectory.isPopulated()) {
+            return;
+        }
+
+        for (World world : plugin.getServer().getWorlds()) {
+            RegionManager regionManager = getWorldGuardRegionManager(world);
+            if (regionManager == null) {
+                continue;
+            }
+            try {
+                for (ProtectedRegion region : regionManager.getRegions().values()) {
+                    regionDirectory.put(world.getName(), region);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при заполнении справочника регионов для мира " + world.getName() + ": " + e.getMessage());
+            }
+        }
+
+        regionDirectory.markPopulated();
+    }
+
+    /**
+     * Находит регион в указанной точке через пространственный индекс
+     * @param location Позиция
+     * @return ProtectedRegion с наибольшим приоритетом или null
+     */
+    public ProtectedRegion getRegionAt(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+
+        RegionSpatialIndex index = getSpatialIndex(location.getWorld());
+        if (index == null) {
+            return null;
+        }
+
+        return index.getRegionAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Добавляет регион в индексы и справочник или обновляет его границы.
+     * Вызывается после создания региона и после любой замены региона (расширение, высота).
+     * @param world Мир
+     * @param region Регион с актуальными границами
+     */
+    public void indexRegion(World world, ProtectedRegion region) {
+        if (world == null || region == null) {
+            return;
+        }
+
+        RegionSpatialIndex index = spatialIndexes.get(world.getName());
+        if (index != null) {
+            index.add(region);
+        }
+        ownershipIndex.update(world.getName(), region);
+        regionDirectory.put(world.getName(), region);
+        invalidateRegionCache(region.getId());
+    }
+
+    /**
+     * Удаляет регион из индексов и справочника
+     * @param world Мир
+     * @param regionId ID региона
+     */
+    public void unindexRegion(World world, String regionId) {
+        if (world == null || regionId == null) {
+            return;
+        }
+
+        RegionSpatialIndex index = spatialIndexes.get(world.getName());
+        if (index != null) {
+            index.remove(regionId);
+        }
+        ownershipIndex.remove(world.getName(), regionId);
+        regionDirectory.remove(world.getName(), regionId);
+        invalidateRegionCache(regionId);
+    }
+
+    /**
+     * Максимальная ширина привата по X и Z: базовый размер плюс расширение до максимального уровня.
+     * Регионы шире (административные, спавн) не попадают в пространственный индекс
+     */
+    private int getMaxRegionFootprint() {
+        int baseSize = Math.max(
+                Math.max(plugin.getConfig().getInt("region.size.x", 3), plugin.getConfig().getInt("region.size.z", 3)),
+                Math.max(plugin.getConfig().getInt("region-expansion.base-size.x", 3), plugin.getConfig().getInt("region-expansion.base-size.z", 3)));
+        int maxLevel = Math.max(0, plugin.getConfig().getInt("region-expansion.max-level", 10));
+        return baseSize + 2 * maxLevel;
+    }
+
+    /**
+     * Получает пространственный индекс мира, при первом обращении строит его из WorldGuard
+     * @param world Мир
+     * @return Индекс или null если WorldGuard недоступен для мира
+     */
+    private RegionSpatialIndex getSpatialIndex(World world) {
+        RegionSpatialIndex index = spatialIndexes.get(world.getName());
+        if (index != null) {
+            return index;
+        }
+
+        RegionManager regionManager = getWorldGuardRegionManager(world);
+        if (regionManager == null) {
+            return null;
+        }
+
+        index = new RegionSpatialIndex(getMaxRegionFootprint());
+        try {
+            for (ProtectedRegion region : regionManager.getRegions().values()) {
+                index.add(region);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при построении индекса регионов для мира " + world.getName() + ": " + e.getMessage());
+        }
+
+        spatialIndexes.put(world.getName(), index);
+
+        if (plugin.getConfig().getBoolean("debug.enabled", false)) {
+            plugin.getLogger().info("Построен индекс регионов для мира " + world.getName() + ": " +
+                    index.getRegionCount() + " регионов, " + index.getChunkCount() + " чанков");
+        }
+
+        return index;
+    }
+
+    /**
+     * Гарантирует, что индекс владельцев построен для мира
+     * @param world Мир
+     * @return RegionManager мира или null
+     */
+    private RegionManager ensureOwnershipIndexed(World world) {
+        RegionManager regionManager = getWorldGuardRegionManager(world);
+        if (regionManager != null && !ownershipIndex.isWorldIndexed(world.getName())) {
+            ownershipIndex.indexWorld(world.getName(), regionManager.getRegions().values());
+        }
+        return regionManager;
+    }
+
+    /**
+     * Гарантирует, что индекс владельцев построен для всех миров
+     */
+    private void ensureOwnershipIndexed() {
+        for (World world : plugin.getServer().getWorlds()) {
+            if (!ownershipIndex.isWorldIndexed(world.getName())) {
+                ensureOwnershipIndexed(world);
+            }
+        }
+    }
+
+    /**
+     * Подсчитывает регионы, которыми владеет игрок в указанном мире
+     * @param world Мир
+     * @param playerName Имя игрока
+     * @return Количество регионов
+     */
+    public int getPlayerRegionCount(World world, String playerName) {
+        if (world == null || playerName == null) {
+            return 0;
+        }
+
+        if (ensureOwnershipIndexed(world) == null) {
+            return 0;
+        }
+
+        UUID playerUUID;
+        Player online = plugin.getServer().getPlayerExact(playerName);
+        if (online != null) {
+            playerUUID = online.getUniqueId();
+        } else {
+            playerUUID = plugin.getServer().getOfflinePlayer(playerName).getUniqueId();
+        }
+        return ownershipIndex.getRegionIds(world.getName(), playerUUID, playerName, false).size();
+    }
+
     /**
      * Получает информацию о регионе с кэшированием
      * @param regionId ID региона
@@ -238,14 +508,11 @@ public class ProtectRegionManager {
 
         operationStats.merge("cache_misses", 1, Integer::sum);
 
-        // Ищем регион во всех мирах
-        for (World world : plugin.getServer().getWorlds()) {
-            ProtectedRegion region = getRegion(world, regionId);
-            if (region != null) {
-                RegionInfo info = createRegionInfo(region, world.getName());
-                regionInfoCache.put(regionId, info);
-                return info;
-            }
+        RegionDirectory.Entry entry = lookupRegion(regionId);
+        if (entry != null) {
+            RegionInfo info = createRegionInfo(entry.region, entry.worldName);
+            regionInfoCache.put(regionId, info);
+            return info;
         }
 
         return null;
@@ -323,14 +590,10 @@ public class ProtectRegionManager {
             setDefaultFlags(region);
 
             // Добавляем регион в менеджер
-            regionManager.addRegion(region);
+            worldGuardGateway.addRegion(world, region);
 
             // Сохраняем изменения
-            try {
-                regionManager.save();
-            } catch (Exception e) {
-                plugin.getLogger().warning("Ошибка при сохранении региона " + regionId + ": " + e.getMessage());
-            }
+            worldGuardGateway.save(world);
 
             // Обновляем статистику и кэш
             operationStats.merge("regions_created", 1, Integer::sum);
@@ -397,14 +660,10 @@ public class ProtectRegionManager {
             }
 
             // Удаляем регион
-            regionManager.removeRegion(regionId);
+            worldGuardGateway.removeRegion(world, regionId);
 
             // Сохраняем изменения
-            try {
-                regionManager.save();
-            } catch (Exception e) {
-                plugin.getLogger().warning("Ошибка при сохранении после удаления региона " + regionId + ": " + e.getMessage());
-            }
+            worldGuardGateway.save(world);
 
             // Обновляем статистику и кэш
             operationStats.merge("regions_deleted", 1, Integer::sum);
@@ -469,9 +728,11 @@ public class ProtectRegionManager {
         try {
             RegionManager regionManager = getWorldGuardRegionManager(world);
             if (regionManager != null) {
-                regionManager.save();
+                ProtectedRegion region = regionManager.getRegion(regionId);
+
+                worldGuardGateway.save(world);
                 operationStats.merge("regions_modified", 1, Integer::sum);
-                invalidateRegionCache(regionId);
+                plugin.getRegionEvents().fire(RegionEvent.Type.OWNERS_CHANGED, regionId, world, region);
             }
         } catch (Exception e) {
             plugin.getLogger().warning("Ошибка при сохранении изменений региона " + regionId + ": " + e.getMessage());
@@ -624,7 +885,7 @@ public class ProtectRegionManager {
             Set<UUID> ownerUUIDs = region.getOwners().getUniqueIds();
             if (!ownerUUIDs.isEmpty()) {
                 UUID ownerUUID = ownerUUIDs.iterator().next();
-                String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+                String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
                 if (ownerName != null) {
                     return ownerName;
                 }
@@ -658,13 +919,14 @@ public class ProtectRegionManager {
         }
 
         try {
-            RegionManager regionManager = getWorldGuardRegionManager(world);
+            RegionManager regionManager = ensureOwnershipIndexed(world);
             if (regionManager == null) {
                 return playerRegions;
             }
 
-            for (ProtectedRegion region : regionManager.getRegions().values()) {
-                if (isOwner(region, player) || (includeMembers && isMember(region, player))) {
+            for (String regionId : ownershipIndex.getRegionIds(world.getName(), player.getUniqueId(), player.getName(), includeMembers)) {
+                ProtectedRegion region = regionManager.getRegion(regionId);
+                if (region != null) {
                     playerRegions.add(region);
                 }
             }
@@ -687,12 +949,8 @@ public class ProtectRegionManager {
             return 0;
         }
 
-        int count = 0;
-        for (World world : plugin.getServer().getWorlds()) {
-            count += getPlayerRegions(world, player, includeMembers).size();
-        }
-
-        return count;
+        ensureOwnershipIndexed();
+        return ownershipIndex.count(player.getUniqueId(), player.getName(), includeMembers);
     }
 
     /**
@@ -765,7 +1023,7 @@ public class ProtectRegionManager {
         try {
             Set<UUID> ownerUUIDs = getOwners(world, regionId);
             for (UUID uuid : ownerUUIDs) {
-                String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+                String name = plugin.getPlayerNameCache().getName(uuid);
                 if (name != null) {
                     ownerNames.add(name);
                 } else {
@@ -798,7 +1056,7 @@ public class ProtectRegionManager {
         try {
             Set<UUID> memberUUIDs = getMembers(world, regionId);
             for (UUID uuid : memberUUIDs) {
-                String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+                String name = plugin.getPlayerNameCache().getName(uuid);
                 if (name != null) {
                     memberNames.add(name);
                 } else {
@@ -968,16 +1226,14 @@ public class ProtectRegionManager {
         }
 
         try {
-            RegionManager regionManager = getWorldGuardRegionManager(world);
+            RegionManager regionManager = ensureOwnershipIndexed(world);
             if (regionManager == null) {
                 return playerRegions;
             }
 
-            for (ProtectedRegion region : regionManager.getRegions().values()) {
-                boolean isOwner = region.getOwners().contains(playerUUID);
-                boolean isMember = region.getMembers().contains(playerUUID);
-
-                if (isOwner || (includeMembers && isMember)) {
+            for (String regionId : ownershipIndex.getRegionIds(world.getName(), playerUUID, null, includeMembers)) {
+                ProtectedRegion region = regionManager.getRegion(regionId);
+                if (region != null) {
                     playerRegions.add(region);
                 }
             }
@@ -1046,12 +1302,8 @@ public class ProtectRegionManager {
             return 0;
         }
 
-        int count = 0;
-        for (World world : plugin.getServer().getWorlds()) {
-            count += getPlayerRegionsByUUID(world, playerUUID, includeMembers).size();
-        }
-
-        return count;
+        ensureOwnershipIndexed();
+        return ownershipIndex.count(playerUUID, null, includeMembers);
     }
 
     /**
@@ -1458,7 +1710,7 @@ public String getPrimaryOwnerName(ProtectedRegion region) {
         Set<UUID> ownerUUIDs = region.getOwners().getUniqueIds();
         if (!ownerUUIDs.isEmpty()) {
             UUID ownerUUID = ownerUUIDs.iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             if (ownerName != null) {
                 return ownerName;
             }
@@ -1492,13 +1744,14 @@ public List<ProtectedRegion> getPlayerRegions(World world, Player player, boolea
     }
 
     try {
-        RegionManager regionManager = getWorldGuardRegionManager(world);
+        RegionManager regionManager = ensureOwnershipIndexed(world);
         if (regionManager == null) {
             return playerRegions;
         }
 
-        for (ProtectedRegion region : regionManager.getRegions().values()) {
-            if (isOwner(region, player) || (includeMembers && isMember(region, player))) {
+        for (String regionId : ownershipIndex.getRegionIds(world.getName(), player.getUniqueId(), player.getName(), includeMembers)) {
+            ProtectedRegion region = regionManager.getRegion(regionId);
+            if (region != null) {
                 playerRegions.add(region);
             }
         }
@@ -1521,12 +1774,8 @@ public int getPlayerRegionCount(Player player, boolean includeMembers) {
         return 0;
     }
 
-    int count = 0;
-    for (World world : plugin.getServer().getWorlds()) {
-        count += getPlayerRegions(world, player, includeMembers).size();
-    }
-
-    return count;
+    ensureOwnershipIndexed();
+    return ownershipIndex.count(player.getUniqueId(), player.getName(), includeMembers);
 }
 
 /**
@@ -1599,7 +1848,7 @@ public List<String> getOwnerNames(World world, String regionId) {
     try {
         Set<UUID> ownerUUIDs = getOwners(world, regionId);
         for (UUID uuid : ownerUUIDs) {
-            String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+            String name = plugin.getPlayerNameCache().getName(uuid);
             if (name != null) {
                 ownerNames.add(name);
             } else {
@@ -1632,7 +1881,7 @@ public List<String> getMemberNames(World world, String regionId) {
     try {
         Set<UUID> memberUUIDs = getMembers(world, regionId);
         for (UUID uuid : memberUUIDs) {
-            String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+            String name = plugin.getPlayerNameCache().getName(uuid);
             if (name != null) {
                 memberNames.add(name);
             } else {
@@ -1802,16 +2051,14 @@ public List<ProtectedRegion> getPlayerRegionsByUUID(World world, UUID playerUUID
     }
 
     try {
-        RegionManager regionManager = getWorldGuardRegionManager(world);
+        RegionManager regionManager = ensureOwnershipIndexed(world);
         if (regionManager == null) {
             return playerRegions;
         }
 
-        for (ProtectedRegion region : regionManager.getRegions().values()) {
-            boolean isOwner = region.getOwners().contains(playerUUID);
-            boolean isMember = region.getMembers().contains(playerUUID);
-
-            if (isOwner || (includeMembers && isMember)) {
+        for (String regionId : ownershipIndex.getRegionIds(world.getName(), playerUUID, null, includeMembers)) {
+            ProtectedRegion region = regionManager.getRegion(regionId);
+            if (region != null) {
                 playerRegions.add(region);
             }
         }
@@ -1880,12 +2127,8 @@ public int getPlayerRegionCountByUUID(UUID playerUUID, boolean includeMembers) {
         return 0;
     }
 
-    int count = 0;
-    for (World world : plugin.getServer().getWorlds()) {
-        count += getPlayerRegionsByUUID(world, playerUUID, includeMembers).size();
-    }
-
-    return count;
+    ensureOwnershipIndexed();
+    return ownershipIndex.count(playerUUID, null, includeMembers);
 }
 
 /**
@@ -2159,6 +2402,9 @@ public boolean removeMember(World world, String regionId, Player player) {
 public void clearCache() {
     regionManagerCache.clear();
     regionInfoCache.clear();
+    spatialIndexes.clear();
+    ownershipIndex.clear();
+    regionDirectory.clear();
     plugin.getLogger().info("Кэш ProtectRegionManager очищен");
 }
 
@@ -2179,6 +2425,12 @@ public String getManagerStatistics() {
     stats.append("=== Статистика ProtectRegionManager ===\n");
     stats.append("Кэш RegionManager'ов: ").append(regionManagerCache.size()).append("\n");
     stats.append("Кэш информации о регионах: ").append(regionInfoCache.size()).append("\n");
+    stats.append("Индексов регионов по мирам: ").append(spatialIndexes.size()).append("\n");
+    stats.append("Регионов в индексе владельцев: ").append(ownershipIndex.size()).append("\n");
+    stats.append("Регионов в справочнике: ").append(regionDirectory.size()).append("\n");
+    if (worldGuardGateway != null) {
+        stats.append("Сохранение регионов: ").append(worldGuardGateway.getSaveScheduler().getStatistics()).append("\n");
+    }
 
     for (Map.Entry<String, Integer> entry : operationStats.entrySet()) {
         stats.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
@@ -2294,7 +2546,7 @@ public String getRegionDetailedInfo(World world, String regionId) {
 
             // Добавляем владельцев по UUID
             for (UUID uuid : ownerUUIDs) {
-                String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+                String name = plugin.getPlayerNameCache().getName(uuid);
                 allOwners.add(name != null ? name : uuid.toString());
             }
 
@@ -2315,7 +2567,7 @@ public String getRegionDetailedInfo(World world, String regionId) {
 
             // Добавляем участников по UUID
             for (UUID uuid : memberUUIDs) {
-                String name = plugin.getServer().getOfflinePlayer(uuid).getName();
+                String name = plugin.getPlayerNameCache().getName(uuid);
                 allMembers.add(name != null ? name : uuid.toString());
             }
 
@@ -2611,6 +2863,11 @@ public void shutdown() {
     plugin.getLogger().info("ProtectRegionManager: Остановка...");
 
     try {
+        // Сохраняем отложенные изменения регионов
+        if (worldGuardGateway != null) {
+            worldGuardGateway.flushPendingSaves();
+        }
+
         // Сохраняем важную статистику
         Map<String, Integer> finalStats = new HashMap<>(operationStats);
         plugin.getLogger().info("Финальная статистика операций: " + finalStats);
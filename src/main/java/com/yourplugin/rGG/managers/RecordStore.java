@@ -0,0 +1,127 @@
+package com.yourplugin.rGG.managers;
+
+import java.util.Map;
+
+/**
+ * Хранилище записей одного вида данных (таймеры, флаги, расширения, состояния подсветки).
+ *
+ * Запись - ключ (ID региона или "регион.флаг") и набор простых полей.
+ * Поля "expiration" (время истечения в мс) и "world", если есть, индексируются реализацией.
+ * Менеджеры читают записи выборками (по сроку, миру, префиксу ключа) и по ключу;
+ * полная загрузка нужна только для переноса данных между хранилищами.
+ * Реализации создаются через {@link StorageBackend#openStore(DataStore)}.
+ */
+public interface RecordStore {
+
+    /**
+     * Загружает все записи (перенос данных, небольшие хранилища)
+     * @return Записи (ключ -> поля), только для чтения
+     */
+    Map<String, Map<String, Object>> load();
+
+    /**
+     * Записывает запись целиком (заменяет предыдущую)
+     */
+    void put(String key, Map<String, Object> fields);
+
+    /**
+     * Удаляет запись
+     */
+    void remove(String key);
+
+    /**
+     * Заменяет все записи хранилища (используется при миграции)
+     */
+    void replaceAll(Map<String, Map<String, Object>> records);
+
+    /**
+     * Копия всех текущих записей
+     */
+    Map<String, Map<String, Object>> snapshot();
+
+    /**
+     * Копия одной записи (полная загрузка не требуется)
+     * @return Поля записи или null если записи нет
+     */
+    Map<String, Object> get(String key);
+
+    /**
+     * Записи, истекающие не позже указанного времени
+     * @return Ключ -> поля
+     */
+    Map<String, Map<String, Object>> findExpiringBefore(long time);
+
+    /**
+     * Записи с полем "world", равным названию мира
+     * @return Ключ -> поля
+     */
+    Map<String, Map<String, Object>> findByWorld(String worldName);
+
+    /**
+     * Записи, ключ которых начинается с префикса (например, все флаги региона "регион.")
+     * @return Ключ -> поля
+     */
+    Map<String, Map<String, Object>> findByKeyPrefix(String prefix);
+
+    /**
+     * Сбрасывает накопленные изменения в основное хранилище
+     */
+    void compact();
+
+    /**
+     * Сохраняет изменения и закрывает хранилище
+     */
+    void close();
+
+    /**
+     * Количество записей
+     */
+    int size();
+
+    // ===== ЧТЕНИЕ ПОЛЕЙ =====
+
+    static long getLong(Map<String, Object> fields, String field, long def) {
+        Object value = fields.get(field);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return def;
+    }
+
+    static double getDouble(Map<String, Object> fields, String field, double def) {
+        Object value = fields.get(field);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return def;
+    }
+
+    static int getInt(Map<String, Object> fields, String field, int def) {
+        return (int) getLong(fields, field, def);
+    }
+
+    static boolean getBoolean(Map<String, Object> fields, String field, boolean def) {
+        Object value = fields.get(field);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value != null ? Boolean.parseBoolean(value.toString()) : def;
+    }
+
+    static String getString(Map<String, Object> fields, String field, String def) {
+        Object value = fields.get(field);
+        return value != null ? value.toString() : def;
+    }
+}
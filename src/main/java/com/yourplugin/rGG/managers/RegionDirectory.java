@@ -0,0 +1,117 @@
+package com.yourplugin.rGG.managers;
+
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий справочник регионов: ID региона -> мир и актуальный объект ProtectedRegion.
+ *
+ * Заменяет поиск региона перебором всех миров. Справочник обновляется
+ * при создании, удалении и замене региона (расширение, изменение высоты).
+ * Промахи запоминаются на короткое время, чтобы повторный поиск удаленного
+ * региона не перебирал все миры.
+ */
+public class RegionDirectory {
+
+    /**
+     * Запись справочника
+     */
+    public static final class Entry {
+        public final String worldName;
+        public final ProtectedRegion region;
+
+        Entry(String worldName, ProtectedRegion region) {
+            this.worldName = worldName;
+            this.region = region;
+        }
+    }
+
+    // Время жизни записи о промахе
+    private static final long MISS_TTL_MILLIS = 30_000L;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // ID региона -> время, когда регион не был найден ни в одном мире
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+
+    // Построен ли справочник из WorldGuard
+    private volatile boolean populated;
+
+    /**
+     * Добавляет или заменяет регион в справочнике
+     */
+    public void put(String worldName, ProtectedRegion region) {
+        if (worldName == null || region == null) {
+            return;
+        }
+        entries.put(region.getId(), new Entry(worldName, region));
+        misses.remove(region.getId());
+    }
+
+    /**
+     * Удаляет регион из справочника, если он зарегистрирован в указанном мире
+     */
+    public void remove(String worldName, String regionId) {
+        if (regionId == null) {
+            return;
+        }
+        Entry entry = entries.get(regionId);
+        if (entry != null && (worldName == null || entry.worldName.equals(worldName))) {
+            entries.remove(regionId, entry);
+        }
+    }
+
+    /**
+     * Получает запись по ID региона
+     * @return Entry или null
+     */
+    public Entry get(String regionId) {
+        return regionId != null ? entries.get(regionId) : null;
+    }
+
+    /**
+     * Запоминает, что регион не найден ни в одном мире
+     */
+    public void markMissing(String regionId) {
+        if (regionId != null) {
+            misses.put(regionId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Был ли регион недавно не найден ни в одном мире
+     */
+    public boolean isKnownMissing(String regionId) {
+        if (regionId == null) {
+            return false;
+        }
+        Long missedAt = misses.get(regionId);
+        if (missedAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - missedAt > MISS_TTL_MILLIS) {
+            misses.remove(regionId, missedAt);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isPopulated() {
+        return populated;
+    }
+
+    public void markPopulated() {
+        this.populated = true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        misses.clear();
+        populated = false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.yourplugin.rGG.managers;
+
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import org.bukkit.World;
+
+/**
+ * Изменение региона, рассылаемое через {@link RegionEventBus}
+ */
+public final class RegionEvent {
+
+    /**
+     * Вид изменения
+     */
+    public enum Type {
+        // Регион добавлен в WorldGuard
+        CREATED,
+        // Регион удален из WorldGuard
+        DELETED,
+        // Границы региона изменены (расширение, расширение по высоте)
+        RESIZED,
+        // Таймер жизни региона создан, продлен или удален
+        TIMER_CHANGED,
+        // Флаг защиты включен или истек
+        FLAG_CHANGED,
+        // Изменились владельцы или участники
+        OWNERS_CHANGED
+    }
+
+    private final Type type;
+    private final String regionId;
+    private final World world;
+    private final ProtectedRegion region;
+
+    public RegionEvent(Type type, String regionId, World world, ProtectedRegion region) {
+        this.type = type;
+        this.regionId = regionId;
+        this.world = world;
+        this.region = region;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getRegionId() {
+        return regionId;
+    }
+
+    /**
+     * Мир региона или null, если источник события его не знает
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Актуальный объект региона или null (для DELETED и событий без региона)
+     */
+    public ProtectedRegion getRegion() {
+        return region;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + regionId;
+    }
+}
@@ -0,0 +1,77 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Внутренняя шина событий изменения регионов.
+ *
+ * Менеджеры, меняющие регионы, таймеры и флаги, публикуют события, а индексы, кэши и голограммы
+ * подписываются на нужные виды событий вместо периодического опроса. Обработчики вызываются
+ * синхронно, в порядке подписки, в потоке публикации (основной поток сервера).
+ * Шина создается заново при перезагрузке плагина вместе с менеджерами.
+ */
+public class RegionEventBus {
+
+    private final RGProtectPlugin plugin;
+    private final Map<RegionEvent.Type, List<Consumer<RegionEvent>>> subscribers = new EnumMap<>(RegionEvent.Type.class);
+
+    public RegionEventBus(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Подписывает обработчик на указанные виды событий (без видов - на все)
+     */
+    public void subscribe(Consumer<RegionEvent> handler, RegionEvent.Type... types) {
+        RegionEvent.Type[] selected = types.length > 0 ? types : RegionEvent.Type.values();
+        for (RegionEvent.Type type : selected) {
+            subscribers.computeIfAbsent(type, k -> new ArrayList<>()).add(handler);
+        }
+    }
+
+    /**
+     * Публикует событие
+     */
+    public void fire(RegionEvent event) {
+        List<Consumer<RegionEvent>> handlers = subscribers.get(event.getType());
+        if (handlers == null) {
+            return;
+        }
+
+        if (plugin.getConfig().getBoolean("debug.log-region-events", false)) {
+            plugin.getLogger().info("Событие региона: " + event);
+        }
+
+        for (Consumer<RegionEvent> handler : new ArrayList<>(handlers)) {
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка в обработчике события " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public void fire(RegionEvent.Type type, String regionId, World world, ProtectedRegion region) {
+        fire(new RegionEvent(type, regionId, world, region));
+    }
+
+    public void fire(RegionEvent.Type type, String regionId) {
+        fire(new RegionEvent(type, regionId, null, null));
+    }
+
+    /**
+     * Удаляет всех подписчиков
+     */
+    public void clear() {
+        subscribers.clear();
+    }
+}
@@ -330,9 +330,6 @@ public class RegionLifetimeMenu {
                     formatTime(minutes) + "!");
             player.sendMessage(ChatColor.GRAY + "Списано: " + formatPrice(price) + " монет");
 
-            // Обновляем голограмму
-            plugin.getHologramManager().updateHologram(regionId, getRegionOwnerName(region));
-
             // Закрываем меню и открываем заново для обновления
             player.closeInventory();
             Bukkit.getScheduler().runTaskLater(plugin, () -> {
@@ -402,24 +399,13 @@ public class RegionLifetimeMenu {
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                com.sk89q.worldguard.protection.managers.RegionManager regionManager =
-                        plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    return regionManager.getRegion(regionId);
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 
     private String getRegionOwnerName(ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
@@ -7,8 +7,6 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.ChatColor;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -23,8 +21,6 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.io.File;
-import java.io.IOException;
 
 /**
  * Полностью переписанный менеджер меню регионов
@@ -46,9 +42,8 @@ public class RegionMenuManager {
     // Хранение состояния подсветки регионов
     private final Map<String, Boolean> regionBordersEnabled;
 
-    // Файл для сохранения состояний подсветки
-    private File bordersStateFile;
-    private FileConfiguration bordersStateConfig;
+    // Хранилище состояний подсветки (borders-state.yml + журнал изменений)
+    private RecordStore bordersStateStore;
 
     // Кэш для быстрого доступа к регионам
     private final Map<String, ProtectedRegion> regionCache;
@@ -82,27 +77,7 @@ public class RegionMenuManager {
      */
     private void initializeBordersState() {
         try {
-            // Создаем папку плагина если её нет
-            if (!plugin.getDataFolder().exists()) {
-                if (plugin.getDataFolder().mkdirs()) {
-                    plugin.getLogger().info("Создана папка плагина: " + plugin.getDataFolder().getPath());
-                }
-            }
-
-            bordersStateFile = new File(plugin.getDataFolder(), "borders-state.yml");
-
-            if (!bordersStateFile.exists()) {
-                try {
-                    if (bordersStateFile.createNewFile()) {
-                        plugin.getLogger().info("Создан файл состояний подсветки: borders-state.yml");
-                    }
-                } catch (IOException e) {
-                    plugin.getLogger().severe("Не удалось создать файл borders-state.yml: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-
-            bordersStateConfig = YamlConfiguration.loadConfiguration(bordersStateFile);
+            bordersStateStore = plugin.getStorageBackend().openStore(DataStore.BORDERS_STATE);
             plugin.getLogger().info("Система сохранения состояний подсветки инициализирована");
 
         } catch (Exception e) {
@@ -112,36 +87,26 @@ public class RegionMenuManager {
     }
 
     /**
-     * Загрузка состояний подсветки из файла
+     * Загрузка состояний подсветки (снимок borders-state.yml + журнал)
      */
     private void loadBordersState() {
-        if (bordersStateConfig == null) {
-            plugin.getLogger().warning("bordersStateConfig равен null при загрузке состояний");
+        if (bordersStateStore == null) {
+            plugin.getLogger().warning("bordersStateStore равен null при загрузке состояний");
             return;
         }
 
         try {
             int loadedStates = 0;
 
-            // Загружаем все сохраненные состояния
-            if (bordersStateConfig.contains("regions")) {
-                Set<String> regionIds = bordersStateConfig.getConfigurationSection("regions").getKeys(false);
-
-                for (String regionId : regionIds) {
-                    try {
-                        String path = "regions." + regionId + ".borders-enabled";
-                        boolean enabled = bordersStateConfig.getBoolean(path, true);
-                        regionBordersEnabled.put(regionId, enabled);
-                        loadedStates++;
+            for (Map.Entry<String, Map<String, Object>> entry : bordersStateStore.load().entrySet()) {
+                String regionId = entry.getKey();
+                boolean enabled = RecordStore.getBoolean(entry.getValue(), "borders-enabled", true);
+                regionBordersEnabled.put(regionId, enabled);
+                loadedStates++;
 
-                        if (plugin.getConfig().getBoolean("debug.log-borders-state", false)) {
-                            plugin.getLogger().info("DEBUG: Загружено состояние подсветки для региона " +
-                                    regionId + ": " + enabled);
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Ошибка при загрузке состояния для региона " +
-                                regionId + ": " + e.getMessage());
-                    }
+                if (plugin.getConfig().getBoolean("debug.log-borders-state", false)) {
+                    plugin.getLogger().info("DEBUG: Загружено состояние подсветки для региона " +
+                            regionId + ": " + enabled);
                 }
             }
 
@@ -154,39 +119,17 @@ public class RegionMenuManager {
     }
 
     /**
-     * Сохранение состояний подсветки в файл
+     * Сохранение состояния подсветки региона (одна запись в журнал)
      */
-    private void saveBordersState() {
-        if (bordersStateConfig == null) {
-            plugin.getLogger().warning("bordersStateConfig равен null при сохранении");
+    private void saveBordersState(String regionId, boolean enabled) {
+        if (bordersStateStore == null) {
+            plugin.getLogger().warning("bordersStateStore равен null при сохранении");
             return;
         }
 
-        try {
-            // Сохраняем все состояния
-            for (Map.Entry<String, Boolean> entry : regionBordersEnabled.entrySet()) {
-                String regionId = entry.getKey();
-                Boolean enabled = entry.getValue();
-
-                if (regionId != null && enabled != null) {
-                    bordersStateConfig.set("regions." + regionId + ".borders-enabled", enabled);
-                }
-            }
-
-            // Записываем в файл
-            bordersStateConfig.save(bordersStateFile);
-
-            if (plugin.getConfig().getBoolean("debug.log-borders-state", false)) {
-                plugin.getLogger().info("DEBUG: Сохранено " + regionBordersEnabled.size() + " состояний подсветки");
-            }
-
-        } catch (IOException e) {
-            plugin.getLogger().severe("Не удалось сохранить состояния подсветки: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) {
-            plugin.getLogger().severe("Критическая ошибка при сохранении состояний: " + e.getMessage());
-            e.printStackTrace();
-        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("borders-enabled", enabled);
+        bordersStateStore.put(regionId, fields);
     }
 
     /**
@@ -249,7 +192,7 @@ public class RegionMenuManager {
         }
 
         regionBordersEnabled.put(regionId, enabled);
-        saveBordersState();
+        saveBordersState(regionId, enabled);
 
         if (plugin.getConfig().getBoolean("debug.log-borders-state", false)) {
             plugin.getLogger().info("DEBUG: Состояние подсветки для региона " + regionId +
@@ -268,9 +211,8 @@ public class RegionMenuManager {
 
         regionBordersEnabled.remove(regionId);
 
-        if (bordersStateConfig != null) {
-            bordersStateConfig.set("regions." + regionId, null);
-            saveBordersState();
+        if (bordersStateStore != null) {
+            bordersStateStore.remove(regionId);
         }
 
         if (plugin.getConfig().getBoolean("debug.log-borders-state", false)) {
@@ -1352,14 +1294,13 @@ public class RegionMenuManager {
 
             ProtectedCuboidRegion testRegion = new ProtectedCuboidRegion("test", newMin, newMax);
 
-            // Получаем все регионы с помощью рефлексии
-            java.lang.reflect.Method getRegionsMethod = regionManager.getClass().getMethod("getRegions");
-            @SuppressWarnings("unchecked")
-            Map<String, ProtectedRegion> regions = (Map<String, ProtectedRegion>) getRegionsMethod.invoke(regionManager);
+            // Получаем пересекающиеся регионы через индекс WorldGuard
+            List<ProtectedRegion> regions = plugin.getProtectRegionManager().getWorldGuardGateway()
+                    .getIntersectingRegions(world, testRegion);
 
-            if (regions != null && !regions.isEmpty()) {
+            if (!regions.isEmpty()) {
                 List<String> conflictingOwners = new ArrayList<>();
-                for (ProtectedRegion existingRegion : regions.values()) {
+                for (ProtectedRegion existingRegion : regions) {
                     // Пропускаем сам регион
                     if (existingRegion.getId().equals(region.getId())) {
                         continue;
@@ -1553,7 +1494,8 @@ public class RegionMenuManager {
         }
 
         String regionId = region.getId();
-        String ownerName = getRegionOwnerName(region);
+        // Имя записывается в лор возвращаемого блока - разрешаем настоящее имя, а не заглушку кэша
+        String ownerName = resolveRegionOwnerName(region);
 
         plugin.getLogger().info("DEBUG DELETE: Начало удаления региона " + regionId + " владельца " + ownerName);
 
@@ -1603,12 +1545,9 @@ public class RegionMenuManager {
             plugin.getLogger().info("DEBUG DELETE: Удаляем регион из WorldGuard...");
 
             // Удаляем регион из WorldGuard
-            java.lang.reflect.Method removeRegionMethod = regionManager.getClass()
-                    .getMethod("removeRegion", String.class);
-            removeRegionMethod.invoke(regionManager, regionId);
-
-            java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-            saveMethod.invoke(regionManager);
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+            gateway.removeRegion(regionWorld, regionId);
+            gateway.save(regionWorld);
 
             plugin.getLogger().info("DEBUG DELETE: Регион удален из WorldGuard");
 
@@ -1831,30 +1770,24 @@ public class RegionMenuManager {
                 return false;
             }
 
-            Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-            if (regionManager == null) {
+            if (plugin.getProtectRegionManager().getWorldGuardRegionManager(world) == null) {
                 plugin.getLogger().severe("DEBUG EXPAND: RegionManager не найден");
                 return false;
             }
 
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+
             try {
-                // АТОМАРНАЯ замена региона
-                java.lang.reflect.Method removeRegionMethod = regionManager.getClass()
-                        .getMethod("removeRegion", String.class);
-                java.lang.reflect.Method addRegionMethod = regionManager.getClass()
-                        .getMethod("addRegion", ProtectedRegion.class);
-                java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-
-                // Удаляем старый регион
-                removeRegionMethod.invoke(regionManager, region.getId());
-                plugin.getLogger().info("DEBUG EXPAND: Старый регион удален");
-
-                // Добавляем новый регион
-                addRegionMethod.invoke(regionManager, newRegion);
+                // АТОМАРНАЯ замена региона (при ошибке шлюз возвращает оригинальный регион)
+                if (!gateway.redefineRegion(world, region, newRegion)) {
+                    plugin.getLogger().severe("DEBUG EXPAND: Не удалось заменить регион " + regionId);
+                    gateway.save(world);
+                    return false;
+                }
                 plugin.getLogger().info("DEBUG EXPAND: Новый регион добавлен");
 
                 // Сохраняем изменения
-                saveMethod.invoke(regionManager);
+                gateway.save(world);
                 plugin.getLogger().info("DEBUG EXPAND: Изменения сохранены");
 
                 // Правильно обрабатываем границы для всех типов регионов
@@ -1880,24 +1813,8 @@ public class RegionMenuManager {
                 return true;
 
             } catch (Exception e) {
-                plugin.getLogger().severe("DEBUG EXPAND: Ошибка при замене региона: " + e.getMessage());
+                plugin.getLogger().severe("DEBUG EXPAND: Ошибка при обновлении границ после расширения: " + e.getMessage());
                 e.printStackTrace();
-
-                // Пытаемся восстановить оригинальный регион
-                try {
-                    java.lang.reflect.Method addRegionMethod = regionManager.getClass()
-                            .getMethod("addRegion", ProtectedRegion.class);
-                    addRegionMethod.invoke(regionManager, region);
-
-                    java.lang.reflect.Method saveMethod = regionManager.getClass().getMethod("save");
-                    saveMethod.invoke(regionManager);
-
-                    plugin.getLogger().info("DEBUG EXPAND: Оригинальный регион восстановлен после ошибки");
-                } catch (Exception restoreEx) {
-                    plugin.getLogger().severe("DEBUG EXPAND: КРИТИЧЕСКАЯ ОШИБКА: Не удалось восстановить оригинальный регион: " + restoreEx.getMessage());
-                    restoreEx.printStackTrace();
-                }
-
                 return false;
             }
 
@@ -2062,6 +1979,25 @@ public class RegionMenuManager {
             return null;
         }
     }
+    /**
+     * Настоящее имя владельца региона для записи в предмет (синхронно, без заглушки)
+     * @return Имя или null если владелец неизвестен
+     */
+    private String resolveRegionOwnerName(ProtectedRegion region) {
+        try {
+            if (!region.getOwners().getUniqueIds().isEmpty()) {
+                UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
+                return plugin.getPlayerNameCache().resolveNow(ownerUUID);
+            }
+            if (!region.getOwners().getPlayers().isEmpty()) {
+                return region.getOwners().getPlayers().iterator().next();
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Ошибка при получении владельца региона: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Получение имени владельца региона
      */
@@ -2074,7 +2010,7 @@ public class RegionMenuManager {
             // Сначала пробуем получить по UUID
             if (!region.getOwners().getUniqueIds().isEmpty()) {
                 UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-                String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+                String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
                 return ownerName != null ? ownerName : "Неизвестно";
             }
 
@@ -2205,31 +2141,14 @@ public class RegionMenuManager {
     }
 
     /**
-     * Поиск региона по ID во всех мирах
+     * Поиск региона по ID через общий справочник регионов
      */
     private ProtectedRegion findRegionById(String regionId) {
         if (regionId == null || regionId.trim().isEmpty()) {
             return null;
         }
 
-        for (World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return region;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем ошибки поиска в конкретном мире
-                if (plugin.getConfig().getBoolean("debug.log-region-search-errors", false)) {
-                    plugin.getLogger().warning("Ошибка поиска региона " + regionId + " в мире " + world.getName() + ": " + e.getMessage());
-                }
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
     }
 
     /**
@@ -2240,21 +2159,7 @@ public class RegionMenuManager {
             return null;
         }
 
-        for (World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return world;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем ошибки поиска
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findWorldForRegion(regionId);
     }
     // ===== ПУБЛИЧНЫЕ МЕТОДЫ УПРАВЛЕНИЯ МЕНЮ =====
 
@@ -2560,8 +2465,10 @@ public class RegionMenuManager {
             // Закрываем все меню
             closeAllMenus();
 
-            // Сохраняем состояния подсветки
-            saveBordersState();
+            // Сохраняем снимок состояний подсветки и закрываем журнал
+            if (bordersStateStore != null) {
+                bordersStateStore.close();
+            }
 
             // Очищаем все коллекции
             openMenus.clear();
@@ -2629,13 +2536,8 @@ public class RegionMenuManager {
      */
     public boolean isHealthy() {
         try {
-            // Проверяем файлы
-            if (bordersStateFile != null && !bordersStateFile.exists()) {
-                plugin.getLogger().warning("HEALTH: Файл состояний подсветки не существует");
-                return false;
-            }
-
-            if (bordersStateConfig == null) {
+            // Проверяем хранилище
+            if (bordersStateStore == null) {
                 plugin.getLogger().warning("HEALTH: Конфигурация состояний подсветки не загружена");
                 return false;
             }
@@ -2695,9 +2597,12 @@ public class RegionMenuManager {
             return;
         }
 
-        regionBordersEnabled.clear();
-        regionBordersEnabled.putAll(settings);
-        saveBordersState();
+        for (String regionId : new ArrayList<>(regionBordersEnabled.keySet())) {
+            if (!settings.containsKey(regionId)) {
+                removeRegionBordersState(regionId);
+            }
+        }
+        bulkUpdateBordersState(settings);
 
         plugin.getLogger().info("Импортировано " + settings.size() + " настроек подсветки");
     }
@@ -2707,25 +2612,14 @@ public class RegionMenuManager {
      */
     public void forceSyncBordersState() {
         try {
-            if (bordersStateFile == null || bordersStateConfig == null) {
-                plugin.getLogger().warning("Не удается синхронизировать - файлы не инициализированы");
+            if (bordersStateStore == null) {
+                plugin.getLogger().warning("Не удается синхронизировать - хранилище не инициализировано");
                 return;
             }
 
-            // Перезагружаем из файла
-            bordersStateConfig = YamlConfiguration.loadConfiguration(bordersStateFile);
-
-            // Очищаем текущие настройки
+            // Очищаем текущие настройки и перечитываем снимок + журнал
             regionBordersEnabled.clear();
-
-            // Загружаем из файла
-            if (bordersStateConfig.contains("regions")) {
-                Set<String> regionIds = bordersStateConfig.getConfigurationSection("regions").getKeys(false);
-                for (String regionId : regionIds) {
-                    boolean enabled = bordersStateConfig.getBoolean("regions." + regionId + ".borders-enabled", true);
-                    regionBordersEnabled.put(regionId, enabled);
-                }
-            }
+            loadBordersState();
 
             plugin.getLogger().info("Принудительная синхронизация состояний подсветки завершена");
 
@@ -2793,12 +2687,12 @@ public class RegionMenuManager {
 
             if (regionId != null && enabled != null) {
                 regionBordersEnabled.put(regionId, enabled);
+                saveBordersState(regionId, enabled);
                 updated++;
             }
         }
 
         if (updated > 0) {
-            saveBordersState();
             plugin.getLogger().info("Массово обновлено " + updated + " состояний подсветки");
         }
     }
@@ -2827,7 +2721,7 @@ public class RegionMenuManager {
      * Проверка, является ли менеджер инициализированным
      */
     public boolean isInitialized() {
-        return bordersStateFile != null && bordersStateConfig != null;
+        return bordersStateStore != null;
     }
 
     /**
@@ -2864,8 +2758,8 @@ public class RegionMenuManager {
         plugin.getLogger().info("RegionMenuManager: Выполняем финальные проверки");
 
         // Проверяем несохраненные изменения
-        if (!regionBordersEnabled.isEmpty()) {
-            saveBordersState();
+        if (!regionBordersEnabled.isEmpty() && bordersStateStore != null) {
+            bordersStateStore.compact();
             plugin.getLogger().info("Сохранены финальные изменения состояний подсветки");
         }
 
@@ -2911,12 +2805,8 @@ public class RegionMenuManager {
         return new HashMap<>(regionBordersEnabled);
     }
 
-    public File getBordersStateFile() {
-        return bordersStateFile;
-    }
-
-    public FileConfiguration getBordersStateConfig() {
-        return bordersStateConfig;
+    public RecordStore getBordersStateStore() {
+        return bordersStateStore;
     }
 
 } // Конец класса RegionMenuManager
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.yourplugin.rGG.managers;
+
+import com.sk89q.worldguard.domains.DefaultDomain;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Обратный индекс владельцев и участников регионов.
+ *
+ * Хранит для каждого игрока (по UUID, а для старых записей WorldGuard — по имени в нижнем регистре)
+ * множество ID регионов по мирам. Позволяет считать регионы игрока и проверять лимиты
+ * без полного обхода RegionManager.getRegions().
+ *
+ * Индекс синхронизируется через {@link #update(String, ProtectedRegion)} после любого изменения
+ * владельцев/участников и через {@link #remove(String, String)} при удалении региона.
+ */
+public class RegionOwnershipIndex {
+
+    // UUID -> мир -> ID регионов
+    private final Map<UUID, Map<String, Set<String>>> ownersByUuid = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, Set<String>>> membersByUuid = new ConcurrentHashMap<>();
+
+    // Имя (нижний регистр) -> мир -> ID регионов, для регионов со старыми записями по имени
+    private final Map<String, Map<String, Set<String>>> ownersByName = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> membersByName = new ConcurrentHashMap<>();
+
+    // Последнее проиндексированное состояние каждого региона (мир + ID)
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Миры, для которых индекс уже построен
+    private final Set<String> indexedWorlds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Снимок владельцев и участников региона на момент индексации
+     */
+    private static final class Entry {
+        final Set<UUID> ownerIds;
+        final Set<UUID> memberIds;
+        final Set<String> ownerNames;
+        final Set<String> memberNames;
+
+        Entry(DefaultDomain owners, DefaultDomain members) {
+            this.ownerIds = new HashSet<>(owners.getUniqueIds());
+            this.memberIds = new HashSet<>(members.getUniqueIds());
+            this.ownerNames = lowerCase(owners.getPlayers());
+            this.memberNames = lowerCase(members.getPlayers());
+        }
+
+        private static Set<String> lowerCase(Set<String> names) {
+            if (names.isEmpty()) {
+                return Collections.emptySet();
+            }
+            Set<String> result = new HashSet<>();
+            for (String name : names) {
+                result.add(name.toLowerCase());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Проверяет, построен ли индекс для мира
+     */
+    public boolean isWorldIndexed(String worldName) {
+        return indexedWorlds.contains(worldName);
+    }
+
+    /**
+     * Строит индекс для мира по полному списку его регионов
+     */
+    public void indexWorld(String worldName, Iterable<ProtectedRegion> regions) {
+        for (ProtectedRegion region : regions) {
+            update(worldName, region);
+        }
+        indexedWorlds.add(worldName);
+    }
+
+    /**
+     * Обновляет владельцев и участников региона в индексе
+     */
+    public void update(String worldName, ProtectedRegion region) {
+        if (worldName == null || region == null) {
+            return;
+        }
+
+        String regionId = region.getId();
+        remove(worldName, regionId);
+
+        Entry entry = new Entry(region.getOwners(), region.getMembers());
+        for (UUID uuid : entry.ownerIds) {
+            link(ownersByUuid, uuid, worldName, regionId);
+        }
+        for (UUID uuid : entry.memberIds) {
+            link(membersByUuid, uuid, worldName, regionId);
+        }
+        for (String name : entry.ownerNames) {
+            link(ownersByName, name, worldName, regionId);
+        }
+        for (String name : entry.memberNames) {
+            link(membersByName, name, worldName, regionId);
+        }
+
+        entries.put(entryKey(worldName, regionId), entry);
+    }
+
+    /**
+     * Удаляет регион из индекса
+     */
+    public void remove(String worldName, String regionId) {
+        if (worldName == null || regionId == null) {
+            return;
+        }
+
+        Entry entry = entries.remove(entryKey(worldName, regionId));
+        if (entry == null) {
+            return;
+        }
+
+        for (UUID uuid : entry.ownerIds) {
+            unlink(ownersByUuid, uuid, worldName, regionId);
+        }
+        for (UUID uuid : entry.memberIds) {
+            unlink(membersByUuid, uuid, worldName, regionId);
+        }
+        for (String name : entry.ownerNames) {
+            unlink(ownersByName, name, worldName, regionId);
+        }
+        for (String name : entry.memberNames) {
+            unlink(membersByName, name, worldName, regionId);
+        }
+    }
+
+    /**
+     * Получает ID регионов игрока в мире
+     * @param worldName Мир
+     * @param uuid UUID игрока
+     * @param name Имя игрока (для старых записей по имени), может быть null
+     * @param includeMembers Включать регионы где игрок является участником
+     * @return Новое множество ID регионов
+     */
+    public Set<String> getRegionIds(String worldName, UUID uuid, String name, boolean includeMembers) {
+        Set<String> result = new HashSet<>();
+        collect(result, ownersByUuid, uuid, worldName);
+        if (name != null) {
+            collect(result, ownersByName, name.toLowerCase(), worldName);
+        }
+        if (includeMembers) {
+            collect(result, membersByUuid, uuid, worldName);
+            if (name != null) {
+                collect(result, membersByName, name.toLowerCase(), worldName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Подсчитывает регионы игрока во всех проиндексированных мирах.
+     * Для частого случая (только владелец, без старых записей по имени) не создает объектов.
+     */
+    public int count(UUID uuid, String name, boolean includeMembers) {
+        Map<String, Set<String>> namedOwned = name != null ? ownersByName.get(name.toLowerCase()) : null;
+        if (!includeMembers && (namedOwned == null || namedOwned.isEmpty())) {
+            Map<String, Set<String>> owned = uuid != null ? ownersByUuid.get(uuid) : null;
+            if (owned == null) {
+                return 0;
+            }
+            int count = 0;
+            for (Set<String> ids : owned.values()) {
+                count += ids.size();
+            }
+            return count;
+        }
+
+        int count = 0;
+        for (String worldName : indexedWorlds) {
+            count += getRegionIds(worldName, uuid, name, includeMembers).size();
+        }
+        return count;
+    }
+
+    /**
+     * Количество проиндексированных регионов
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Полностью очищает индекс
+     */
+    public void clear() {
+        ownersByUuid.clear();
+        membersByUuid.clear();
+        ownersByName.clear();
+        membersByName.clear();
+        entries.clear();
+        indexedWorlds.clear();
+    }
+
+    private static String entryKey(String worldName, String regionId) {
+        return worldName + ':' + regionId;
+    }
+
+    private static <K> void link(Map<K, Map<String, Set<String>>> index, K key, String worldName, String regionId) {
+        index.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(worldName, w -> ConcurrentHashMap.newKeySet())
+                .add(regionId);
+    }
+
+    private static <K> void unlink(Map<K, Map<String, Set<String>>> index, K key, String worldName, String regionId) {
+        Map<String, Set<String>> byWorld = index.get(key);
+        if (byWorld == null) {
+            return;
+        }
+        Set<String> ids = byWorld.get(worldName);
+        if (ids != null) {
+            ids.remove(regionId);
+            if (ids.isEmpty()) {
+                byWorld.remove(worldName);
+            }
+        }
+        if (byWorld.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static <K> void collect(Set<String> result, Map<K, Map<String, Set<String>>> index, K key, String worldName) {
+        if (key == null) {
+            return;
+        }
+        Map<String, Set<String>> byWorld = index.get(key);
+        if (byWorld == null) {
+            return;
+        }
+        Set<String> ids = byWorld.get(worldName);
+        if (ids != null) {
+            result.addAll(ids);
+        }
+    }
+}
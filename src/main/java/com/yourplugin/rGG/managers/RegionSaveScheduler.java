@@ -0,0 +1,176 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отложенное (write-behind) сохранение баз регионов WorldGuard.
+ *
+ * Вместо вызова RegionManager.save() после каждой операции мир помечается как измененный.
+ * Раз в интервал все измененные миры сохраняются одной операцией на мир в асинхронном потоке.
+ * При остановке плагина несохраненные миры сохраняются синхронно.
+ */
+public class RegionSaveScheduler {
+
+    private final RGProtectPlugin plugin;
+    private final WorldGuardGateway gateway;
+
+    // Миры, ожидающие сохранения
+    private final Set<String> dirtyWorlds = ConcurrentHashMap.newKeySet();
+
+    // Миры, сохранение которых выполняется прямо сейчас
+    private final Set<String> savingWorlds = ConcurrentHashMap.newKeySet();
+
+    // Блокировки сохранения по мирам (асинхронное сохранение и финальный сброс не пересекаются)
+    private final Map<String, Object> saveLocks = new ConcurrentHashMap<>();
+
+    private BukkitTask flushTask;
+    private boolean writeBehind;
+
+    // Статистика
+    private final AtomicLong requestedSaves = new AtomicLong();
+    private final AtomicLong performedSaves = new AtomicLong();
+
+    public RegionSaveScheduler(RGProtectPlugin plugin, WorldGuardGateway gateway) {
+        this.plugin = plugin;
+        this.gateway = gateway;
+    }
+
+    /**
+     * Запускает периодическое сохранение
+     */
+    public void start() {
+        writeBehind = plugin.getConfig().getBoolean("advanced.region-save.write-behind", true);
+        if (!writeBehind) {
+            plugin.getLogger().info("Отложенное сохранение регионов отключено - сохранение после каждой операции");
+            return;
+        }
+
+        long interval = Math.max(1L, plugin.getConfig().getLong("advanced.region-save.interval-ticks", 100L));
+        flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushAsync();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Помечает мир как требующий сохранения
+     * @param world Мир
+     */
+    public void markDirty(World world) {
+        if (world == null) {
+            return;
+        }
+
+        requestedSaves.incrementAndGet();
+        if (!writeBehind) {
+            saveWorld(world.getName(), gateway.getRegionManager(world));
+            return;
+        }
+
+        dirtyWorlds.add(world.getName());
+    }
+
+    /**
+     * Запускает асинхронное сохранение всех измененных миров (вызывается в основном потоке)
+     */
+    private void flushAsync() {
+        if (dirtyWorlds.isEmpty()) {
+            return;
+        }
+
+        for (String worldName : new ArrayList<>(dirtyWorlds)) {
+            // Предыдущее сохранение еще идет - мир остается помеченным до следующего интервала
+            if (savingWorlds.contains(worldName)) {
+                continue;
+            }
+
+            World world = plugin.getServer().getWorld(worldName);
+            RegionManager regionManager = world != null ? gateway.getRegionManager(world) : null;
+            dirtyWorlds.remove(worldName);
+            if (regionManager == null) {
+                continue;
+            }
+
+            savingWorlds.add(worldName);
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    saveWorld(worldName, regionManager);
+                } finally {
+                    savingWorlds.remove(worldName);
+                }
+            });
+        }
+    }
+
+    /**
+     * Синхронно сохраняет все измененные миры. Вызывается при остановке плагина.
+     */
+    public void flushNow() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        List<String> pending = new ArrayList<>(dirtyWorlds);
+        dirtyWorlds.clear();
+
+        for (String worldName : pending) {
+            World world = plugin.getServer().getWorld(worldName);
+            if (world != null) {
+                saveWorld(worldName, gateway.getRegionManager(world));
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            plugin.getLogger().info("Сохранены отложенные изменения регионов в мирах: " + pending);
+        }
+    }
+
+    private void saveWorld(String worldName, RegionManager regionManager) {
+        if (regionManager == null) {
+            return;
+        }
+
+        synchronized (saveLocks.computeIfAbsent(worldName, name -> new Object())) {
+            try {
+                regionManager.save();
+                performedSaves.incrementAndGet();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при сохранении регионов мира " + worldName + ": " + e.getMessage());
+                // Повторим попытку в следующем интервале
+                if (writeBehind) {
+                    dirtyWorlds.add(worldName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Количество миров, ожидающих сохранения
+     */
+    public int getPendingCount() {
+        return dirtyWorlds.size();
+    }
+
+    /**
+     * Краткая статистика для отладки
+     */
+    public String getStatistics() {
+        return "запросов сохранения: " + requestedSaves.get() + ", выполнено сохранений: " + performedSaves.get() +
+                ", ожидают: " + dirtyWorlds.size();
+    }
+}
@@ -0,0 +1,310 @@
+package com.yourplugin.rGG.managers;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Пространственный индекс регионов одного мира, разбитый по чанкам.
+ *
+ * Индексируются только регионы плагина: регионы шире максимального размера привата
+ * (административные, спавн, регион на весь мир) пропускаются - они не должны перекрывать
+ * приваты по приоритету и не должны занимать корзину в каждом чанке.
+ *
+ * Каждый чанк (16x16 по X/Z) хранит компактный список регионов, которые его пересекают,
+ * вместе с упакованными границами (6 int на регион). Поиск региона в точке —
+ * одна проверка хэш-таблицы по ключу чанка и линейный проход по нескольким записям
+ * без создания объектов.
+ *
+ * Класс не потокобезопасен: все изменения и запросы выполняются в основном потоке сервера.
+ */
+public class RegionSpatialIndex {
+
+    private static final int BOUNDS_STRIDE = 6;
+
+    // Открытая адресация: ключ чанка -> корзина регионов
+    private long[] keys;
+    private Bucket[] buckets;
+    private int size;
+    // Максимальная ширина региона по X и Z; регионы шире не индексируются
+    private final int maxFootprint;
+
+    // Чанки, которые занимает каждый регион (нужны для удаления)
+    private final Map<String, long[]> chunksByRegion = new HashMap<>();
+
+    /**
+     * Корзина регионов одного чанка
+     */
+    private static final class Bucket {
+        ProtectedRegion[] regions = new ProtectedRegion[2];
+        int[] bounds = new int[2 * BOUNDS_STRIDE];
+        int count;
+
+        void add(ProtectedRegion region, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            if (count == regions.length) {
+                regions = Arrays.copyOf(regions, count * 2);
+                bounds = Arrays.copyOf(bounds, count * 2 * BOUNDS_STRIDE);
+            }
+            int offset = count * BOUNDS_STRIDE;
+            regions[count] = region;
+            bounds[offset] = minX;
+            bounds[offset + 1] = minY;
+            bounds[offset + 2] = minZ;
+            bounds[offset + 3] = maxX;
+            bounds[offset + 4] = maxY;
+            bounds[offset + 5] = maxZ;
+            count++;
+        }
+
+        /**
+         * @return true если корзина стала пустой
+         */
+        boolean remove(String regionId) {
+            for (int i = 0; i < count; i++) {
+                if (regions[i].getId().equals(regionId)) {
+                    int last = count - 1;
+                    regions[i] = regions[last];
+                    System.arraycopy(bounds, last * BOUNDS_STRIDE, bounds, i * BOUNDS_STRIDE, BOUNDS_STRIDE);
+                    regions[last] = null;
+                    count--;
+                    break;
+                }
+            }
+            return count == 0;
+        }
+    }
+
+    /**
+     * @param maxFootprint Максимальная ширина региона плагина по X и Z (в блоках)
+     */
+    public RegionSpatialIndex(int maxFootprint) {
+        this.keys = new long[64];
+        this.buckets = new Bucket[64];
+        this.maxFootprint = maxFootprint;
+    }
+
+    /**
+     * Добавляет или обновляет регион в индексе
+     * @param region Регион WorldGuard
+     * @return false если регион не относится к приватам плагина и не проиндексирован
+     */
+    public boolean add(ProtectedRegion region) {
+        if (region == null) {
+            return false;
+        }
+
+        String regionId = region.getId();
+        remove(regionId);
+
+        if (region.getType() == RegionType.GLOBAL) {
+            return false;
+        }
+
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        int minX = min.x(), minY = min.y(), minZ = min.z();
+        int maxX = max.x(), maxY = max.y(), maxZ = max.z();
+
+        // Сравнение в long: у региона на весь мир ширина не помещается в int
+        if ((long) maxX - minX + 1 > maxFootprint || (long) maxZ - minZ + 1 > maxFootprint) {
+            return false;
+        }
+
+        int minChunkX = minX >> 4, maxChunkX = maxX >> 4;
+        int minChunkZ = minZ >> 4, maxChunkZ = maxZ >> 4;
+
+        long[] occupied = new long[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+        int index = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                long key = chunkKey(chunkX, chunkZ);
+                getOrCreateBucket(key).add(region, minX, minY, minZ, maxX, maxY, maxZ);
+                occupied[index++] = key;
+            }
+        }
+
+        chunksByRegion.put(regionId, occupied);
+        return true;
+    }
+
+    /**
+     * Удаляет регион из индекса
+     * @param regionId ID региона
+     */
+    public void remove(String regionId) {
+        if (regionId == null) {
+            return;
+        }
+
+        long[] occupied = chunksByRegion.remove(regionId);
+        if (occupied == null) {
+            return;
+        }
+
+        for (long key : occupied) {
+            Bucket bucket = getBucket(key);
+            if (bucket != null && bucket.remove(regionId)) {
+                removeBucket(key);
+            }
+        }
+    }
+
+    /**
+     * Находит регион, содержащий указанный блок.
+     * При пересечении нескольких регионов возвращается регион с наибольшим приоритетом.
+     * @return ProtectedRegion или null
+     */
+    public ProtectedRegion getRegionAt(int x, int y, int z) {
+        Bucket bucket = getBucket(chunkKey(x >> 4, z >> 4));
+        if (bucket == null || bucket.count == 0) {
+            return null;
+        }
+
+        ProtectedRegion best = null;
+        int[] bounds = bucket.bounds;
+        for (int i = 0; i < bucket.count; i++) {
+            int offset = i * BOUNDS_STRIDE;
+            if (x < bounds[offset] || y < bounds[offset + 1] || z < bounds[offset + 2]
+                    || x > bounds[offset + 3] || y > bounds[offset + 4] || z > bounds[offset + 5]) {
+                continue;
+            }
+
+            ProtectedRegion candidate = bucket.regions[i];
+            // Для некубоидных регионов границы — только описывающий параллелепипед
+            if (!(candidate instanceof ProtectedCuboidRegion) && !candidate.contains(x, y, z)) {
+                continue;
+            }
+
+            if (best == null || candidate.getPriority() > best.getPriority()) {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Проверяет, есть ли регион в индексе
+     */
+    public boolean contains(String regionId) {
+        return chunksByRegion.containsKey(regionId);
+    }
+
+    /**
+     * Количество проиндексированных регионов
+     */
+    public int getRegionCount() {
+        return chunksByRegion.size();
+    }
+
+    /**
+     * Количество чанков в индексе
+     */
+    public int getChunkCount() {
+        return size;
+    }
+
+    /**
+     * Полностью очищает индекс
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(buckets, null);
+        size = 0;
+        chunksByRegion.clear();
+    }
+
+    // ===== ХЭШ-ТАБЛИЦА ЧАНКОВ =====
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private Bucket getBucket(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (buckets[slot] != null) {
+            if (keys[slot] == key) {
+                return buckets[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private Bucket getOrCreateBucket(long key) {
+        Bucket existing = getBucket(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+
+        Bucket bucket = new Bucket();
+        insert(keys, buckets, key, bucket);
+        size++;
+        return bucket;
+    }
+
+    /**
+     * Удаляет корзину из таблицы со сдвигом следующих записей цепочки
+     */
+    private void removeBucket(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (buckets[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (buckets[slot] == null) {
+            return;
+        }
+
+        buckets[slot] = null;
+        keys[slot] = 0L;
+        size--;
+
+        int next = (slot + 1) & mask;
+        while (buckets[next] != null) {
+            long nextKey = keys[next];
+            Bucket nextBucket = buckets[next];
+            buckets[next] = null;
+            keys[next] = 0L;
+            insert(keys, buckets, nextKey, nextBucket);
+            next = (next + 1) & mask;
+        }
+    }
+
+    private static void insert(long[] targetKeys, Bucket[] targetBuckets, long key, Bucket bucket) {
+        int mask = targetKeys.length - 1;
+        int slot = slot(key, mask);
+        while (targetBuckets[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        targetKeys[slot] = key;
+        targetBuckets[slot] = bucket;
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        Bucket[] newBuckets = new Bucket[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (buckets[i] != null) {
+                insert(newKeys, newBuckets, keys[i], buckets[i]);
+            }
+        }
+        keys = newKeys;
+        buckets = newBuckets;
+    }
+}
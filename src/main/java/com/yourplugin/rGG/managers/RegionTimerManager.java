@@ -3,87 +3,96 @@ package com.yourplugin.rGG.managers;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.yourplugin.rGG.RGProtectPlugin;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class RegionTimerManager {
 
+    // Префикс ключей сроков в общем планировщике
+    private static final String EXPIRATION_KEY_PREFIX = "timer:";
+    private static final String WARNING_KEY_PREFIX = "timer-warn:";
+
     private final RGProtectPlugin plugin;
     // Хранение времени истечения для каждого региона
     private final Map<String, Long> regionExpirationTimes;
-    // Хранение последних уведомлений для каждого региона
-    private final Map<String, Set<Integer>> sentNotifications;
-    // Задача обновления таймеров
-    private BukkitTask timerTask;
-    // Файл для сохранения таймеров
-    private File timersFile;
-    private FileConfiguration timersConfig;
+    // Предупреждения о скором истечении
+    private final ExpiryWarningNotifier warningNotifier;
+    // Хранилище таймеров (region-timers.yml + журнал изменений)
+    private RecordStore timersStore;
+    // Загрузка таймеров, истекающих в ближайшее окно
+    private ExpirationPreloader preloader;
 
     public RegionTimerManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         this.regionExpirationTimes = new ConcurrentHashMap<>();
-        this.sentNotifications = new ConcurrentHashMap<>();
+        this.warningNotifier = new ExpiryWarningNotifier(plugin, WARNING_KEY_PREFIX,
+                ExpiryWarningNotifier.readThresholds(plugin, "region-timer.warning-seconds", 1800, 600, 300, 30),
+                this::findOwnerName, this::sendExpirationWarnings);
 
-        // Загружаем сохраненные таймеры
+        // Загружаем сохраненные таймеры (сроки и предупреждения регистрируются в общем планировщике)
         loadTimers();
-
-        // Запускаем задачу проверки таймеров
-        startTimerTask();
     }
 
     /**
-     * Загрузка сохраненных таймеров из файла
+     * Загрузка сохраненных таймеров: при запуске только истекающие в ближайшее окно,
+     * остальные читаются из хранилища при обращении к таймеру региона
      */
     private void loadTimers() {
-        timersFile = new File(plugin.getDataFolder(), "region-timers.yml");
+        timersStore = plugin.getStorageBackend().openStore(DataStore.TIMERS);
+        preloader = new ExpirationPreloader(plugin, timersStore, this::loadTimer);
+        int loaded = preloader.start();
+        plugin.getLogger().info("Загружено таймеров, истекающих в ближайшее окно: " + loaded);
+    }
 
-        if (!timersFile.exists()) {
-            try {
-                timersFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Не удалось создать файл region-timers.yml: " + e.getMessage());
-            }
+    /**
+     * Загружает таймер из записи хранилища, если он еще не в памяти
+     */
+    private void loadTimer(String regionId, Map<String, Object> fields) {
+        if (regionExpirationTimes.containsKey(regionId)) {
+            return;
         }
 
-        timersConfig = YamlConfiguration.loadConfiguration(timersFile);
-
-        // Загружаем все сохраненные таймеры
-        if (timersConfig.contains("timers")) {
-            for (String regionId : timersConfig.getConfigurationSection("timers").getKeys(false)) {
-                long expirationTime = timersConfig.getLong("timers." + regionId + ".expiration");
-                regionExpirationTimes.put(regionId, expirationTime);
+        long expirationTime = RecordStore.getLong(fields, "expiration", 0L);
+        regionExpirationTimes.put(regionId, expirationTime);
+        scheduleExpiration(regionId, expirationTime);
 
-                if (plugin.getConfig().getBoolean("debug.log-timer-loading", false)) {
-                    plugin.getLogger().info("DEBUG TIMER: Загружен таймер для региона " + regionId +
-                            ", истекает: " + new Date(expirationTime));
-                }
-            }
+        if (plugin.getConfig().getBoolean("debug.log-timer-loading", false)) {
+            plugin.getLogger().info("DEBUG TIMER: Загружен таймер для региона " + regionId +
+                    ", истекает: " + new Date(expirationTime));
         }
     }
 
     /**
-     * Сохранение таймеров в файл
+     * Время истечения таймера региона (таймер вне окна загрузки читается из хранилища)
+     * @return Время или null если таймера нет
      */
-    private void saveTimers() {
-        for (Map.Entry<String, Long> entry : regionExpirationTimes.entrySet()) {
-            timersConfig.set("timers." + entry.getKey() + ".expiration", entry.getValue());
+    private Long getTimerExpiration(String regionId) {
+        Long expiration = regionExpirationTimes.get(regionId);
+        if (expiration == null && regionId != null) {
+            Map<String, Object> fields = timersStore.get(regionId);
+            if (fields != null) {
+                loadTimer(regionId, fields);
+                expiration = regionExpirationTimes.get(regionId);
+            }
         }
+        return expiration;
+    }
 
-        try {
-            timersConfig.save(timersFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Не удалось сохранить таймеры: " + e.getMessage());
+    /**
+     * Сохранение таймера региона (одна запись в журнал)
+     */
+    private void saveTimer(String regionId, long expirationTime) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("expiration", expirationTime);
+        org.bukkit.World world = plugin.getProtectRegionManager().findWorldForRegion(regionId);
+        if (world != null) {
+            fields.put("world", world.getName());
         }
+        timersStore.put(regionId, fields);
     }
 
     /**
@@ -95,9 +104,10 @@ public class RegionTimerManager {
         long expirationTime = System.currentTimeMillis() + (initialMinutes * 60 * 1000L);
 
         regionExpirationTimes.put(regionId, expirationTime);
-        sentNotifications.put(regionId, new HashSet<>());
+        scheduleExpiration(regionId, expirationTime);
 
-        saveTimers();
+        saveTimer(regionId, expirationTime);
+        plugin.getRegionEvents().fire(RegionEvent.Type.TIMER_CHANGED, regionId);
 
         plugin.getLogger().info("Создан таймер для региона " + regionId + " владельца " + ownerName +
                 " на " + initialMinutes + " минут");
@@ -107,11 +117,11 @@ public class RegionTimerManager {
      * Продление времени жизни региона
      */
     public boolean extendRegionTime(String regionId, int minutes) {
-        if (!regionExpirationTimes.containsKey(regionId)) {
+        Long currentExpiration = getTimerExpiration(regionId);
+        if (currentExpiration == null) {
             return false;
         }
 
-        long currentExpiration = regionExpirationTimes.get(regionId);
         long newExpiration = currentExpiration + (minutes * 60 * 1000L);
 
         // Проверяем максимальное время жизни
@@ -123,11 +133,10 @@ public class RegionTimerManager {
         }
 
         regionExpirationTimes.put(regionId, newExpiration);
+        scheduleExpiration(regionId, newExpiration);
 
-        // Сбрасываем отправленные уведомления
-        sentNotifications.get(regionId).clear();
-
-        saveTimers();
+        saveTimer(regionId, newExpiration);
+        plugin.getRegionEvents().fire(RegionEvent.Type.TIMER_CHANGED, regionId);
 
         plugin.getLogger().info("Время жизни региона " + regionId + " продлено на " + minutes + " минут");
 
@@ -138,11 +147,11 @@ public class RegionTimerManager {
      * Получение оставшегося времени жизни региона
      */
     public long getRemainingTime(String regionId) {
-        if (!regionExpirationTimes.containsKey(regionId)) {
+        Long expiration = getTimerExpiration(regionId);
+        if (expiration == null) {
             return -1;
         }
 
-        long expiration = regionExpirationTimes.get(regionId);
         long remaining = expiration - System.currentTimeMillis();
 
         return remaining > 0 ? remaining : 0;
@@ -179,43 +188,22 @@ public class RegionTimerManager {
      */
     public void removeRegionTimer(String regionId) {
         regionExpirationTimes.remove(regionId);
-        sentNotifications.remove(regionId);
+        plugin.getDeadlineScheduler().cancel(EXPIRATION_KEY_PREFIX + regionId);
+        warningNotifier.cancel(regionId);
 
-        timersConfig.set("timers." + regionId, null);
-        saveTimers();
+        timersStore.remove(regionId);
+        plugin.getRegionEvents().fire(RegionEvent.Type.TIMER_CHANGED, regionId);
 
         plugin.getLogger().info("Удален таймер для региона " + regionId);
     }
 
     /**
-     * Запуск задачи проверки таймеров
+     * Регистрирует (или переносит) срок истечения региона и предупреждения о нем в общем планировщике
      */
-    private void startTimerTask() {
-        timerTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                checkExpiredRegions();
-                sendNotifications();
-            }
-        }.runTaskTimer(plugin, 20L, 20L); // Каждую секунду
-    }
-
-    /**
-     * Проверка истекших регионов
-     */
-    private void checkExpiredRegions() {
-        Set<String> expiredRegions = new HashSet<>();
-
-        for (Map.Entry<String, Long> entry : regionExpirationTimes.entrySet()) {
-            if (System.currentTimeMillis() >= entry.getValue()) {
-                expiredRegions.add(entry.getKey());
-            }
-        }
-
-        // Удаляем истекшие регионы
-        for (String regionId : expiredRegions) {
-            handleExpiredRegion(regionId);
-        }
+    private void scheduleExpiration(String regionId, long expirationTime) {
+        plugin.getDeadlineScheduler().schedule(EXPIRATION_KEY_PREFIX + regionId, expirationTime,
+                () -> handleExpiredRegion(regionId));
+        warningNotifier.schedule(regionId, expirationTime);
     }
 
     /**
@@ -266,27 +254,10 @@ public class RegionTimerManager {
 
         try {
             // Находим мир региона
-            org.bukkit.World regionWorld = null;
-            com.sk89q.worldguard.protection.managers.RegionManager regionManager = null;
-
-            for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-                com.sk89q.worldguard.protection.managers.RegionManager rm =
-                        plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (rm != null) {
-                    try {
-                        com.sk89q.worldguard.protection.regions.ProtectedRegion testRegion = rm.getRegion(regionId);
-                        if (testRegion != null) {
-                            regionWorld = world;
-                            regionManager = rm;
-                            break;
-                        }
-                    } catch (Exception e) {
-                        // Игнорируем
-                    }
-                }
-            }
+            org.bukkit.World regionWorld = plugin.getProtectRegionManager().findWorldForRegion(regionId);
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
 
-            if (regionWorld == null || regionManager == null) {
+            if (regionWorld == null || gateway.getRegionManager(regionWorld) == null) {
                 return;
             }
 
@@ -300,13 +271,14 @@ public class RegionTimerManager {
             removeCenterBlock(region, regionWorld);
 
             // Удаляем регион из WorldGuard
-            regionManager.removeRegion(regionId);
-            regionManager.save();
+            gateway.removeRegion(regionWorld, regionId);
+            gateway.save(regionWorld);
 
             // Возвращаем блок привата владельцу
             Player owner = plugin.getServer().getPlayer(ownerName);
             if (owner != null && owner.isOnline()) {
-                giveProtectBlockBack(owner, ownerName);
+                // Имя онлайн-игрока, а не из кэша: оно записывается в лор блока
+                giveProtectBlockBack(owner, owner.getName());
             }
 
             plugin.getLogger().info("Регион " + regionId + " удален из-за истечения времени жизни");
@@ -318,113 +290,76 @@ public class RegionTimerManager {
     }
 
     /**
-     * Отправка уведомлений о скором истечении
+     * Отправка предупреждений об истечении владельцу.
+     * Несколько регионов, истекающих одновременно, объединяются в одно сообщение.
      */
-    private void sendNotifications() {
-        // Интервалы уведомлений (в минутах)
-        int[] notificationIntervals = {30, 10, 5, 1}; // 30 мин, 10 мин, 5 мин, 1 мин (30 сек)
-
-        for (Map.Entry<String, Long> entry : regionExpirationTimes.entrySet()) {
-            String regionId = entry.getKey();
-            long remaining = getRemainingTime(regionId);
-
-            if (remaining <= 0) continue;
-
-            long remainingMinutes = remaining / 60000;
-            long remainingSeconds = remaining / 1000;
-
-            Set<Integer> sent = sentNotifications.get(regionId);
-            if (sent == null) {
-                sent = new HashSet<>();
-                sentNotifications.put(regionId, sent);
-            }
-
-            // Проверяем каждый интервал
-            for (int interval : notificationIntervals) {
-                if (interval == 1 && remainingSeconds <= 30 && !sent.contains(1)) {
-                    // Особый случай для 30 секунд
-                    sendExpirationWarning(regionId, "30 секунд");
-                    sent.add(1);
-                } else if (remainingMinutes <= interval && remainingMinutes > interval - 1 && !sent.contains(interval)) {
-                    sendExpirationWarning(regionId, interval + " минут");
-                    sent.add(interval);
-                }
+    private void sendExpirationWarnings(Player owner, List<ExpiryWarningNotifier.Warning> warnings) {
+        owner.sendMessage("");
+        owner.sendMessage(ChatColor.GOLD + "⚠ ВНИМАНИЕ! ⚠");
+
+        if (warnings.size() == 1) {
+            ExpiryWarningNotifier.Warning warning = warnings.get(0);
+            owner.sendMessage(ChatColor.YELLOW + "Регион " + ChatColor.WHITE + warning.regionId +
+                    ChatColor.YELLOW + " будет удален через " + ChatColor.RED + warning.timeLeft + "!");
+            owner.sendMessage(ChatColor.YELLOW + "Не забудьте продлить время жизни региона!");
+        } else {
+            owner.sendMessage(ChatColor.YELLOW + "Скоро будут удалены ваши регионы (" + warnings.size() + "):");
+            for (ExpiryWarningNotifier.Warning warning : warnings) {
+                owner.sendMessage(ChatColor.GRAY + " - " + ChatColor.WHITE + warning.regionId +
+                        ChatColor.YELLOW + " через " + ChatColor.RED + warning.timeLeft);
             }
+            owner.sendMessage(ChatColor.YELLOW + "Не забудьте продлить время жизни регионов!");
         }
-    }
 
-    /**
-     * Отправка предупреждения об истечении
-     */
-    private void sendExpirationWarning(String regionId, String timeLeft) {
-        ProtectedRegion region = findRegionById(regionId);
-        if (region == null) return;
+        owner.sendMessage(ChatColor.GRAY + "Используйте меню региона (ПКМ по центральному блоку)");
+        owner.sendMessage("");
 
-        String ownerName = getRegionOwnerName(region);
-        Player owner = plugin.getServer().getPlayer(ownerName);
-
-        if (owner != null && owner.isOnline()) {
-            owner.sendMessage("");
-            owner.sendMessage(ChatColor.GOLD + "⚠ ВНИМАНИЕ! ⚠");
-            owner.sendMessage(ChatColor.YELLOW + "Регион " + ChatColor.WHITE + regionId +
-                    ChatColor.YELLOW + " будет удален через " + ChatColor.RED + timeLeft + "!");
-            owner.sendMessage(ChatColor.YELLOW + "Не забудьте продлить время жизни региона!");
-            owner.sendMessage(ChatColor.GRAY + "Используйте меню региона (ПКМ по центральному блоку)");
-            owner.sendMessage("");
-
-            // Звуковое уведомление
-            owner.playSound(owner.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
-        }
+        // Звуковое уведомление
+        owner.playSound(owner.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
     }
 
     /**
      * Проверка, управляется ли регион таймером
      */
     public boolean hasTimer(String regionId) {
-        return regionExpirationTimes.containsKey(regionId);
+        return getTimerExpiration(regionId) != null;
     }
 
     /**
      * Получение времени истечения
      */
     public long getExpirationTime(String regionId) {
-        return regionExpirationTimes.getOrDefault(regionId, -1L);
+        Long expiration = getTimerExpiration(regionId);
+        return expiration != null ? expiration : -1L;
     }
 
     /**
      * Остановка менеджера таймеров
      */
     public void shutdown() {
-        if (timerTask != null) {
-            timerTask.cancel();
+        if (preloader != null) {
+            preloader.shutdown();
         }
-        saveTimers();
+        plugin.getDeadlineScheduler().cancelByPrefix(EXPIRATION_KEY_PREFIX);
+        warningNotifier.cancelAll();
+        timersStore.close();
     }
 
     // Вспомогательные методы
 
     private ProtectedRegion findRegionById(String regionId) {
-        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion region = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
-                    if (region != null) {
-                        return region;
-                    }
-                }
-            } catch (Exception e) {
-                // Игнорируем
-            }
-        }
-        return null;
+        return plugin.getProtectRegionManager().findRegionById(regionId);
+    }
+
+    private String findOwnerName(String regionId) {
+        ProtectedRegion region = findRegionById(regionId);
+        return region != null ? getRegionOwnerName(region) : null;
     }
 
     private String getRegionOwnerName(ProtectedRegion region) {
         if (!region.getOwners().getUniqueIds().isEmpty()) {
             UUID ownerUUID = region.getOwners().getUniqueIds().iterator().next();
-            String ownerName = plugin.getServer().getOfflinePlayer(ownerUUID).getName();
+            String ownerName = plugin.getPlayerNameCache().getName(ownerUUID);
             return ownerName != null ? ownerName : "Unknown";
         }
 
@@ -0,0 +1,48 @@
+package com.yourplugin.rGG.managers;
+
+import java.util.UUID;
+
+/**
+ * Голограмма, показанная в мире одним из рендереров (см. HologramRenderer)
+ */
+public interface RenderedHologram {
+
+    /**
+     * Заменяет текст строки
+     * @param index Индекс строки (0-based)
+     * @param text Готовый текст с цветами
+     */
+    void setLine(int index, String text);
+
+    /**
+     * Количество строк
+     */
+    int getLineCount();
+
+    /**
+     * Количество сущностей в мире, занятых голограммой
+     */
+    int getEntityCount();
+
+    /**
+     * Проверяет, что все сущности голограммы живы
+     */
+    boolean isValid();
+
+    /**
+     * Показывает или скрывает текст голограммы
+     */
+    void setVisible(boolean visible);
+
+    boolean isVisible();
+
+    /**
+     * Принадлежит ли сущность этой голограмме
+     */
+    boolean hasEntity(UUID entityId);
+
+    /**
+     * Удаляет голограмму из мира
+     */
+    void remove();
+}
@@ -0,0 +1,460 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Хранение данных во встроенной базе SQLite (файл data.db в папке плагина).
+ *
+ * Все виды данных лежат в одной таблице rg_records с первичным ключом (store, record_key).
+ * Поля "expiration" и "world" дублируются в типизированные столбцы с индексами (store, expiration)
+ * и (store, world), поэтому выборки вида "истекающие в ближайший час" или "голограммы мира"
+ * выполняются по индексу. Записи не загружаются в память целиком: менеджеры читают их
+ * выборками и по ключу. Драйвер SQLite поставляется вместе с сервером Spigot/Paper.
+ *
+ * Записи в базу выполняются в потоке DataPersistenceService, чтения - в вызывающем потоке
+ * через отдельное соединение только для чтения. В режиме WAL чтение не ждет записи, поэтому
+ * чтение в основном потоке (загрузка чанка, первое обращение к флагам) не стоит в очереди
+ * за пачкой записей или полной заменой хранилища. Еще не записанные изменения накладываются
+ * на результаты чтения.
+ */
+public class SqlStorageBackend implements StorageBackend {
+
+    private static final String TABLE = "rg_records";
+
+    private final RGProtectPlugin plugin;
+    // Соединение для записи (только поток хранения) и для чтения (вызывающий поток)
+    private final Connection connection;
+    private final Connection readConnection;
+    private final Map<DataStore, SqlRecordStore> stores = new EnumMap<>(DataStore.class);
+
+    public SqlStorageBackend(RGProtectPlugin plugin) throws SQLException, ClassNotFoundException {
+        this.plugin = plugin;
+
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        Class.forName("org.sqlite.JDBC");
+        String fileName = plugin.getConfig().getString("storage.sqlite.file", "data.db");
+        File databaseFile = new File(plugin.getDataFolder(), fileName);
+        String url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+        this.connection = DriverManager.getConnection(url);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                    "store VARCHAR(64) NOT NULL, " +
+                    "record_key VARCHAR(255) NOT NULL, " +
+                    "expiration BIGINT, " +
+                    "world VARCHAR(64), " +
+                    "data TEXT NOT NULL, " +
+                    "PRIMARY KEY (store, record_key))");
+
+            // База, созданная до появления столбца world
+            boolean addWorldColumn = !hasColumn("world");
+            if (addWorldColumn) {
+                statement.execute("ALTER TABLE " + TABLE + " ADD COLUMN world VARCHAR(64)");
+            }
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_expiration ON " + TABLE + " (store, expiration)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_world ON " + TABLE + " (store, world)");
+            if (addWorldColumn) {
+                backfillWorldColumn();
+            }
+        }
+
+        this.readConnection = DriverManager.getConnection(url);
+        try (Statement statement = readConnection.createStatement()) {
+            statement.execute("PRAGMA query_only=ON");
+        } catch (SQLException e) {
+            readConnection.close();
+            connection.close();
+            throw e;
+        }
+
+        plugin.getLogger().info("SQLite хранилище подключено: " + databaseFile.getName());
+    }
+
+    private boolean hasColumn(String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet columns = statement.executeQuery("PRAGMA table_info(" + TABLE + ")")) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Заполняет новый столбец world из полей уже сохраненных записей (один раз)
+     */
+    private void backfillWorldColumn() throws SQLException {
+        Map<String[], String> worlds = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT store, record_key, data FROM " + TABLE)) {
+            while (result.next()) {
+                Map<String, Object> fields = JournaledStore.decodeFields(result.getString(3));
+                Object world = fields != null ? fields.get("world") : null;
+                if (world != null) {
+                    worlds.put(new String[]{result.getString(1), result.getString(2)}, world.toString());
+                }
+            }
+        }
+        if (worlds.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE " + TABLE + " SET world = ? WHERE store = ? AND record_key = ?")) {
+            for (Map.Entry<String[], String> entry : worlds.entrySet()) {
+                update.setString(1, entry.getValue());
+                update.setString(2, entry.getKey()[0]);
+                update.setString(3, entry.getKey()[1]);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        plugin.getLogger().info("SQLite: заполнен столбец world для " + worlds.size() + " записей");
+    }
+
+    @Override
+    public String getType() {
+        return "sqlite";
+    }
+
+    @Override
+    public synchronized RecordStore openStore(DataStore store) {
+        return stores.computeIfAbsent(store, SqlRecordStore::new);
+    }
+
+    /**
+     * Закрывает соединение после уже поставленных в очередь записей
+     */
+    @Override
+    public synchronized void close() {
+        stores.clear();
+        synchronized (readConnection) {
+            try {
+                readConnection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Ошибка при закрытии соединения чтения SQLite: " + e.getMessage());
+            }
+        }
+        write("закрытие", Connection::close);
+    }
+
+    /**
+     * Выполняет запись в базу в потоке хранения
+     */
+    private void write(String description, SqlTask task) {
+        Runnable runnable = () -> {
+            synchronized (connection) {
+                try {
+                    task.run(connection);
+                } catch (SQLException e) {
+                    plugin.getLogger().severe("Ошибка SQLite (" + description + "): " + e.getMessage());
+                }
+            }
+        };
+
+        DataPersistenceService persistence = plugin.getPersistenceService();
+        if (persistence != null) {
+            persistence.submit(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlTask {
+        void run(Connection connection) throws SQLException;
+    }
+
+    private static Long expirationOf(Map<String, Object> fields) {
+        Object value = fields.get("expiration");
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static void bindRecord(PreparedStatement statement, String store, String key, Map<String, Object> fields)
+            throws SQLException {
+        statement.setString(1, store);
+        statement.setString(2, key);
+        Long expiration = expirationOf(fields);
+        if (expiration != null) {
+            statement.setLong(3, expiration);
+        } else {
+            statement.setNull(3, java.sql.Types.BIGINT);
+        }
+        Object world = fields.get("world");
+        statement.setString(4, world != null ? world.toString() : null);
+        statement.setString(5, JournaledStore.encodeFields(fields));
+    }
+
+
+    /**
+     * Хранилище одного вида данных в таблице rg_records.
+     * В памяти держатся только изменения, еще не записанные в базу (и ключи, которых в базе нет):
+     * чтения идут в базу и поверх результата накладываются эти изменения.
+     */
+    private class SqlRecordStore implements RecordStore {
+
+        // Отметка удаленной записи среди незаписанных изменений
+        private final Map<String, Object> removed = Collections.emptyMap();
+
+        private final String storeName;
+        // Ключ -> запись (или removed), запись которой в базу еще в очереди
+        private final Map<String, Map<String, Object>> pending = new ConcurrentHashMap<>();
+        // Ключи, которых нет в базе (чтобы не запрашивать их повторно)
+        private final Set<String> absent = ConcurrentHashMap.newKeySet();
+
+        SqlRecordStore(DataStore store) {
+            this.storeName = store.name().toLowerCase();
+        }
+
+        @Override
+        public Map<String, Map<String, Object>> load() {
+            return Collections.unmodifiableMap(snapshot());
+        }
+
+        @Override
+        public synchronized void put(String key, Map<String, Object> fields) {
+            if (key == null || fields == null) {
+                return;
+            }
+
+            Map<String, Object> record = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                if (field.getValue() != null) {
+                    record.put(field.getKey(), field.getValue());
+                }
+            }
+            pending.put(key, record);
+            absent.remove(key);
+
+            write("запись " + storeName + "/" + key, conn -> {
+                try (PreparedStatement statement = conn.prepareStatement(
+                        "INSERT OR REPLACE INTO " + TABLE + " (store, record_key, expiration, world, data) VALUES (?, ?, ?, ?, ?)")) {
+                    bindRecord(statement, storeName, key, record);
+                    statement.executeUpdate();
+                } finally {
+                    pending.remove(key, record);
+                }
+            });
+        }
+
+        @Override
+        public synchronized void remove(String key) {
+            if (key == null || absent.contains(key) || pending.get(key) == removed) {
+                return;
+            }
+            pending.put(key, removed);
+            absent.add(key);
+
+            write("удаление " + storeName + "/" + key, conn -> {
+                try (PreparedStatement statement = conn.prepareStatement(
+                        "DELETE FROM " + TABLE + " WHERE store = ? AND record_key = ?")) {
+                    statement.setString(1, storeName);
+                    statement.setString(2, key);
+                    statement.executeUpdate();
+                } finally {
+                    pending.remove(key, removed);
+                }
+            });
+        }
+
+        @Override
+        public synchronized void replaceAll(Map<String, Map<String, Object>> newRecords) {
+            Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Object>> record : newRecords.entrySet()) {
+                copy.put(record.getKey(), new LinkedHashMap<>(record.getValue()));
+            }
+            pending.clear();
+            absent.clear();
+
+            write("замена " + storeName, conn -> {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement delete = conn.prepareStatement("DELETE FROM " + TABLE + " WHERE store = ?")) {
+                        delete.setString(1, storeName);
+                        delete.executeUpdate();
+                    }
+                    try (PreparedStatement insert = conn.prepareStatement(
+                            "INSERT INTO " + TABLE + " (store, record_key, expiration, world, data) VALUES (?, ?, ?, ?, ?)")) {
+                        for (Map.Entry<String, Map<String, Object>> record : copy.entrySet()) {
+                            bindRecord(insert, storeName, record.getKey(), record.getValue());
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            });
+        }
+
+        @Override
+        public synchronized Map<String, Map<String, Object>> snapshot() {
+            return query("", null, (key, record) -> true);
+        }
+
+        @Override
+        public synchronized Map<String, Object> get(String key) {
+            if (key == null || absent.contains(key)) {
+                return null;
+            }
+            Map<String, Object> pendingRecord = pending.get(key);
+            if (pendingRecord != null) {
+                return pendingRecord == removed ? null : new LinkedHashMap<>(pendingRecord);
+            }
+
+            Map<String, Object> record = null;
+            synchronized (readConnection) {
+                try (PreparedStatement statement = readConnection.prepareStatement(
+                        "SELECT data FROM " + TABLE + " WHERE store = ? AND record_key = ?")) {
+                    statement.setString(1, storeName);
+                    statement.setString(2, key);
+                    try (ResultSet result = statement.executeQuery()) {
+                        if (result.next()) {
+                            record = JournaledStore.decodeFields(result.getString(1));
+                        }
+                    }
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("Ошибка чтения " + storeName + "/" + key + " из SQLite: " + e.getMessage());
+                    return null;
+                }
+            }
+
+            if (record == null) {
+                absent.add(key);
+            }
+            return record;
+        }
+
+        /**
+         * Выборка по индексу (store, expiration)
+         */
+        @Override
+        public synchronized Map<String, Map<String, Object>> findExpiringBefore(long time) {
+            return query(" AND expiration IS NOT NULL AND expiration <= ?", statement -> statement.setLong(2, time),
+                    (key, record) -> RecordStore.getLong(record, "expiration", Long.MAX_VALUE) <= time);
+        }
+
+        /**
+         * Выборка по индексу (store, world)
+         */
+        @Override
+        public synchronized Map<String, Map<String, Object>> findByWorld(String worldName) {
+            return query(" AND world = ?", statement -> statement.setString(2, worldName),
+                    (key, record) -> worldName.equals(RecordStore.getString(record, "world", null)));
+        }
+
+        /**
+         * Выборка диапазона первичного ключа (store, record_key)
+         */
+        @Override
+        public synchronized Map<String, Map<String, Object>> findByKeyPrefix(String prefix) {
+            String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+            return query(" AND record_key >= ? AND record_key < ?", statement -> {
+                statement.setString(2, prefix);
+                statement.setString(3, upperBound);
+            }, (key, record) -> key.startsWith(prefix));
+        }
+
+        /**
+         * Выполняет выборку записей хранилища и накладывает незаписанные изменения
+         * @param condition Дополнительное условие WHERE (параметры начиная со второго)
+         * @param filter То же условие для незаписанных изменений (ключ, поля)
+         */
+        private Map<String, Map<String, Object>> query(String condition, SqlBinder binder,
+                                                       BiPredicate<String, Map<String, Object>> filter) {
+            Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+            synchronized (readConnection) {
+                try (PreparedStatement statement = readConnection.prepareStatement(
+                        "SELECT record_key, data FROM " + TABLE + " WHERE store = ?" + condition)) {
+                    statement.setString(1, storeName);
+                    if (binder != null) {
+                        binder.bind(statement);
+                    }
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            Map<String, Object> fields = JournaledStore.decodeFields(rows.getString(2));
+                            if (fields != null) {
+                                result.put(rows.getString(1), fields);
+                            } else {
+                                plugin.getLogger().warning("SQLite: пропущена поврежденная запись " + storeName + "/" + rows.getString(1));
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    plugin.getLogger().severe("Ошибка выборки " + storeName + " из SQLite: " + e.getMessage());
+                }
+            }
+
+            for (Map.Entry<String, Map<String, Object>> change : pending.entrySet()) {
+                Map<String, Object> record = change.getValue();
+                if (record == removed) {
+                    result.remove(change.getKey());
+                } else if (filter.test(change.getKey(), record)) {
+                    result.put(change.getKey(), new LinkedHashMap<>(record));
+                } else {
+                    result.remove(change.getKey());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Изменения пишутся построчно, отдельное сжатие не требуется
+         */
+        @Override
+        public void compact() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public synchronized int size() {
+            synchronized (readConnection) {
+                try (PreparedStatement statement = readConnection.prepareStatement(
+                        "SELECT COUNT(*) FROM " + TABLE + " WHERE store = ?")) {
+                    statement.setString(1, storeName);
+                    try (ResultSet result = statement.executeQuery()) {
+                        return result.next() ? result.getInt(1) : 0;
+                    }
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("Ошибка подсчета записей " + storeName + " в SQLite: " + e.getMessage());
+                    return 0;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
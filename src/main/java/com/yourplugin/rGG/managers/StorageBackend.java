@@ -0,0 +1,47 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+/**
+ * Бэкенд хранения данных плагина.
+ *
+ * Реализации: {@link YamlStorageBackend} (YAML-файлы с журналом) и
+ * {@link SqlStorageBackend} (встроенная база SQLite с индексами).
+ * Тип выбирается параметром storage.type в config.yml.
+ */
+public interface StorageBackend {
+
+    /**
+     * Название типа хранилища (как в config.yml)
+     */
+    String getType();
+
+    /**
+     * Открывает хранилище вида данных. Повторный вызов возвращает то же хранилище.
+     */
+    RecordStore openStore(DataStore store);
+
+    /**
+     * Закрывает бэкенд (после остановки менеджеров и записи файлов)
+     */
+    void close();
+
+    /**
+     * Создает бэкенд по типу
+     * @param type "yaml" или "sqlite"
+     * @return Бэкенд; при неизвестном типе или ошибке подключения - YAML
+     */
+    static StorageBackend create(RGProtectPlugin plugin, String type) {
+        if ("sqlite".equalsIgnoreCase(type)) {
+            try {
+                return new SqlStorageBackend(plugin);
+            } catch (Exception e) {
+                plugin.getLogger().severe("Не удалось подключить SQLite хранилище: " + e.getMessage() +
+                        ". Используется YAML");
+            }
+        } else if (!"yaml".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("Неизвестный тип хранилища " + type + ". Используется YAML");
+        }
+        return new YamlStorageBackend(plugin);
+    }
+}
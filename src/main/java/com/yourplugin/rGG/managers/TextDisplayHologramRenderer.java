@@ -0,0 +1,207 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Голограммы из одной сущности TextDisplay на регион.
+ *
+ * Все строки показываются одним многострочным текстом, поэтому вместо пяти ArmorStand
+ * на регион в мире остается одна сущность, а обновление строк - одно изменение метаданных.
+ */
+public class TextDisplayHologramRenderer implements HologramRenderer {
+
+    // Высота строки в блоках, совпадает с шагом строк ArmorStand
+    private static final double LINE_SPACING = 0.25;
+
+    protected final RGProtectPlugin plugin;
+    private final Display.Billboard billboard;
+    private final float viewRange;
+    private final boolean seeThrough;
+    private final boolean shadowed;
+    private final int backgroundArgb;
+
+    public TextDisplayHologramRenderer(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+        this.billboard = readBillboard(plugin.getConfig().getString("hologram.text-display.billboard", "CENTER"));
+        this.viewRange = (float) plugin.getConfig().getDouble("hologram.text-display.view-range", 1.0);
+        this.seeThrough = plugin.getConfig().getBoolean("hologram.text-display.see-through", false);
+        this.shadowed = plugin.getConfig().getBoolean("hologram.text-display.shadow", true);
+        this.backgroundArgb = readBackground(plugin.getConfig().getString("hologram.text-display.background", "40000000"));
+    }
+
+    private int readBackground(String value) {
+        try {
+            return (int) Long.parseLong(value, 16);
+        } catch (NumberFormatException e) {
+            plugin.getLogger().warning("Некорректный цвет фона голограмм " + value + ". Используется 40000000");
+            return 0x40000000;
+        }
+    }
+
+    private Display.Billboard readBillboard(String value) {
+        try {
+            return Display.Billboard.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Неизвестный режим billboard " + value + ". Используется CENTER");
+            return Display.Billboard.CENTER;
+        }
+    }
+
+    @Override
+    public String getType() {
+        return "text_display";
+    }
+
+    @Override
+    public RenderedHologram spawn(String regionId, Location location, List<String> lines) {
+        try {
+            if (location.getWorld() == null) {
+                plugin.getLogger().warning("Мир для голограммы равен null");
+                return null;
+            }
+
+            List<String> text = new ArrayList<>(lines);
+            TextDisplay display = spawnDisplay(getDisplayLocation(location, lines.size()), String.join("\n", text),
+                    entity -> HologramRenderer.tag(plugin, entity, regionId, 0));
+
+            return new TextDisplayHologram(display, text);
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Ошибка при создании TextDisplay голограммы: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Оставляет первую живую TextDisplay региона, остальные сущности региона удаляет
+     */
+    @Override
+    public RenderedHologram adopt(Location location, List<Entity> entities, List<String> lines) {
+        TextDisplay display = null;
+        for (Entity entity : entities) {
+            if (display == null && entity instanceof TextDisplay && !entity.isDead()) {
+                display = (TextDisplay) entity;
+            }
+        }
+        if (display == null) {
+            return null;
+        }
+
+        for (Entity entity : entities) {
+            if (entity != display && !entity.isDead()) {
+                entity.remove();
+            }
+        }
+
+        List<String> text = new ArrayList<>(lines);
+        display.teleport(getDisplayLocation(location, lines.size()));
+        display.setText(String.join("\n", text));
+        display.setPersistent(false);
+        return new TextDisplayHologram(display, text);
+    }
+
+    /**
+     * Позиция сущности для голограммы из указанного числа строк.
+     * Текст растет вверх от позиции сущности: опускаем ее так, чтобы верхняя строка
+     * оказалась там же, где была верхняя строка из ArmorStand
+     */
+    protected Location getDisplayLocation(Location location, int lineCount) {
+        return location.clone().add(0, -(lineCount - 1) * LINE_SPACING, 0);
+    }
+
+    /**
+     * Создает настроенную сущность TextDisplay
+     * @param customizer Дополнительная настройка до появления сущности в мире или null
+     */
+    protected TextDisplay spawnDisplay(Location displayLocation, String text, Consumer<TextDisplay> customizer) {
+        return displayLocation.getWorld().spawn(displayLocation, TextDisplay.class, entity -> {
+            entity.setText(text);
+            entity.setBillboard(billboard);
+            entity.setViewRange(viewRange);
+            entity.setSeeThrough(seeThrough);
+            entity.setShadowed(shadowed);
+            entity.setDefaultBackground(false);
+            entity.setBackgroundColor(Color.fromARGB(backgroundArgb));
+            entity.setAlignment(TextDisplay.TextAlignment.CENTER);
+            entity.setInvulnerable(true);
+            entity.setGravity(false);
+            if (customizer != null) {
+                customizer.accept(entity);
+            }
+        });
+    }
+
+    private static class TextDisplayHologram implements RenderedHologram {
+
+        private final TextDisplay display;
+        private final List<String> lines;
+        private boolean visible = true;
+
+        TextDisplayHologram(TextDisplay display, List<String> lines) {
+            this.display = display;
+            this.lines = lines;
+        }
+
+        @Override
+        public void setLine(int index, String text) {
+            if (index < 0 || index >= lines.size()) {
+                return;
+            }
+            lines.set(index, text);
+            if (visible && !display.isDead()) {
+                display.setText(String.join("\n", lines));
+            }
+        }
+
+        @Override
+        public int getLineCount() {
+            return lines.size();
+        }
+
+        @Override
+        public int getEntityCount() {
+            return 1;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !display.isDead();
+        }
+
+        @Override
+        public void setVisible(boolean visible) {
+            this.visible = visible;
+            if (!display.isDead()) {
+                display.setText(visible ? String.join("\n", lines) : "");
+            }
+        }
+
+        @Override
+        public boolean isVisible() {
+            return visible && !display.isDead();
+        }
+
+        @Override
+        public boolean hasEntity(UUID entityId) {
+            return display.getUniqueId().equals(entityId);
+        }
+
+        @Override
+        public void remove() {
+            if (!display.isDead()) {
+                display.remove();
+            }
+        }
+    }
+}
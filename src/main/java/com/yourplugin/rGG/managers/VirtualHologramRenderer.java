@@ -0,0 +1,284 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Виртуальные голограммы: сущность существует только пока рядом есть игроки.
+ *
+ * Голограмма хранит позицию и текст без сущности в мире. Периодическая проверка
+ * находит игроков в пределах hologram.virtual.view-distance (по индексу чанков)
+ * и создает для голограммы TextDisplay, скрытый по умолчанию и показанный только этим игрокам.
+ * Сущность не сохраняется в чанк и удаляется, как только рядом не остается игроков.
+ */
+public class VirtualHologramRenderer extends TextDisplayHologramRenderer {
+
+    private final double viewDistanceSquared;
+    private final int chunkRadius;
+
+    // Индекс голограмм: мир -> ключ чанка -> голограммы
+    private final Map<String, Map<Long, Set<VirtualHologram>>> index = new HashMap<>();
+    // Голограммы, у которых сейчас есть сущность и зрители
+    private final Set<VirtualHologram> spawned = new HashSet<>();
+
+    private final BukkitTask trackerTask;
+
+    public VirtualHologramRenderer(RGProtectPlugin plugin) {
+        super(plugin);
+
+        double viewDistance = Math.max(1.0, plugin.getConfig().getDouble("hologram.virtual.view-distance", 48.0));
+        this.viewDistanceSquared = viewDistance * viewDistance;
+        this.chunkRadius = (int) Math.ceil(viewDistance / 16.0);
+
+        int interval = Math.max(1, plugin.getConfig().getInt("hologram.virtual.check-interval", 10));
+        this.trackerTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    updateViewers();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Ошибка при обновлении зрителей голограмм: " + e.getMessage());
+                }
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    @Override
+    public String getType() {
+        return "virtual";
+    }
+
+    @Override
+    public RenderedHologram spawn(String regionId, Location location, List<String> lines) {
+        if (location.getWorld() == null) {
+            plugin.getLogger().warning("Мир для голограммы равен null");
+            return null;
+        }
+
+        VirtualHologram hologram = new VirtualHologram(regionId, getDisplayLocation(location, lines.size()), lines);
+        index.computeIfAbsent(hologram.worldName, k -> new HashMap<>())
+                .computeIfAbsent(hologram.chunkKey, k -> new HashSet<>())
+                .add(hologram);
+        return hologram;
+    }
+
+    @Override
+    public void shutdown() {
+        trackerTask.cancel();
+        for (VirtualHologram hologram : new ArrayList<>(spawned)) {
+            hologram.despawn();
+        }
+        spawned.clear();
+        index.clear();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Находит для каждой голограммы игроков поблизости и приводит сущности и зрителей в соответствие
+     */
+    private void updateViewers() {
+        Map<VirtualHologram, Set<Player>> nearby = new HashMap<>();
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Location playerLocation = player.getLocation();
+            World world = playerLocation.getWorld();
+            if (world == null) {
+                continue;
+            }
+
+            Map<Long, Set<VirtualHologram>> worldIndex = index.get(world.getName());
+            if (worldIndex == null) {
+                continue;
+            }
+
+            int playerChunkX = playerLocation.getBlockX() >> 4;
+            int playerChunkZ = playerLocation.getBlockZ() >> 4;
+
+            for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
+                for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
+                    Set<VirtualHologram> bucket = worldIndex.get(chunkKey(playerChunkX + dx, playerChunkZ + dz));
+                    if (bucket == null) {
+                        continue;
+                    }
+
+                    for (VirtualHologram hologram : bucket) {
+                        if (hologram.location.distanceSquared(playerLocation) <= viewDistanceSquared) {
+                            nearby.computeIfAbsent(hologram, k -> new HashSet<>()).add(player);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Голограммы, от которых все ушли
+        for (VirtualHologram hologram : new ArrayList<>(spawned)) {
+            if (!nearby.containsKey(hologram)) {
+                hologram.despawn();
+            }
+        }
+
+        for (Map.Entry<VirtualHologram, Set<Player>> entry : nearby.entrySet()) {
+            entry.getKey().updateViewers(entry.getValue());
+        }
+    }
+
+    /**
+     * Виртуальные голограммы создают сущности сами, найденные в мире сущности не принимаются
+     */
+    @Override
+    public RenderedHologram adopt(Location location, List<Entity> entities, List<String> lines) {
+        return null;
+    }
+
+    private class VirtualHologram implements RenderedHologram {
+
+        private final String regionId;
+        private final Location location;
+        private final String worldName;
+        private final long chunkKey;
+        private final List<String> lines;
+        private final Set<UUID> viewers = new HashSet<>();
+        private TextDisplay display;
+        private boolean visible = true;
+        private boolean removed;
+
+        VirtualHologram(String regionId, Location location, List<String> lines) {
+            this.regionId = regionId;
+            this.location = location;
+            this.worldName = location.getWorld().getName();
+            this.chunkKey = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            this.lines = new ArrayList<>(lines);
+        }
+
+        private String currentText() {
+            return visible ? String.join("\n", lines) : "";
+        }
+
+        void updateViewers(Set<Player> players) {
+            if (removed) {
+                return;
+            }
+
+            if (display == null || display.isDead()) {
+                if (!location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                    return;
+                }
+                display = spawnDisplay(location, currentText(), entity -> {
+                    HologramRenderer.tag(plugin, entity, regionId, 0);
+                    entity.setVisibleByDefault(false);
+                });
+                viewers.clear();
+                spawned.add(this);
+            }
+
+            Set<UUID> current = new HashSet<>();
+            for (Player player : players) {
+                current.add(player.getUniqueId());
+                if (viewers.add(player.getUniqueId())) {
+                    player.showEntity(plugin, display);
+                }
+            }
+
+            for (UUID viewer : new ArrayList<>(viewers)) {
+                if (!current.contains(viewer)) {
+                    Player player = plugin.getServer().getPlayer(viewer);
+                    if (player != null) {
+                        player.hideEntity(plugin, display);
+                    }
+                    viewers.remove(viewer);
+                }
+            }
+        }
+
+        void despawn() {
+            if (display != null && !display.isDead()) {
+                display.remove();
+            }
+            display = null;
+            viewers.clear();
+            spawned.remove(this);
+        }
+
+        @Override
+        public void setLine(int index, String text) {
+            if (index < 0 || index >= lines.size()) {
+                return;
+            }
+            lines.set(index, text);
+            if (display != null && !display.isDead()) {
+                display.setText(currentText());
+            }
+        }
+
+        @Override
+        public int getLineCount() {
+            return lines.size();
+        }
+
+        @Override
+        public int getEntityCount() {
+            return display != null && !display.isDead() ? 1 : 0;
+        }
+
+        /**
+         * Виртуальная голограмма действительна, пока не удалена: сущность создается по требованию
+         */
+        @Override
+        public boolean isValid() {
+            return !removed;
+        }
+
+        @Override
+        public void setVisible(boolean visible) {
+            this.visible = visible;
+            if (display != null && !display.isDead()) {
+                display.setText(currentText());
+            }
+        }
+
+        @Override
+        public boolean isVisible() {
+            return visible && !removed;
+        }
+
+        @Override
+        public boolean hasEntity(UUID entityId) {
+            return display != null && display.getUniqueId().equals(entityId);
+        }
+
+        @Override
+        public void remove() {
+            removed = true;
+            despawn();
+
+            Map<Long, Set<VirtualHologram>> worldIndex = index.get(worldName);
+            if (worldIndex != null) {
+                Set<VirtualHologram> bucket = worldIndex.get(chunkKey);
+                if (bucket != null) {
+                    bucket.remove(this);
+                    if (bucket.isEmpty()) {
+                        worldIndex.remove(chunkKey);
+                    }
+                }
+            }
+        }
+    }
+}
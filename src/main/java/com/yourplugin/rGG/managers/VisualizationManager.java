@@ -1,5 +1,6 @@
 package com.yourplugin.rGG.managers;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -24,29 +25,317 @@ public class VisualizationManager {
 
     private final RGProtectPlugin plugin;
     private final Map<UUID, BukkitTask> activeTasks;
-    // Хранение оригинальных блоков для восстановления
-    private final Map<String, Map<Location, Material>> regionBorderBlocks;
+    // Оригинальные блоки для восстановления - только для регионов в загруженных чанках
+    private final Map<String, BorderOriginals> regionBorderBlocks;
+    // Общая палитра состояний оригинальных блоков
+    private final BlockStatePalette palette = new BlockStatePalette();
+
+    // Сохраненные оригинальные блоки всех регионов с границами
+    private RecordStore borderStore;
+    // Регион -> мир и чанки его границ; мир -> ключ чанка -> регионы
+    private final Map<String, String> borderWorlds = new HashMap<>();
+    private final Map<String, Set<Long>> borderChunks = new HashMap<>();
+    private final Map<String, Map<Long, Set<String>>> chunkIndex = new HashMap<>();
+    // Мир -> упакованная позиция блока границы -> регион (для оригиналов, загруженных в память)
+    private final Map<String, BorderPositionIndex> borderPositions = new HashMap<>();
+
+    // Способ показа границ (physical, client, display)
+    private final BorderRenderer borderRenderer;
+    // Запись блоков физических границ по тикам
+    private final BorderJobQueue borderJobs;
+    // Регион -> номер незавершенного асинхронного поиска позиций границ
+    private final Map<String, Long> pendingPlacements = new HashMap<>();
+    private long placementSequence;
 
     public VisualizationManager(RGProtectPlugin plugin) {
         this.plugin = plugin;
         this.activeTasks = new HashMap<>();
         this.regionBorderBlocks = new HashMap<>();
 
+        // Индекс строится в любом режиме: физические границы прежнего режима должны восстанавливаться
+        loadBorderIndex();
+        this.borderJobs = new BorderJobQueue(plugin);
+        this.borderRenderer = BorderRenderer.create(plugin, this,
+                plugin.getConfig().getString("visualization.physical-borders.mode", "physical"));
+        plugin.getLogger().info("Режим границ регионов: " + borderRenderer.getType());
+
         plugin.getLogger().info("DEBUG INIT: VisualizationManager инициализирован");
     }
+
+    // ===== СОХРАНЕНИЕ ОРИГИНАЛЬНЫХ БЛОКОВ И ЗАГРУЗКА ПО ЧАНКАМ =====
+
     /**
-     * Получает копию сохраненных границ региона
-     * @param regionId ID региона
-     * @return Копия карты с сохраненными границами или null если границ нет
+     * Строит индекс чанков по сохраненным границам загруженных миров. Сами блоки загружаются в память
+     * только для регионов в загруженных чанках.
      */
-    public Map<Location, Material> getRegionBordersCopy(String regionId) {
-        Map<Location, Material> originalBlocks = regionBorderBlocks.get(regionId);
-        if (originalBlocks == null) {
-            return null;
+    private void loadBorderIndex() {
+        if (plugin.getStorageBackend() == null) {
+            return;
+        }
+
+        borderStore = plugin.getStorageBackend().openStore(DataStore.BORDER_ORIGINALS);
+        int loaded = 0;
+        for (World world : plugin.getServer().getWorlds()) {
+            loaded += loadWorldBorders(world);
+        }
+
+        plugin.getLogger().info("Границ регионов в хранилище: " + borderWorlds.size() + " (загружено в память: " + loaded + ")");
+    }
+
+    /**
+     * Индексирует сохраненные границы мира, загруженного после запуска плагина
+     */
+    public void onWorldLoad(World world) {
+        if (borderStore != null) {
+            loadWorldBorders(world);
+        }
+    }
+
+    /**
+     * Индексирует сохраненные границы одного мира (выборка по индексу мира)
+     * @return Количество регионов, оригиналы которых загружены в память
+     */
+    private int loadWorldBorders(World world) {
+        int loaded = 0;
+
+        for (Map.Entry<String, Map<String, Object>> entry : borderStore.findByWorld(world.getName()).entrySet()) {
+            String regionId = entry.getKey();
+            if (borderWorlds.containsKey(regionId)) {
+                continue;
+            }
+            BorderOriginals blocks = decodeOriginals(regionId, entry.getValue());
+            if (blocks == null || blocks.isEmpty()) {
+                continue;
+            }
+
+            indexBorders(regionId, blocks);
+            if (isAnyChunkLoaded(regionId)) {
+                cacheOriginals(regionId, blocks);
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private void persistBorders(String regionId, BorderOriginals blocks) {
+        if (blocks == null || blocks.isEmpty()) {
+            return;
+        }
+
+        unindexBorders(regionId);
+        indexBorders(regionId, blocks);
+
+        if (borderStore == null) {
+            if (plugin.getStorageBackend() == null) {
+                return;
+            }
+            borderStore = plugin.getStorageBackend().openStore(DataStore.BORDER_ORIGINALS);
+        }
+
+        try {
+            Map<String, Object> fields = new java.util.LinkedHashMap<>();
+            fields.put("world", blocks.getWorldName());
+            fields.put("data", blocks.encode());
+            borderStore.put(regionId, fields);
+        } catch (java.io.IOException e) {
+            plugin.getLogger().warning("Ошибка при сохранении границ региона " + regionId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Разбирает сохраненные оригинальные блоки: двоичный формат (поле data)
+     * или старый текстовый "x,y,z,MATERIAL;..." (поле blocks)
+     * @return Блоки или null если запись повреждена
+     */
+    private BorderOriginals decodeOriginals(String regionId, Map<String, Object> fields) {
+        String worldName = RecordStore.getString(fields, "world", "");
+
+        String data = RecordStore.getString(fields, "data", "");
+        if (!data.isEmpty()) {
+            try {
+                return BorderOriginals.decode(worldName, data, palette);
+            } catch (java.io.IOException e) {
+                plugin.getLogger().warning("Поврежденные оригинальные блоки границ региона " + regionId + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        BorderOriginals.Builder builder = new BorderOriginals.Builder(worldName, palette);
+        String encoded = RecordStore.getString(fields, "blocks", "");
+        if (encoded.isEmpty()) {
+            return builder.build();
+        }
+
+        for (String entry : encoded.split(";")) {
+            String[] parts = entry.split(",");
+            if (parts.length != 4) {
+                continue;
+            }
+            try {
+                Material material = Material.valueOf(parts[3]);
+                builder.add(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        material.createBlockData());
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Пропущен поврежденный блок границы: " + entry);
+            }
+        }
+        return builder.build();
+    }
+
+    private void indexBorders(String regionId, BorderOriginals blocks) {
+        String worldName = blocks.getWorldName();
+        Set<Long> chunks = blocks.getChunkKeys();
+
+        borderWorlds.put(regionId, worldName);
+        borderChunks.put(regionId, chunks);
+        Map<Long, Set<String>> worldIndex = chunkIndex.computeIfAbsent(worldName, k -> new HashMap<>());
+        for (Long chunk : chunks) {
+            worldIndex.computeIfAbsent(chunk, k -> new HashSet<>()).add(regionId);
+        }
+    }
+
+    private void unindexBorders(String regionId) {
+        String worldName = borderWorlds.remove(regionId);
+        Set<Long> chunks = borderChunks.remove(regionId);
+        if (worldName == null || chunks == null) {
+            return;
+        }
+
+        Map<Long, Set<String>> worldIndex = chunkIndex.get(worldName);
+        if (worldIndex == null) {
+            return;
+        }
+        for (Long chunk : chunks) {
+            Set<String> regions = worldIndex.get(chunk);
+            if (regions != null) {
+                regions.remove(regionId);
+                if (regions.isEmpty()) {
+                    worldIndex.remove(chunk);
+                }
+            }
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private boolean isAnyChunkLoaded(String regionId) {
+        World world = plugin.getServer().getWorld(borderWorlds.getOrDefault(regionId, ""));
+        Set<Long> chunks = borderChunks.get(regionId);
+        if (world == null || chunks == null) {
+            return false;
+        }
+        for (long chunk : chunks) {
+            if (world.isChunkLoaded((int) (chunk >> 32), (int) chunk)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Получает оригинальные блоки региона, при необходимости загружая их из хранилища
+     */
+    private BorderOriginals getOriginalBlocks(String regionId) {
+        BorderOriginals blocks = regionBorderBlocks.get(regionId);
+        if (blocks != null || borderStore == null || !borderWorlds.containsKey(regionId)) {
+            return blocks;
+        }
+
+        Map<String, Object> fields = borderStore.get(regionId);
+        blocks = fields != null ? decodeOriginals(regionId, fields) : null;
+        if (blocks != null) {
+            cacheOriginals(regionId, blocks);
+        }
+        return blocks;
+    }
+
+    /**
+     * Держит оригинальные блоки региона в памяти и добавляет их позиции в индекс блоков границ
+     */
+    private void cacheOriginals(String regionId, BorderOriginals blocks) {
+        evictOriginals(regionId);
+        regionBorderBlocks.put(regionId, blocks);
+        borderPositions.computeIfAbsent(blocks.getWorldName(), k -> new BorderPositionIndex()).addAll(blocks, regionId);
+    }
+
+    private void evictOriginals(String regionId) {
+        BorderOriginals blocks = regionBorderBlocks.remove(regionId);
+        if (blocks == null) {
+            return;
         }
 
-        // Возвращаем копию для безопасности
-        return new HashMap<>(originalBlocks);
+        BorderPositionIndex worldIndex = borderPositions.get(blocks.getWorldName());
+        if (worldIndex != null) {
+            worldIndex.removeAll(blocks, regionId);
+            if (worldIndex.isEmpty()) {
+                borderPositions.remove(blocks.getWorldName());
+            }
+        }
+    }
+
+    private Set<String> getRegionsInChunk(Chunk chunk) {
+        Map<Long, Set<String>> worldIndex = chunkIndex.get(chunk.getWorld().getName());
+        if (worldIndex == null) {
+            return java.util.Collections.emptySet();
+        }
+        Set<String> regions = worldIndex.get(chunkKey(chunk.getX(), chunk.getZ()));
+        return regions != null ? new HashSet<>(regions) : java.util.Collections.emptySet();
+    }
+
+    /**
+     * Загружает в память оригинальные блоки границ, попавших в загруженный чанк
+     */
+    public void onChunkLoad(Chunk chunk) {
+        for (String regionId : getRegionsInChunk(chunk)) {
+            getOriginalBlocks(regionId);
+        }
+        borderRenderer.onChunkLoad(chunk);
+    }
+
+    /**
+     * Освобождает память регионов, у которых не осталось загруженных чанков (данные остаются в хранилище)
+     */
+    public void onChunkUnload(Chunk chunk) {
+        long unloading = chunkKey(chunk.getX(), chunk.getZ());
+        for (String regionId : getRegionsInChunk(chunk)) {
+            boolean otherLoaded = false;
+            for (long key : borderChunks.getOrDefault(regionId, java.util.Collections.emptySet())) {
+                if (key != unloading && chunk.getWorld().isChunkLoaded((int) (key >> 32), (int) key)) {
+                    otherLoaded = true;
+                    break;
+                }
+            }
+            if (!otherLoaded) {
+                evictOriginals(regionId);
+            }
+        }
+        borderRenderer.onChunkUnload(chunk);
+    }
+
+    /**
+     * Останавливает визуализации и освобождает память (оригинальные блоки остаются в хранилище)
+     */
+    public void shutdown() {
+        clearAllVisualizations();
+        pendingPlacements.clear();
+        borderRenderer.shutdown();
+        // Незаписанные блоки дописываются сразу - после остановки очередь не выполнится
+        borderJobs.shutdown();
+        regionBorderBlocks.clear();
+        borderPositions.clear();
+        borderWorlds.clear();
+        borderChunks.clear();
+        chunkIndex.clear();
+    }
+    /**
+     * Получает сохраненные границы региона
+     * @param regionId ID региона
+     * @return Оригинальные блоки (неизменяемые) или null если границ нет
+     */
+    public BorderOriginals getRegionBordersCopy(String regionId) {
+        return getOriginalBlocks(regionId);
     }
 
     /**
@@ -55,13 +344,19 @@ public class VisualizationManager {
      * @param savedBorders Сохраненная копия границ
      * @return true если границы восстановлены, false в случае ошибки
      */
-    public boolean restoreRegionBordersFromCopy(String regionId, Map<Location, Material> savedBorders) {
+    public boolean restoreRegionBordersFromCopy(String regionId, BorderOriginals savedBorders) {
         if (savedBorders == null || savedBorders.isEmpty()) {
             plugin.getLogger().warning("Нет сохраненных границ для восстановления региона " + regionId);
             return false;
         }
 
         try {
+            World world = plugin.getServer().getWorld(savedBorders.getWorldName());
+            if (world == null) {
+                plugin.getLogger().warning("Мир " + savedBorders.getWorldName() + " для границ региона " + regionId + " не загружен");
+                return false;
+            }
+
             // Получаем материал границ
             Material borderMaterial;
             try {
@@ -70,19 +365,19 @@ public class VisualizationManager {
                 borderMaterial = Material.RED_WOOL;
             }
 
-            // Восстанавливаем границы
-            int restoredCount = 0;
-            for (Map.Entry<Location, Material> entry : savedBorders.entrySet()) {
-                Location loc = entry.getKey();
-                Block block = loc.getBlock();
+            // Сохраняем в карту границ и хранилище, затем ставим блоки границы в очередь записи
+            cacheOriginals(regionId, savedBorders);
+            persistBorders(regionId, savedBorders);
 
-                // Устанавливаем блок границы
-                block.setType(borderMaterial);
-                restoredCount++;
+            long[] positions = new long[savedBorders.size()];
+            Material[] expected = new Material[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = savedBorders.getPosition(i);
+                expected[i] = savedBorders.getBlockData(i).getMaterial();
             }
-
-            // Сохраняем в карту границ
-            regionBorderBlocks.put(regionId, new HashMap<>(savedBorders));
+            borderJobs.submitPlace(regionId, world, positions, expected, borderMaterial.createBlockData(),
+                    skipped -> dropSkippedOriginals(regionId, skipped));
+            int restoredCount = positions.length;
 
             plugin.getLogger().info("Восстановлены границы региона " + regionId + ": " + restoredCount + " блоков");
             return true;
@@ -99,9 +394,9 @@ public class VisualizationManager {
      * @param regionId ID региона
      * @return Копия удаленных границ для возможного восстановления
      */
-    public Map<Location, Material> removeRegionBordersSafely(String regionId) {
+    public BorderOriginals removeRegionBordersSafely(String regionId) {
         // Сначала получаем копию
-        Map<Location, Material> backup = getRegionBordersCopy(regionId);
+        BorderOriginals backup = getRegionBordersCopy(regionId);
 
         // Затем удаляем
         removeRegionBorders(regionId);
@@ -137,10 +432,9 @@ public class VisualizationManager {
 
         // Дополнительная проверка что регион существует в WorldGuard
         try {
-            Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-            if (regionManager != null) {
-                java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                ProtectedRegion checkRegion = (ProtectedRegion) getRegionMethod.invoke(regionManager, regionId);
+            WorldGuardGateway gateway = plugin.getProtectRegionManager().getWorldGuardGateway();
+            if (gateway.getRegionManager(world) != null) {
+                ProtectedRegion checkRegion = gateway.getRegion(world, regionId);
 
                 if (checkRegion == null) {
                     plugin.getLogger().severe("ОШИБКА: Регион " + regionId + " не найден в WorldGuard!");
@@ -184,102 +478,136 @@ public class VisualizationManager {
         // КРИТИЧЕСКОЕ ИСПРАВЛЕНИЕ: Получаем правильные границы региона
         int minX = region.getMinimumPoint().x();
         int maxX = region.getMaximumPoint().x();
-        int minY, maxY;
         int minZ = region.getMinimumPoint().z();
         int maxZ = region.getMaximumPoint().z();
-
-        if (hasHeightExpansion) {
-            // ИСПРАВЛЕНИЕ: Для регионов с расширением по высоте используем ОРИГИНАЛЬНЫЕ Y границы
-            // Берем базовые размеры из конфига
-            int baseY = plugin.getConfig().getInt("region-expansion.base-size.y", 3);
-
-            // Находим блок привата (центр региона по X/Z)
-            int centerX = (minX + maxX) / 2;
-            int centerZ = (minZ + maxZ) / 2;
-
-            // Ищем блок привата в центральной колонне
-            int privatBlockY = findPrivateBlockY(world, centerX, centerZ, regionId);
-
-            if (privatBlockY != -1) {
-                // Используем позицию блока привата как центр
-                int radiusY = (baseY - 1) / 2;
-                minY = privatBlockY - radiusY;
-                maxY = privatBlockY + radiusY;
-                plugin.getLogger().info("DEBUG CREATE BORDERS: Найден блок привата в Y=" + privatBlockY + ", используем Y границы: " + minY + " -> " + maxY);
-            } else {
-                // Фолбэк: используем поверхность земли
-                int groundY = world.getHighestBlockYAt(centerX, centerZ);
-                int radiusY = (baseY - 1) / 2;
-                minY = groundY - radiusY;
-                maxY = groundY + radiusY;
-                plugin.getLogger().info("DEBUG CREATE BORDERS: Блок привата не найден, используем поверхность земли Y=" + groundY + ", границы: " + minY + " -> " + maxY);
-            }
-        } else {
-            // Обычный регион - используем его реальные границы
-            minY = region.getMinimumPoint().y();
-            maxY = region.getMaximumPoint().y();
-            plugin.getLogger().info("DEBUG CREATE BORDERS: Обычный регион, используем реальные Y границы: " + minY + " -> " + maxY);
-        }
-
-        if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-            plugin.getLogger().info("DEBUG: Границы региона (исправленные):");
-            plugin.getLogger().info("DEBUG: X: " + minX + " -> " + maxX + " (размер: " + (maxX - minX + 1) + ")");
-            plugin.getLogger().info("DEBUG: Y: " + minY + " -> " + maxY + " (размер: " + (maxY - minY + 1) + ")");
-            plugin.getLogger().info("DEBUG: Z: " + minZ + " -> " + maxZ + " (размер: " + (maxZ - minZ + 1) + ")");
-        }
+        int regionMinY = region.getMinimumPoint().y();
+        int regionMaxY = region.getMaximumPoint().y();
+        int baseY = plugin.getConfig().getInt("region-expansion.base-size.y", 3);
+        boolean logCreation = plugin.getConfig().getBoolean("debug.log-border-creation", false);
 
         // Получаем материал для границ
         String materialName = plugin.getConfig().getString("visualization.physical-borders.material", "RED_WOOL");
-        Material borderMaterial;
+        Material parsedMaterial;
         try {
-            borderMaterial = Material.valueOf(materialName);
-            if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-                plugin.getLogger().info("DEBUG: Материал границ: " + borderMaterial);
+            parsedMaterial = Material.valueOf(materialName);
+            if (logCreation) {
+                plugin.getLogger().info("DEBUG: Материал границ: " + parsedMaterial);
             }
         } catch (IllegalArgumentException e) {
             plugin.getLogger().severe("DEBUG: Неверный материал в конфиге: " + materialName + ", используем RED_WOOL");
-            borderMaterial = Material.RED_WOOL;
+            parsedMaterial = Material.RED_WOOL;
         }
+        Material borderMaterial = parsedMaterial;
 
-        // Проверяем стратегию размещения
-        String strategy = plugin.getConfig().getString("visualization.physical-borders.placement.strategy", "surface_contact");
-        if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-            plugin.getLogger().info("DEBUG: Стратегия размещения: " + strategy);
+        Material protectMaterial;
+        try {
+            protectMaterial = Material.valueOf(plugin.getConfig().getString("protect-block.material", "DIAMOND_BLOCK"));
+        } catch (IllegalArgumentException e) {
+            protectMaterial = Material.DIAMOND_BLOCK;
         }
+        Material privateMaterial = protectMaterial;
 
-        // Генерируем позиции границ в зависимости от стратегии
-        Set<Location> borderLocations;
+        // Снимки чанков периметра делаются в основном потоке, поиск земли и видимости - асинхронно
+        BorderPlacementSearch search = BorderPlacementSearch.capture(plugin, world, minX, maxX, minZ, maxZ, hasHeightExpansion, borderJobs);
+        long generation = ++placementSequence;
+        pendingPlacements.put(regionId, generation);
 
-        if ("visibility_based".equals(strategy)) {
-            // Размещение с приоритетом видимости НО с проверкой земли
-            int centerY = (minY + maxY) / 2;
-            borderLocations = getBorderLocationsWithVisibilityButOnGround(world, minX, maxX, minZ, maxZ, centerY);
-        } else if ("below_center".equals(strategy)) {
-            // Создаем границы на уровне центра региона
-            int centerY = (minY + maxY) / 2;
-            if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-                plugin.getLogger().info("DEBUG: Центральный уровень Y для границ: " + centerY);
+        if (logCreation) {
+            plugin.getLogger().info("DEBUG: Стратегия размещения: " + search.getStrategy() + ", снимков чанков: " + search.getSnapshotCount());
+        }
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            Set<Long> positions = null;
+            try {
+                int minY, maxY;
+                if (hasHeightExpansion) {
+                    // ИСПРАВЛЕНИЕ: Для регионов с расширением по высоте используем ОРИГИНАЛЬНЫЕ Y границы
+                    int centerX = (minX + maxX) / 2;
+                    int centerZ = (minZ + maxZ) / 2;
+                    int radiusY = (baseY - 1) / 2;
+
+                    // Ищем блок привата в центральной колонне
+                    int privatBlockY = search.findPrivateBlockY(centerX, centerZ, regionId, privateMaterial);
+                    if (privatBlockY != -1) {
+                        // Используем позицию блока привата как центр
+                        minY = privatBlockY - radiusY;
+                        maxY = privatBlockY + radiusY;
+                        plugin.getLogger().info("DEBUG CREATE BORDERS: Найден блок привата в Y=" + privatBlockY + ", используем Y границы: " + minY + " -> " + maxY);
+                    } else {
+                        // Фолбэк: используем поверхность земли
+                        int groundY = search.getSurfaceY(centerX, centerZ);
+                        minY = groundY - radiusY;
+                        maxY = groundY + radiusY;
+                        plugin.getLogger().info("DEBUG CREATE BORDERS: Блок привата не найден, используем поверхность земли Y=" + groundY + ", границы: " + minY + " -> " + maxY);
+                    }
+                } else {
+                    // Обычный регион - используем его реальные границы
+                    minY = regionMinY;
+                    maxY = regionMaxY;
+                    plugin.getLogger().info("DEBUG CREATE BORDERS: Обычный регион, используем реальные Y границы: " + minY + " -> " + maxY);
+                }
+
+                if (logCreation) {
+                    plugin.getLogger().info("DEBUG: Границы региона (исправленные):");
+                    plugin.getLogger().info("DEBUG: X: " + minX + " -> " + maxX + " (размер: " + (maxX - minX + 1) + ")");
+                    plugin.getLogger().info("DEBUG: Y: " + minY + " -> " + maxY + " (размер: " + (maxY - minY + 1) + ")");
+                    plugin.getLogger().info("DEBUG: Z: " + minZ + " -> " + maxZ + " (размер: " + (maxZ - minZ + 1) + ")");
+                }
+
+                positions = search.findBorderPositions(minX, maxX, minY, maxY, minZ, maxZ);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Ошибка при поиске позиций границ региона " + regionId + ": " + e.getMessage());
             }
-            borderLocations = generateSimpleBorderLocations(world, minX, maxX, minZ, maxZ, centerY);
-        } else {
-            // используем поиск земли
-            if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-                plugin.getLogger().info("DEBUG: Используется умная стратегия размещения");
+
+            Set<Long> result = positions;
+            try {
+                plugin.getServer().getScheduler().runTask(plugin,
+                        () -> applyBorderPlacement(regionId, world, generation, result, borderMaterial));
+            } catch (Exception e) {
+                // Плагин выключается - границы не ставятся
             }
-            borderLocations = getBorderLocationsWithSmartPlacement(world, minX, maxX, minY, maxY, minZ, maxZ);
-        }
+        });
+    }
 
-        if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
-            plugin.getLogger().info("DEBUG: Сгенерировано " + borderLocations.size() + " позиций для границ");
+    /**
+     * Показывает границы по найденным позициям (основной поток).
+     * Результат отбрасывается, если границы региона за время поиска убрали или пересоздали
+     */
+    private void applyBorderPlacement(String regionId, World world, long generation, Set<Long> positions, Material borderMaterial) {
+        Long current = pendingPlacements.get(regionId);
+        if (current == null || current != generation) {
+            return;
         }
+        pendingPlacements.remove(regionId);
 
-        if (borderLocations.isEmpty()) {
+        if (positions == null || positions.isEmpty()) {
             plugin.getLogger().severe("DEBUG: КРИТИЧЕСКАЯ ОШИБКА - нет позиций для границ!");
             return;
         }
 
+        Set<Location> borderLocations = new HashSet<>();
+        for (long position : positions) {
+            borderLocations.add(new Location(world, BorderOriginals.unpackX(position), BorderOriginals.unpackY(position),
+                    BorderOriginals.unpackZ(position)));
+        }
+
+        if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
+            plugin.getLogger().info("DEBUG: Сгенерировано " + borderLocations.size() + " позиций для границ");
+        }
+
+        borderRenderer.show(regionId, world, borderLocations, borderMaterial);
+
+        plugin.getLogger().info("DEBUG BORDERS: Создано " + borderLocations.size() + " блоков границ для региона " + regionId);
+    }
+
+    /**
+     * Ставит границы в мир и сохраняет оригинальные блоки (режим physical)
+     */
+    void placePhysicalBorders(String regionId, World world, Set<Location> borderLocations, Material borderMaterial) {
         // Размещаем границы с обработкой растительности
-        Map<Location, Material> originalBlocks = new HashMap<>();
+        BorderOriginals.Builder originalBlocks = new BorderOriginals.Builder(world.getName(), palette);
+        long[] queuedPositions = new long[borderLocations.size()];
+        Material[] expectedTypes = new Material[borderLocations.size()];
         int successCount = 0;
         int errorCount = 0;
         int grassReplacedCount = 0;
@@ -291,7 +619,13 @@ public class VisualizationManager {
         boolean replaceVegetation = plugin.getConfig().getBoolean("visualization.physical-borders.placement.replace_vegetation", true);
 
         // Центр для подсчета статистики
-        int centerY = (minY + maxY) / 2;
+        int lowestY = Integer.MAX_VALUE;
+        int highestY = Integer.MIN_VALUE;
+        for (Location loc : borderLocations) {
+            lowestY = Math.min(lowestY, loc.getBlockY());
+            highestY = Math.max(highestY, loc.getBlockY());
+        }
+        int centerY = (lowestY + highestY) / 2;
 
         for (Location loc : borderLocations) {
             try {
@@ -300,11 +634,16 @@ public class VisualizationManager {
                 }
 
                 Block block = loc.getBlock();
-                Material originalMaterial = block.getType();
+                long position = BorderOriginals.pack(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+
+                // Если здесь стоит блок прежней границы, ожидающий восстановления, оригиналом считается восстанавливаемый блок
+                org.bukkit.block.data.BlockData pendingOriginal = borderJobs.getPendingRestore(world.getName(), position);
+                org.bukkit.block.data.BlockData originalData = pendingOriginal != null ? pendingOriginal : block.getBlockData();
+                Material originalMaterial = originalData.getMaterial();
 
                 // Проверяем, что блок на земле
                 Block blockBelow = world.getBlockAt(loc.getBlockX(), loc.getBlockY() - 1, loc.getBlockZ());
-                boolean isOnGround = isSolidBlock(blockBelow);
+                boolean isOnGround = BorderPlacementSearch.isSolidBlock(blockBelow.getType());
                 if (isOnGround) {
                     placedOnGroundCount++;
                     if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
@@ -317,9 +656,9 @@ public class VisualizationManager {
                 }
 
                 // Проверяем, что заменяем
-                boolean replacingGrass = isGrass(block);
-                boolean replacingFlower = isFlower(block);
-                boolean replacingOtherVegetation = !replacingGrass && !replacingFlower && isVegetation(block);
+                boolean replacingGrass = BorderPlacementSearch.isGrass(block.getType());
+                boolean replacingFlower = BorderPlacementSearch.isFlower(block.getType());
+                boolean replacingOtherVegetation = !replacingGrass && !replacingFlower && BorderPlacementSearch.isVegetation(block.getType());
 
                 if (replacingGrass) {
                     grassReplacedCount++;
@@ -359,24 +698,15 @@ public class VisualizationManager {
                     plugin.getLogger().info("DEBUG: Позиция относительно центра" + positionInfo);
                 }
 
-                // Сохраняем оригинальный материал
-                originalBlocks.put(loc.clone(), originalMaterial);
+                // Сохраняем оригинальное состояние блока
+                originalBlocks.add(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), originalData);
 
-                // Устанавливаем материал границы
-                block.setType(borderMaterial);
-                successCount++;
+                // Ставим материал границы в очередь записи
+                expectedTypes[successCount] = originalMaterial;
+                queuedPositions[successCount++] = position;
 
                 if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-                    plugin.getLogger().info("DEBUG: ✅ Успешно установлен " + borderMaterial + " в позиции " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ());
-
-                    // Проверяем, действительно ли блок установился
-                    Material checkMaterial = loc.getBlock().getType();
-                    if (checkMaterial != borderMaterial) {
-                        plugin.getLogger().severe("DEBUG: ❌ ОШИБКА! Блок не установился! Ожидался " + borderMaterial + ", получили " + checkMaterial);
-                        errorCount++;
-                    } else {
-                        plugin.getLogger().info("DEBUG: ✅ Блок успешно установлен и проверен");
-                    }
+                    plugin.getLogger().info("DEBUG: ✅ Поставлен в очередь " + borderMaterial + " в позиции " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ());
                 }
 
                 // Дополнительные сообщения о замене
@@ -401,19 +731,25 @@ public class VisualizationManager {
         }
 
         // Сохраняем информацию о границах региона
-        regionBorderBlocks.put(regionId, originalBlocks);
+        // Оригиналы сохраняются до записи блоков, чтобы границы можно было восстановить после сбоя
+        BorderOriginals originals = originalBlocks.build();
+        cacheOriginals(regionId, originals);
+        persistBorders(regionId, originals);
+        borderJobs.submitPlace(regionId, world, java.util.Arrays.copyOf(queuedPositions, successCount),
+                java.util.Arrays.copyOf(expectedTypes, successCount), borderMaterial.createBlockData(),
+                skipped -> dropSkippedOriginals(regionId, skipped));
 
         if (plugin.getConfig().getBoolean("debug.log-border-creation", false)) {
             plugin.getLogger().info("=== РЕЗУЛЬТАТ СОЗДАНИЯ ГРАНИЦ ===");
             plugin.getLogger().info("DEBUG: Регион: " + regionId);
-            plugin.getLogger().info("DEBUG: Успешно установлено: " + successCount + " блоков");
+            plugin.getLogger().info("DEBUG: Поставлено в очередь записи: " + successCount + " блоков");
             plugin.getLogger().info("DEBUG: НА ЗЕМЛЕ размещено: " + placedOnGroundCount + " блоков");
             if (placedBelowCenterCount > 0 || placedAboveCenterCount > 0) {
                 plugin.getLogger().info("DEBUG: Размещено ниже центра: " + placedBelowCenterCount + " блоков");
                 plugin.getLogger().info("DEBUG: Размещено ВЫШЕ центра: " + placedAboveCenterCount + " блоков");
             }
             plugin.getLogger().info("DEBUG: Ошибок: " + errorCount);
-            plugin.getLogger().info("DEBUG: Сохранено оригинальных блоков: " + originalBlocks.size());
+            plugin.getLogger().info("DEBUG: Сохранено оригинальных блоков: " + originals.size());
             plugin.getLogger().info("DEBUG: Границы сохранены в карте: " + regionBorderBlocks.containsKey(regionId));
 
             if (successCount > 0) {
@@ -422,617 +758,6 @@ public class VisualizationManager {
                 plugin.getLogger().severe("DEBUG: ❌ НИ ОДНА ГРАНИЦА НЕ БЫЛА СОЗДАНА!");
             }
         }
-
-        plugin.getLogger().info("DEBUG BORDERS: Создано " + borderLocations.size() + " блоков границ для региона " + regionId);
-    }
-    private int findPrivateBlockY(World world, int centerX, int centerZ, String regionId) {
-        try {
-            // Получаем материал блока привата из конфига
-            org.bukkit.Material protectMaterial;
-            try {
-                protectMaterial = org.bukkit.Material.valueOf(
-                        plugin.getConfig().getString("protect-block.material", "DIAMOND_BLOCK"));
-            } catch (IllegalArgumentException e) {
-                protectMaterial = org.bukkit.Material.DIAMOND_BLOCK;
-            }
-
-            plugin.getLogger().info("DEBUG FIND PRIVATE: Ищем блок привата (" + protectMaterial + ") в центральной колонне X=" + centerX + " Z=" + centerZ);
-
-            // Ищем блок привата от поверхности земли вниз до бедрока
-            int highestY = world.getHighestBlockYAt(centerX, centerZ);
-
-            // Начинаем поиск с поверхности и идем вниз
-            for (int y = highestY; y >= world.getMinHeight(); y--) {
-                org.bukkit.block.Block block = world.getBlockAt(centerX, y, centerZ);
-
-                if (block.getType() == protectMaterial) {
-                    plugin.getLogger().info("DEBUG FIND PRIVATE: ✅ Найден блок привата в Y=" + y);
-                    return y;
-                }
-            }
-
-            // Если не нашли вниз, ищем вверх от поверхности
-            for (int y = highestY + 1; y <= world.getMaxHeight() - 1; y++) {
-                org.bukkit.block.Block block = world.getBlockAt(centerX, y, centerZ);
-
-                if (block.getType() == protectMaterial) {
-                    plugin.getLogger().info("DEBUG FIND PRIVATE: ✅ Найден блок привата в Y=" + y + " (выше поверхности)");
-                    return y;
-                }
-            }
-
-            plugin.getLogger().warning("DEBUG FIND PRIVATE: ❌ Блок привата не найден в центральной колонне региона " + regionId);
-            return -1;
-
-        } catch (Exception e) {
-            plugin.getLogger().severe("DEBUG FIND PRIVATE: Ошибка при поиске блока привата: " + e.getMessage());
-            return -1;
-        }
-    }
-    /**
-     * Генерация позиций границ с приоритетом видимости НО с проверкой земли
-     */
-    private Set<Location> getBorderLocationsWithVisibilityButOnGround(World world, int minX, int maxX, int minZ, int maxZ, int centerY) {
-        Set<Location> locations = new HashSet<>();
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG VISIBILITY: Генерация видимых границ с проверкой земли для центра Y=" + centerY);
-        }
-
-        // Северная сторона (minZ)
-        for (int x = minX; x <= maxX; x++) {
-            Location borderLoc = findVisibleBorderLocationWithGroundCheck(world, x, centerY, minZ);
-            if (borderLoc != null) {
-                locations.add(borderLoc);
-            }
-        }
-
-        // Южная сторона (maxZ)
-        for (int x = minX; x <= maxX; x++) {
-            Location borderLoc = findVisibleBorderLocationWithGroundCheck(world, x, centerY, maxZ);
-            if (borderLoc != null) {
-                locations.add(borderLoc);
-            }
-        }
-
-        // Западная сторона (minX), исключаем углы
-        for (int z = minZ + 1; z < maxZ; z++) {
-            Location borderLoc = findVisibleBorderLocationWithGroundCheck(world, minX, centerY, z);
-            if (borderLoc != null) {
-                locations.add(borderLoc);
-            }
-        }
-
-        // Восточная сторона (maxX), исключаем углы
-        for (int z = minZ + 1; z < maxZ; z++) {
-            Location borderLoc = findVisibleBorderLocationWithGroundCheck(world, maxX, centerY, z);
-            if (borderLoc != null) {
-                locations.add(borderLoc);
-            }
-        }
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG VISIBILITY: Итого найдено " + locations.size() + " позиций с проверкой земли");
-        }
-
-        return locations;
-    }
-
-    /**
-     * Поиск видимой позиции для границы с проверкой земли
-     */
-    private Location findVisibleBorderLocationWithGroundCheck(World world, int x, int centerY, int z) {
-        // ПРИОРИТЕТ 1: Пробуем на 1 блок ниже центра
-        int preferredY = centerY - 1;
-        Location preferredLoc = new Location(world, x, preferredY, z);
-
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG VISIBILITY: Проверяем приоритетную позицию X=" + x + " Y=" + preferredY + " Z=" + z);
-        }
-
-        // Проверяем что под блоком есть земля
-        Block blockBelow = world.getBlockAt(x, preferredY - 1, z);
-        if (isBorderVisible(world, x, preferredY, z) && isSolidBlock(blockBelow)) {
-            if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                plugin.getLogger().info("DEBUG VISIBILITY: ✅ Позиция видима И НА ЗЕМЛЕ, размещаем в Y=" + preferredY);
-            }
-            return preferredLoc;
-        }
-
-        // ПРИОРИТЕТ 2: Ищем ближайшую позицию НА ЗЕМЛЕ
-        int maxSearchHeight = plugin.getConfig().getInt("visualization.physical-borders.placement.max_height_search", 20);
-
-        // Сначала ищем вниз - ближе к земле
-        for (int y = preferredY - 1; y >= Math.max(centerY - maxSearchHeight, world.getMinHeight()); y--) {
-            Block groundBlock = world.getBlockAt(x, y, z);
-            if (isSolidBlock(groundBlock)) {
-                Location groundLoc = new Location(world, x, y + 1, z);
-                if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                    plugin.getLogger().info("DEBUG VISIBILITY: ✅ Найдена земля НИЖЕ в Y=" + y + ", размещаем границу в Y=" + (y + 1));
-                }
-                return groundLoc;
-            }
-        }
-
-        // Потом ищем вверх
-        for (int y = centerY; y <= Math.min(centerY + maxSearchHeight, world.getMaxHeight() - 1); y++) {
-            Block groundBlock = world.getBlockAt(x, y, z);
-            if (isSolidBlock(groundBlock)) {
-                Location groundLoc = new Location(world, x, y + 1, z);
-                if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                    plugin.getLogger().info("DEBUG VISIBILITY: ✅ Найдена земля ВЫШЕ в Y=" + y + ", размещаем границу в Y=" + (y + 1));
-                }
-                return groundLoc;
-            }
-        }
-
-        // КРАЙНИЙ СЛУЧАЙ: Используем оригинальную позицию
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().warning("DEBUG VISIBILITY: ⚠️ Не найдена земля, используем оригинальную позицию Y=" + centerY);
-        }
-        return new Location(world, x, centerY, z);
-    }
-
-    /**
-     * Проверка видимости блока границы
-     */
-    private boolean isBorderVisible(World world, int x, int y, int z) {
-        Block borderBlock = world.getBlockAt(x, y, z);
-        Block blockAbove = world.getBlockAt(x, y + 1, z);
-
-        // Проверяем, что позиция для границы подходящая (воздух или заменяемая растительность)
-        boolean canPlaceBorder = isAirOrReplaceable(borderBlock) || isReplaceableVegetation(borderBlock);
-
-        // Проверяем, что блок будет виден (над ним воздух или прозрачный блок)
-        boolean isVisible = isTransparentOrAir(blockAbove);
-
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG VISIBILITY: Y=" + y + " можно разместить=" + canPlaceBorder + " видимо=" + isVisible + " (блок: " + borderBlock.getType() + ", сверху: " + blockAbove.getType() + ")");
-        }
-
-        return canPlaceBorder && isVisible;
-    }
-
-    /**
-     * Проверка прозрачности блока
-     */
-    private boolean isTransparentOrAir(Block block) {
-        Material type = block.getType();
-
-        // Воздух и жидкости - прозрачные
-        if (type == Material.AIR ||
-                type == Material.CAVE_AIR ||
-                type == Material.VOID_AIR ||
-                type == Material.WATER ||
-                type == Material.LAVA) {
-            return true;
-        }
-
-        // Растения и нетвердые блоки - прозрачные
-        if (isVegetation(block) ||
-                isGrass(block) ||
-                isFlower(block) ||
-                type.toString().contains("GLASS") ||
-                type.toString().contains("LEAVES") ||
-                type == Material.SNOW ||
-                type == Material.TORCH ||
-                type == Material.REDSTONE_TORCH ||
-                type == Material.LEVER ||
-                type == Material.STONE_BUTTON ||
-                type == Material.OAK_BUTTON ||
-                type == Material.TRIPWIRE_HOOK ||
-                type == Material.STRING) {
-            return true;
-        }
-
-        // Дополнительные прозрачные блоки
-        String typeName = type.toString();
-        if (typeName.contains("SIGN") ||
-                typeName.contains("BANNER") ||
-                typeName.contains("CARPET") ||
-                typeName.contains("PRESSURE_PLATE") ||
-                typeName.contains("RAIL") ||
-                typeName.equals("LADDER") ||
-                typeName.equals("VINE") ||
-                typeName.equals("COBWEB") ||
-                typeName.equals("BARRIER")) {
-            return true;
-        }
-
-        return false;
-    }
-    /**
-     * УМНОЕ размещение границ - поиск оптимальной позиции для каждой границы
-     */
-    /**
-     * ПРОСТОЙ метод генерации позиций границ - прямоугольник на одном уровне
-     */
-    private Set<Location> generateSimpleBorderLocations(World world, int minX, int maxX, int minZ, int maxZ, int y) {
-        Set<Location> locations = new HashSet<>();
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG: Генерация простых границ на уровне Y=" + y);
-            plugin.getLogger().info("DEBUG: Прямоугольник от X=" + minX + " до X=" + maxX + ", от Z=" + minZ + " до Z=" + maxZ);
-        }
-
-        // Северная сторона (minZ)
-        for (int x = minX; x <= maxX; x++) {
-            Location loc = new Location(world, x, y, minZ);
-            locations.add(loc);
-            if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-                plugin.getLogger().info("DEBUG: Добавлена северная граница: " + x + "," + y + "," + minZ);
-            }
-        }
-
-        // Южная сторона (maxZ)
-        for (int x = minX; x <= maxX; x++) {
-            Location loc = new Location(world, x, y, maxZ);
-            locations.add(loc);
-            if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-                plugin.getLogger().info("DEBUG: Добавлена южная граница: " + x + "," + y + "," + maxZ);
-            }
-        }
-
-        // Западная сторона (minX), исключаем углы
-        for (int z = minZ + 1; z < maxZ; z++) {
-            Location loc = new Location(world, minX, y, z);
-            locations.add(loc);
-            if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-                plugin.getLogger().info("DEBUG: Добавлена западная граница: " + minX + "," + y + "," + z);
-            }
-        }
-
-        // Восточная сторона (maxX), исключаем углы
-        for (int z = minZ + 1; z < maxZ; z++) {
-            Location loc = new Location(world, maxX, y, z);
-            locations.add(loc);
-            if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-                plugin.getLogger().info("DEBUG: Добавлена восточная граница: " + maxX + "," + y + "," + z);
-            }
-        }
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG: Итого сгенерировано " + locations.size() + " позиций границ");
-        }
-        return locations;
-    }
-
-    /**
-     * УМНЫЙ метод генерации позиций границ с поиском земли
-     */
-    private Set<Location> getBorderLocationsWithSmartPlacement(World world, int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
-        Set<Location> locations = new HashSet<>();
-
-        // Получаем координаты центрального блока
-        int centerX = (minX + maxX) / 2;
-        int centerY = (minY + maxY) / 2;
-        int centerZ = (minZ + maxZ) / 2;
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Центральный блок (блок привата): " + centerX + "," + centerY + "," + centerZ);
-            plugin.getLogger().info("DEBUG BORDERS: Умное размещение границ: приоритет Y=" + (centerY - 1) + ", резерв - поиск земли");
-        }
-
-        // Северная и южная стороны (по оси Z)
-        for (int x = minX; x <= maxX; x++) {
-            // Северная сторона (minZ)
-            Location northLoc = findOptimalBorderLocation(world, x, centerY, minZ);
-            if (northLoc != null) {
-                locations.add(northLoc);
-            }
-
-            // Южная сторона (maxZ)
-            Location southLoc = findOptimalBorderLocation(world, x, centerY, maxZ);
-            if (southLoc != null) {
-                locations.add(southLoc);
-            }
-        }
-
-        // Западная и восточная стороны (по оси X), исключаем углы
-        for (int z = minZ + 1; z < maxZ; z++) {
-            // Западная сторона (minX)
-            Location westLoc = findOptimalBorderLocation(world, minX, centerY, z);
-            if (westLoc != null) {
-                locations.add(westLoc);
-            }
-
-            // Восточная сторона (maxX)
-            Location eastLoc = findOptimalBorderLocation(world, maxX, centerY, z);
-            if (eastLoc != null) {
-                locations.add(eastLoc);
-            }
-        }
-
-        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Подготовлено " + locations.size() + " позиций для умного размещения границ");
-        }
-
-        return locations;
-    }
-    private Location findOptimalBorderLocation(World world, int x, int centerY, int z) {
-        // Получаем настройки из конфига
-        String strategy = plugin.getConfig().getString("visualization.physical-borders.placement.strategy", "surface_contact");
-        int maxDepthSearch = plugin.getConfig().getInt("visualization.physical-borders.placement.max_depth_search", 20);
-        int maxHeightSearch = plugin.getConfig().getInt("visualization.physical-borders.placement.max_height_search", 10);
-        boolean replaceVegetation = plugin.getConfig().getBoolean("visualization.physical-borders.placement.replace_vegetation", true);
-
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Поиск позиции для границы в X=" + x + " Z=" + z + " центр на Y=" + centerY);
-        }
-
-        if ("below_center".equals(strategy)) {
-            // Простая стратегия - всегда на 1 блок ниже центра
-            int targetY = centerY - 1;
-            Location targetLoc = new Location(world, x, targetY, z);
-            if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                plugin.getLogger().info("DEBUG BORDERS: Используется стратегия 'below_center', размещение в Y=" + targetY);
-            }
-            return targetLoc;
-        }
-
-        // Умная стратегия - всегда на земле
-        return findGroundBasedBorderLocation(world, x, centerY, z, maxDepthSearch, maxHeightSearch, replaceVegetation);
-    }
-
-    /**
-     * УМНЫЙ метод для размещения границ с гарантией контакта с землей
-     */
-    private Location findGroundBasedBorderLocation(World world, int x, int centerY, int z, int maxDepthSearch, int maxHeightSearch, boolean replaceVegetation) {
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Поиск места на земле (границы не должны летать)");
-        }
-
-        // ПРИОРИТЕТ 1: Пытаемся поставить на 1 блок ниже центра (если есть опора)
-        int preferredY = centerY - 1;
-        Block preferredBlock = world.getBlockAt(x, preferredY, z);
-        Block belowPreferred = world.getBlockAt(x, preferredY - 1, z);
-
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Приоритет 1 - проверяем Y=" + preferredY + " тип: " + preferredBlock.getType() + ", снизу: " + belowPreferred.getType());
-        }
-
-        // Если позиция подходит И есть опора снизу
-        if ((isAirOrReplaceable(preferredBlock) || (replaceVegetation && isReplaceableVegetation(preferredBlock)))
-                && isSolidBlock(belowPreferred)) {
-            if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                plugin.getLogger().info("DEBUG BORDERS: ✅ Приоритет 1 - размещаем в Y=" + preferredY + " (есть опора снизу)");
-            }
-            return new Location(world, x, preferredY, z);
-        }
-
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: ❌ Приоритет 1 невозможен - ищем ближайшую поверхность земли");
-        }
-
-        // ПРИОРИТЕТ 2: Ищем ближайшую твердую поверхность (сначала вниз, потом вверх)
-
-        // Ищем вниз от предпочтительной позиции
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Поиск поверхности вниз от Y=" + preferredY);
-        }
-        for (int y = preferredY - 1; y >= Math.max(preferredY - maxDepthSearch, world.getMinHeight()); y--) {
-            Block groundBlock = world.getBlockAt(x, y, z);
-            Block aboveGround = world.getBlockAt(x, y + 1, z);
-
-            if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                plugin.getLogger().info("DEBUG BORDERS: Проверяем землю Y=" + y + " тип: " + groundBlock.getType() + ", сверху: " + aboveGround.getType());
-            }
-
-            // Если найден твердый блок (земля) И сверху можно поставить границу
-            if (isSolidBlock(groundBlock) &&
-                    (isAirOrReplaceable(aboveGround) || (replaceVegetation && isReplaceableVegetation(aboveGround)))) {
-                int borderY = y + 1;
-                if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                    plugin.getLogger().info("DEBUG BORDERS: ✅ Найдена поверхность земли в Y=" + y + ", размещаем границу в Y=" + borderY);
-                }
-                return new Location(world, x, borderY, z);
-            }
-        }
-
-        // Ищем вверх от предпочтительной позиции
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().info("DEBUG BORDERS: Поиск поверхности вверх от Y=" + preferredY);
-        }
-        for (int y = preferredY; y <= Math.min(centerY + maxHeightSearch, world.getMaxHeight() - 1); y++) {
-            Block groundBlock = world.getBlockAt(x, y, z);
-            Block aboveGround = world.getBlockAt(x, y + 1, z);
-
-            if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                plugin.getLogger().info("DEBUG BORDERS: Проверяем землю Y=" + y + " тип: " + groundBlock.getType() + ", сверху: " + aboveGround.getType());
-            }
-
-            // Если найден твердый блок (земля) И сверху можно поставить границу
-            if (isSolidBlock(groundBlock) &&
-                    (isAirOrReplaceable(aboveGround) || (replaceVegetation && isReplaceableVegetation(aboveGround)))) {
-                int borderY = y + 1;
-                if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                    plugin.getLogger().info("DEBUG BORDERS: ✅ Найдена поверхность земли в Y=" + y + ", размещаем границу в Y=" + borderY);
-                }
-                return new Location(world, x, borderY, z);
-            }
-        }
-
-        // КРАЙНИЙ СЛУЧАЙ: Ищем любую твердую поверхность в широком диапазоне
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().warning("DEBUG BORDERS: ⚠️ Расширенный поиск поверхности земли");
-        }
-
-        // Расширенный поиск вниз до бедрока
-        for (int y = preferredY - maxDepthSearch - 1; y >= world.getMinHeight(); y--) {
-            Block groundBlock = world.getBlockAt(x, y, z);
-            if (isSolidBlock(groundBlock)) {
-                int borderY = y + 1;
-                if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-                    plugin.getLogger().info("DEBUG BORDERS: ✅ Расширенный поиск - найдена поверхность в Y=" + y + ", размещаем границу в Y=" + borderY);
-                }
-                return new Location(world, x, borderY, z);
-            }
-        }
-
-        // КРИТИЧЕСКИЙ СЛУЧАЙ: Если вообще ничего не найдено, ставим на уровне мира
-        int emergencyY = world.getHighestBlockYAt(x, z) + 1;
-        if (plugin.getConfig().getBoolean("debug.verbose-border-search", false)) {
-            plugin.getLogger().warning("DEBUG BORDERS: ⚠️ КРИТИЧЕСКИЙ СЛУЧАЙ - используем высшую точку мира Y=" + emergencyY);
-        }
-        return new Location(world, x, emergencyY, z);
-    }
-    /**
-     * Метод для определения цветов и декоративных растений
-     */
-    private boolean isFlower(Block block) {
-        Material type = block.getType();
-        String typeName = type.toString();
-
-        // Прямые проверки для известных цветов
-        if (typeName.equals("DANDELION") ||
-                typeName.equals("POPPY") ||
-                typeName.equals("BLUE_ORCHID") ||
-                typeName.equals("ALLIUM") ||
-                typeName.equals("AZURE_BLUET") ||
-                typeName.equals("OXEYE_DAISY") ||
-                typeName.equals("CORNFLOWER") ||
-                typeName.equals("LILY_OF_THE_VALLEY")) {
-            return true;
-        }
-
-        // Проверки по строковому названию для совместимости
-        return typeName.contains("FLOWER") ||
-                typeName.contains("TULIP") ||
-                typeName.contains("ROSE") ||
-                typeName.contains("ORCHID") ||
-                typeName.equals("SUNFLOWER") ||
-                typeName.equals("LILAC") ||
-                typeName.equals("PEONY") ||
-                typeName.equals("ROSE_BUSH") ||
-                // Дополнительные декоративные растения
-                typeName.contains("MUSHROOM") ||
-                typeName.equals("BROWN_MUSHROOM") ||
-                typeName.equals("RED_MUSHROOM");
-    }
-
-    /**
-     * Универсальный метод для определения всей заменяемой растительности
-     */
-    private boolean isReplaceableVegetation(Block block) {
-        return isGrass(block) || isFlower(block) || isVegetation(block);
-    }
-
-    /**
-     * Метод для определения травы
-     */
-    private boolean isGrass(Block block) {
-        Material type = block.getType();
-        String typeName = type.toString();
-
-        // Основные проверки для травы
-        if (type == Material.TALL_GRASS) {
-            return true;
-        }
-
-        // Проверяем по строковому названию для совместимости с разными версиями
-        if (typeName.equals("GRASS") ||           // Для старых версий
-                typeName.equals("SHORT_GRASS")) {     // Для новых версий Minecraft 1.20+
-            return true;
-        }
-
-        // Дополнительная проверка для случаев, когда материал называется по-другому
-        if (typeName.contains("GRASS") &&
-                !typeName.contains("BLOCK") &&
-                !typeName.contains("PATH") &&
-                !typeName.contains("STAINED")) {
-
-            if (plugin.getConfig().getBoolean("debug.log-grass-processing", false)) {
-                plugin.getLogger().info("DEBUG GRASS: Найден неизвестный тип травы: " + typeName + " - считаем травой");
-            }
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Метод для определения растительности
-     */
-    private boolean isVegetation(Block block) {
-        Material type = block.getType();
-        String typeName = type.toString();
-
-        // Прямые проверки для известных материалов
-        if (type == Material.FERN ||
-                type == Material.LARGE_FERN ||
-                type == Material.DEAD_BUSH ||
-                type == Material.SEAGRASS ||
-                type == Material.TALL_SEAGRASS ||
-                type == Material.KELP ||
-                type == Material.KELP_PLANT) {
-            return true;
-        }
-
-        // Проверки по строковому названию для совместимости
-        return typeName.contains("SAPLING") ||
-                typeName.contains("VINE") ||
-                typeName.equals("WHEAT") ||
-                typeName.equals("CARROTS") ||
-                typeName.equals("POTATOES") ||
-                typeName.equals("BEETROOTS");
-    }
-
-    /**
-     * Проверяет, является ли блок воздухом или заменяемым
-     */
-    private boolean isAirOrReplaceable(Block block) {
-        Material type = block.getType();
-        return type == Material.AIR ||
-                type == Material.CAVE_AIR ||
-                type == Material.VOID_AIR ||
-                type == Material.WATER ||
-                type == Material.LAVA ||
-                type == Material.FERN ||
-                type == Material.LARGE_FERN ||
-                type == Material.DEAD_BUSH ||
-                type == Material.SEAGRASS ||
-                type == Material.TALL_SEAGRASS ||
-                type == Material.KELP ||
-                type == Material.KELP_PLANT;
-    }
-
-    /**
-     * Улучшенный метод проверки твердого блока
-     */
-    private boolean isSolidBlock(Block block) {
-        Material type = block.getType();
-
-        // Исключаем жидкости и нетвердые блоки
-        if (type == Material.AIR ||
-                type == Material.CAVE_AIR ||
-                type == Material.VOID_AIR ||
-                type == Material.WATER ||
-                type == Material.LAVA) {
-            return false;
-        }
-
-        // Исключаем растения и другие нетвердые блоки
-        if (type.toString().contains("SAPLING") ||
-                type.toString().contains("FLOWER") ||
-                type.toString().contains("GRASS") ||
-                type.toString().contains("FERN") ||
-                type == Material.DEAD_BUSH ||
-                type == Material.SEAGRASS ||
-                type == Material.TALL_SEAGRASS ||
-                type == Material.KELP ||
-                type == Material.KELP_PLANT ||
-                type == Material.TORCH ||
-                type == Material.REDSTONE_TORCH ||
-                type == Material.LEVER ||
-                type == Material.STONE_BUTTON ||
-                type == Material.OAK_BUTTON ||
-                type == Material.SNOW ||
-                type == Material.POWDER_SNOW) {
-            return false;
-        }
-
-        // Все остальное считаем твердым (включая землю, камень, бедрок и т.д.)
-        return true;
     }
     /**
      * Перегруженный метод для совместимости
@@ -1062,29 +787,12 @@ public class VisualizationManager {
             plugin.getLogger().info("DEBUG: Поиск мира для региона " + region.getId());
         }
 
-        // Проверяем все миры
-        for (World world : plugin.getServer().getWorlds()) {
+        World regionWorld = plugin.getProtectRegionManager().findWorldForRegion(region.getId());
+        if (regionWorld != null) {
             if (plugin.getConfig().getBoolean("debug.log-world-detection", false)) {
-                plugin.getLogger().info("DEBUG: Проверяем мир: " + world.getName());
-            }
-
-            try {
-                Object regionManager = plugin.getProtectRegionManager().getWorldGuardRegionManager(world);
-                if (regionManager != null) {
-                    java.lang.reflect.Method getRegionMethod = regionManager.getClass().getMethod("getRegion", String.class);
-                    ProtectedRegion foundRegion = (ProtectedRegion) getRegionMethod.invoke(regionManager, region.getId());
-                    if (foundRegion != null) {
-                        if (plugin.getConfig().getBoolean("debug.log-world-detection", false)) {
-                            plugin.getLogger().info("DEBUG: ✅ Найден регион " + region.getId() + " в мире " + world.getName());
-                        }
-                        return world;
-                    }
-                }
-            } catch (Exception e) {
-                if (plugin.getConfig().getBoolean("debug.log-world-detection", false)) {
-                    plugin.getLogger().warning("DEBUG: Ошибка при поиске в мире " + world.getName() + ": " + e.getMessage());
-                }
+                plugin.getLogger().info("DEBUG: ✅ Найден регион " + region.getId() + " в мире " + regionWorld.getName());
             }
+            return regionWorld;
         }
 
         // Если не нашли, используем первый доступный мир
@@ -1101,16 +809,63 @@ public class VisualizationManager {
     }
 
     /**
-     * Удаляет физические границы региона
+     * Удаляет границы региона
      */
     public void removeRegionBorders(String regionId) {
+        // Результат незавершенного поиска позиций будет отброшен
+        pendingPlacements.remove(regionId);
+        borderRenderer.hide(regionId);
+
+        // Физические границы, оставшиеся от прежнего режима
+        if (!(borderRenderer instanceof PhysicalBorderRenderer)) {
+            restorePhysicalBorders(regionId);
+        }
+    }
+
+    /**
+     * Убирает из оригиналов позиции, где блок изменился до установки границы: граница там
+     * не поставлена, и восстановление не должно перезаписать новый блок старым
+     */
+    private void dropSkippedOriginals(String regionId, long[] skipped) {
+        BorderOriginals blocks = getOriginalBlocks(regionId);
+        if (blocks == null) {
+            return;
+        }
+
+        BorderOriginals remaining = blocks.without(skipped);
+        if (remaining.isEmpty()) {
+            evictOriginals(regionId);
+            unindexBorders(regionId);
+            if (borderStore != null) {
+                borderStore.remove(regionId);
+            }
+        } else {
+            cacheOriginals(regionId, remaining);
+            persistBorders(regionId, remaining);
+        }
+
+        if (plugin.getConfig().getBoolean("debug.log-border-placement", false)) {
+            plugin.getLogger().info("DEBUG: Границы региона " + regionId + ": пропущено измененных блоков - " + skipped.length);
+        }
+    }
+
+    /**
+     * Восстанавливает оригинальные блоки на месте физических границ региона
+     */
+    void restorePhysicalBorders(String regionId) {
         if (plugin.getConfig().getBoolean("debug.log-border-removal", false)) {
             plugin.getLogger().info("DEBUG: Удаление границ региона " + regionId);
         }
 
-        Map<Location, Material> originalBlocks = regionBorderBlocks.get(regionId);
+        // Блоки, еще не поставленные незавершенным заданием, восстанавливать не нужно
+        borderJobs.cancel(regionId);
 
-        if (originalBlocks != null) {
+        BorderOriginals originalBlocks = getOriginalBlocks(regionId);
+
+        if (originalBlocks != null && plugin.getServer().getWorld(originalBlocks.getWorldName()) == null) {
+            // Мир не загружен - оригиналы остаются в хранилище до его загрузки
+            plugin.getLogger().warning("Мир " + originalBlocks.getWorldName() + " для границ региона " + regionId + " не загружен");
+        } else if (originalBlocks != null) {
             if (plugin.getConfig().getBoolean("debug.log-border-removal", false)) {
                 plugin.getLogger().info("DEBUG: Найдено " + originalBlocks.size() + " блоков для восстановления");
             }
@@ -1123,27 +878,17 @@ public class VisualizationManager {
                 borderMaterial = Material.RED_WOOL;
             }
 
-            int restoredCount = 0;
-
-            // Восстанавливаем оригинальные блоки
-            for (Map.Entry<Location, Material> entry : originalBlocks.entrySet()) {
-                Location loc = entry.getKey();
-                Material originalMaterial = entry.getValue();
-
-                Block block = loc.getBlock();
-                // Проверяем что блок все еще является границей
-                if (block.getType() == borderMaterial) {
-                    block.setType(originalMaterial);
-                    restoredCount++;
-                    if (plugin.getConfig().getBoolean("debug.log-border-removal", false)) {
-                        plugin.getLogger().info("DEBUG: Восстановлен блок в " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + " на " + originalMaterial);
-                    }
+            // Регион сразу перестает считаться имеющим границы, а запись в хранилище удаляется
+            // только после восстановления всех блоков - до этого границы можно восстановить после сбоя
+            evictOriginals(regionId);
+            unindexBorders(regionId);
+            borderJobs.submitRestore(regionId, originalBlocks, borderMaterial, () -> {
+                if (borderStore != null && !borderWorlds.containsKey(regionId)) {
+                    borderStore.remove(regionId);
                 }
-            }
+            });
 
-            // Удаляем информацию о границах
-            regionBorderBlocks.remove(regionId);
-            plugin.getLogger().info("DEBUG BORDERS: Границы региона " + regionId + " удалены, восстановлено " + restoredCount + " блоков");
+            plugin.getLogger().info("DEBUG BORDERS: Границы региона " + regionId + " удалены, в очереди восстановления " + originalBlocks.size() + " блоков");
         } else {
             if (plugin.getConfig().getBoolean("debug.log-border-removal", false)) {
                 plugin.getLogger().info("DEBUG: Границы для региона " + regionId + " не найдены");
@@ -1188,7 +933,7 @@ public class VisualizationManager {
         ProtectedRegion region = plugin.getProtectRegionManager().getRegionAt(center);
 
         if (region != null) {
-            if (!regionBorderBlocks.containsKey(region.getId())) {
+            if (!hasRegionBorders(region.getId())) {
                 createRegionBorders(region, center.getWorld());
             }
             player.sendMessage("§aРегион найден! Границы отмечены красной шерстью.");
@@ -1217,28 +962,31 @@ public class VisualizationManager {
 
     public void removeAllRegionBorders() {
         plugin.getLogger().info("DEBUG BORDERS: Удаление всех границ регионов...");
-        for (String regionId : new ArrayList<>(regionBorderBlocks.keySet())) {
+        for (String regionId : getBorderRegions()) {
             removeRegionBorders(regionId);
         }
         plugin.getLogger().info("DEBUG BORDERS: Все границы регионов удалены");
     }
 
     public boolean isLocationBorderBlock(Location location, String regionId) {
-        Map<Location, Material> originalBlocks = regionBorderBlocks.get(regionId);
-        if (originalBlocks == null) {
-            return false;
-        }
+        return regionId != null && regionId.equals(getBorderRegionAt(location));
+    }
 
-        for (Location borderLoc : originalBlocks.keySet()) {
-            if (borderLoc.getBlockX() == location.getBlockX() &&
-                    borderLoc.getBlockY() == location.getBlockY() &&
-                    borderLoc.getBlockZ() == location.getBlockZ() &&
-                    borderLoc.getWorld().equals(location.getWorld())) {
-                return true;
-            }
+    /**
+     * Находит регион, которому принадлежит физический блок границы в этой позиции.
+     * Блок можно сломать только в загруженном чанке, а оригиналы регионов в загруженных
+     * чанках всегда в памяти - поэтому достаточно одного обращения к индексу позиций мира.
+     * @return ID региона или null, если это не блок границы
+     */
+    public String getBorderRegionAt(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
         }
-
-        return false;
+        BorderPositionIndex worldIndex = borderPositions.get(location.getWorld().getName());
+        if (worldIndex == null) {
+            return null;
+        }
+        return worldIndex.get(BorderOriginals.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
     }
 
     public boolean hasActiveVisualization(Player player) {
@@ -1249,11 +997,43 @@ public class VisualizationManager {
         return activeTasks.size();
     }
 
+    /**
+     * Количество блоков физических границ, ожидающих записи
+     */
+    public int getPendingBorderBlocks() {
+        return borderJobs.getPendingBlocks();
+    }
+
     public int getRegionBordersCount() {
-        return regionBorderBlocks.size();
+        return getBorderRegions().size();
     }
 
     public boolean hasRegionBorders(String regionId) {
-        return regionBorderBlocks.containsKey(regionId);
+        return pendingPlacements.containsKey(regionId) || borderRenderer.isShown(regionId) || hasPhysicalBorders(regionId);
+    }
+
+    /**
+     * Режим показа границ
+     */
+    public String getBorderMode() {
+        return borderRenderer.getType();
+    }
+
+    /**
+     * Регионы с границами в текущем режиме и с физическими границами прежнего режима
+     */
+    private Set<String> getBorderRegions() {
+        Set<String> regions = new HashSet<>(borderRenderer.getShownRegions());
+        regions.addAll(borderWorlds.keySet());
+        regions.addAll(pendingPlacements.keySet());
+        return regions;
+    }
+
+    boolean hasPhysicalBorders(String regionId) {
+        return regionBorderBlocks.containsKey(regionId) || borderWorlds.containsKey(regionId);
+    }
+
+    Set<String> getPhysicalBorderRegions() {
+        return new HashSet<>(borderWorlds.keySet());
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import com.sk89q.worldguard.protection.regions.RegionType;
+
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Типизированный шлюз к WorldGuard.
+ *
+ * Все операции с RegionManager (получение, добавление, удаление, замена, сохранение и поиск
+ * пересечений) выполняются через этот класс напрямую по API WorldGuard, без рефлексии.
+ * RegionContainer получается один раз при запуске, RegionManager'ы кэшируются в ProtectRegionManager.
+ *
+ * Изменяющие операции публикуют события в RegionEventBus, по которым обновляются
+ * индексы ProtectRegionManager, голограммы и другие подписчики.
+ */
+public class WorldGuardGateway {
+
+    private final RGProtectPlugin plugin;
+    private final ProtectRegionManager regionManagerOwner;
+    private final RegionContainer regionContainer;
+    private final RegionSaveScheduler saveScheduler;
+
+    public WorldGuardGateway(RGProtectPlugin plugin, ProtectRegionManager regionManagerOwner) {
+        this.plugin = plugin;
+        this.regionManagerOwner = regionManagerOwner;
+        this.regionContainer = WorldGuard.getInstance().getPlatform().getRegionContainer();
+        this.saveScheduler = new RegionSaveScheduler(plugin, this);
+        this.saveScheduler.start();
+    }
+
+    /**
+     * Получает RegionManager мира напрямую из контейнера WorldGuard (без кэша)
+     * @param world Мир Bukkit
+     * @return RegionManager или null если регионы в мире отключены
+     */
+    RegionManager resolveRegionManager(World world) {
+        return regionContainer.get(BukkitAdapter.adapt(world));
+    }
+
+    /**
+     * Получает RegionManager мира (с кэшированием)
+     */
+    public RegionManager getRegionManager(World world) {
+        return regionManagerOwner.getWorldGuardRegionManager(world);
+    }
+
+    /**
+     * Получает регион мира по ID
+     * @return ProtectedRegion или null
+     */
+    public ProtectedRegion getRegion(World world, String regionId) {
+        if (world == null || regionId == null) {
+            return null;
+        }
+        RegionManager regionManager = getRegionManager(world);
+        return regionManager != null ? regionManager.getRegion(regionId) : null;
+    }
+
+    /**
+     * Получает все регионы мира (только для чтения)
+     */
+    public Collection<ProtectedRegion> getRegions(World world) {
+        RegionManager regionManager = world != null ? getRegionManager(world) : null;
+        if (regionManager == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(regionManager.getRegions().values());
+    }
+
+    /**
+     * Добавляет регион в мир и в индексы плагина
+     * @return true если регион добавлен
+     */
+    public boolean addRegion(World world, ProtectedRegion region) {
+        RegionManager regionManager = world != null ? getRegionManager(world) : null;
+        if (regionManager == null || region == null) {
+            return false;
+        }
+
+        regionManager.addRegion(region);
+        plugin.getRegionEvents().fire(RegionEvent.Type.CREATED, region.getId(), world, region);
+        return true;
+    }
+
+    /**
+     * Удаляет регион из мира и из индексов плагина
+     * @return true если регион существовал и был удален
+     */
+    public boolean removeRegion(World world, String regionId) {
+        RegionManager regionManager = world != null ? getRegionManager(world) : null;
+        if (regionManager == null || regionId == null) {
+            return false;
+        }
+
+        boolean existed = regionManager.hasRegion(regionId);
+        regionManager.removeRegion(regionId);
+        plugin.getRegionEvents().fire(RegionEvent.Type.DELETED, regionId, world, null);
+        return existed;
+    }
+
+    /**
+     * Атомарно заменяет регион новым (с тем же ID, но другими границами).
+     * При ошибке возвращает исходный регион на место.
+     * @param world Мир
+     * @param current Текущий регион
+     * @param replacement Новый регион
+     * @return true если замена прошла успешно
+     */
+    public boolean redefineRegion(World world, ProtectedRegion current, ProtectedRegion replacement) {
+        RegionManager regionManager = world != null ? getRegionManager(world) : null;
+        if (regionManager == null || current == null || replacement == null) {
+            return false;
+        }
+
+        try {
+            regionManager.removeRegion(current.getId());
+            regionManager.addRegion(replacement);
+            plugin.getRegionEvents().fire(RegionEvent.Type.RESIZED, replacement.getId(), world, replacement);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Ошибка при замене региона " + current.getId() + ": " + e.getMessage());
+
+            try {
+                regionManager.addRegion(current);
+                regionManagerOwner.indexRegion(world, current);
+                plugin.getLogger().info("Оригинальный регион " + current.getId() + " восстановлен после ошибки");
+            } catch (Exception restoreEx) {
+                plugin.getLogger().severe("КРИТИЧЕСКАЯ ОШИБКА: Не удалось восстановить регион " + current.getId() + ": " + restoreEx.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Запрашивает сохранение базы регионов мира.
+     * Сохранение выполняется отложенно и объединяется с другими изменениями мира (см. RegionSaveScheduler).
+     * @return true если запрос принят
+     */
+    public boolean save(World world) {
+        if (world == null) {
+            return false;
+        }
+
+        saveScheduler.markDirty(world);
+        return true;
+    }
+
+    /**
+     * Немедленно сохраняет все отложенные изменения (при остановке плагина)
+     */
+    public void flushPendingSaves() {
+        saveScheduler.flushNow();
+    }
+
+    /**
+     * Получает планировщик сохранений
+     */
+    public RegionSaveScheduler getSaveScheduler() {
+        return saveScheduler;
+    }
+
+    /**
+     * Находит регионы мира, пересекающиеся с указанным (через индекс WorldGuard).
+     * Глобальный регион и сам регион с тем же ID не включаются.
+     */
+    public List<ProtectedRegion> getIntersectingRegions(World world, ProtectedRegion candidate) {
+        List<ProtectedRegion> result = new ArrayList<>();
+        RegionManager regionManager = world != null ? getRegionManager(world) : null;
+        if (regionManager == null || candidate == null) {
+            return result;
+        }
+
+        for (ProtectedRegion region : regionManager.getApplicableRegions(candidate)) {
+            if (region.getType() != RegionType.GLOBAL && !region.getId().equals(candidate.getId())) {
+                result.add(region);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.yourplugin.rGG.managers;
+
+import com.yourplugin.rGG.RGProtectPlugin;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Хранение данных в YAML-файлах папки плагина (снимок + журнал, см. JournaledStore)
+ */
+public class YamlStorageBackend implements StorageBackend {
+
+    private final RGProtectPlugin plugin;
+    private final Map<DataStore, JournaledStore> stores = new EnumMap<>(DataStore.class);
+
+    public YamlStorageBackend(RGProtectPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String getType() {
+        return "yaml";
+    }
+
+    @Override
+    public synchronized RecordStore openStore(DataStore store) {
+        return stores.computeIfAbsent(store, key -> new JournaledStore(plugin, key.getFileName(),
+                key.getRootSection(), key.getKeyDepth()));
+    }
+
+    @Override
+    public synchronized void close() {
+        for (JournaledStore store : stores.values()) {
+            store.close();
+        }
+        stores.clear();
+    }
+}